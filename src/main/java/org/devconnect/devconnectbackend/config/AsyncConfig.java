@@ -0,0 +1,12 @@
+package org.devconnect.devconnectbackend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+/**
+ * Enables @Async methods (WebSocket fan-out after commit), run on Spring Boot's task executor.
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+}
@@ -0,0 +1,104 @@
+package org.devconnect.devconnectbackend.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.devconnect.devconnectbackend.service.ConnectionAdmissionService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits concurrent chat list and bootstrap queries (GET /api/messages/chats/{userId} and
+ * GET /api/bootstrap/{userId}), which every client runs right after connecting. Users whose
+ * WebSocket connection was just admitted wait for a free slot; other requests only get one
+ * while some are left over for admitted users, and otherwise get 503 with a Retry-After header.
+ */
+@Component
+public class BootstrapPriorityFilter extends OncePerRequestFilter {
+
+    private static final List<String> BOOTSTRAP_PATHS = List.of("/api/messages/chats/", "/api/bootstrap/");
+
+    private final ConnectionAdmissionService admissionService;
+    private final Semaphore permits;
+    private final int reservedPermits;
+    private final long priorityWaitMs;
+
+    public BootstrapPriorityFilter(
+            ConnectionAdmissionService admissionService,
+            @Value("${websocket.admission.bootstrap-max-concurrent:16}") int maxConcurrent,
+            @Value("${websocket.admission.bootstrap-reserved:4}") int reservedPermits,
+            @Value("${websocket.admission.bootstrap-wait-ms:5000}") long priorityWaitMs) {
+        this.admissionService = admissionService;
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.reservedPermits = reservedPermits;
+        this.priorityWaitMs = priorityWaitMs;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"GET".equals(request.getMethod()) || bootstrapPath(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+
+        Integer userId = pathUserId(request);
+        boolean acquired;
+        if (admissionService.isRecentlyAdmitted(userId)) {
+            try {
+                acquired = permits.tryAcquire(priorityWaitMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                acquired = false;
+            }
+        } else {
+            // tryAcquire() would barge past admitted users waiting in the queue
+            acquired = !permits.hasQueuedThreads() && permits.availablePermits() > reservedPermits && permits.tryAcquire();
+        }
+
+        if (!acquired) {
+            // Seconds, with jitter so shed clients do not all come back together
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(1 + ThreadLocalRandom.current().nextInt(5)));
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Server busy, retry later");
+            return;
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+
+    // The {userId} segment, or null if it is not a number (then the request gets no priority)
+    private static Integer pathUserId(HttpServletRequest request) {
+        String rest = request.getRequestURI().substring(bootstrapPath(request).length());
+        int end = rest.indexOf('/');
+        try {
+            return Integer.valueOf(end < 0 ? rest : rest.substring(0, end));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String bootstrapPath(HttpServletRequest request) {
+        for (String path : BOOTSTRAP_PATHS) {
+            if (request.getRequestURI().startsWith(path)) {
+                return path;
+            }
+        }
+        return null;
+    }
+}
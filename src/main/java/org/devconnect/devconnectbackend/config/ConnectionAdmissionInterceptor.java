@@ -0,0 +1,76 @@
+package org.devconnect.devconnectbackend.config;
+
+import org.devconnect.devconnectbackend.exception.ConnectionRejectedException;
+import org.devconnect.devconnectbackend.model.User;
+import org.devconnect.devconnectbackend.repository.UserRepository;
+import org.devconnect.devconnectbackend.service.ConnectionAdmissionService;
+import org.devconnect.devconnectbackend.service.JWTService;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs STOMP CONNECT frames through ConnectionAdmissionService. A rejected CONNECT is answered
+ * with an ERROR frame carrying a retry-after-ms header (see WebSocketConfig).
+ *
+ * Admissions are recorded under the numeric user id, the same id BootstrapPriorityFilter reads
+ * from the request path. It is taken from the userId claim of the bearer token in the CONNECT
+ * frame, or looked up from the authenticated handshake user. Client-supplied ids are never
+ * trusted: a connection without either is admitted without bootstrap priority.
+ */
+@Component
+public class ConnectionAdmissionInterceptor implements ChannelInterceptor {
+
+    private final ConnectionAdmissionService admissionService;
+    private final JWTService jwtService;
+    private final UserRepository userRepository;
+
+    public ConnectionAdmissionInterceptor(
+            ConnectionAdmissionService admissionService,
+            JWTService jwtService,
+            UserRepository userRepository) {
+        this.admissionService = admissionService;
+        this.jwtService = jwtService;
+        this.userRepository = userRepository;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() != StompCommand.CONNECT) {
+            return message;
+        }
+
+        long retryAfterMs = admissionService.tryAdmit();
+        if (retryAfterMs > 0) {
+            throw new ConnectionRejectedException("Server busy, reconnect later", retryAfterMs);
+        }
+        // Only admitted connections pay for the token check and user lookup
+        admissionService.recordAdmission(resolveUserId(accessor));
+        return message;
+    }
+
+    private Integer resolveUserId(StompHeaderAccessor accessor) {
+        String authHeader = accessor.getFirstNativeHeader("Authorization");
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            String token = authHeader.substring(7);
+            try {
+                if (jwtService.isTokenValid(token)) {
+                    return jwtService.extractUserId(token);
+                }
+            } catch (Exception e) {
+                // Invalid token - fall back to the handshake user
+            }
+        }
+
+        if (accessor.getUser() != null) {
+            // The principal name is the email (see CustomUserDetailsService)
+            return userRepository.findByEmail(accessor.getUser().getName()).map(User::getUserId).orElse(null);
+        }
+        return null;
+    }
+}
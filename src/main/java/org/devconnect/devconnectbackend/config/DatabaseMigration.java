@@ -3,6 +3,7 @@ package org.devconnect.devconnectbackend.config;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
@@ -30,6 +31,12 @@ public class DatabaseMigration {
         try {
             // Migration 1: Allow NULL values for dev_id in projects table
             fixProjectsDevIdConstraint();
+
+            // Migration 2: Trigram indexes for user search (PostgreSQL only)
+            createUserSearchIndexes();
+
+            // Migration 3: Partial index for the soft-deleted message purge (PostgreSQL only)
+            createSoftDeletedMessagesIndex();
             
             log.info("Database schema migrations completed successfully!");
         } catch (Exception e) {
@@ -75,4 +82,49 @@ public class DatabaseMigration {
             log.warn("Could not modify dev_id constraint: {}. It may already be correct.", e.getMessage());
         }
     }
+
+    /**
+     * Creates trigram indexes so the LOWER(column) LIKE '%term%' filters of the user search
+     * can use an index instead of scanning the users table.
+     * H2 (tests) has no trigram indexes; the same query runs there as a scan.
+     */
+    private void createUserSearchIndexes() {
+        String product = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equalsIgnoreCase(product)) {
+            return;
+        }
+
+        try {
+            jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+            for (String column : new String[]{"first_name", "last_name", "username", "email"}) {
+                jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_users_" + column + "_trgm ON users USING gin (lower("
+                        + column + ") gin_trgm_ops)");
+            }
+            log.info("✅ User search trigram indexes are in place");
+        } catch (Exception e) {
+            // pg_trgm may need to be installed by a superuser; search still works, just without the indexes
+            log.warn("Could not create user search trigram indexes: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Creates a partial index over the soft-deleted messages, so the purge job finds them
+     * without scanning the messages table. It only holds the few rows waiting to be purged.
+     * On a partitioned messages table PostgreSQL creates it on every partition.
+     */
+    private void createSoftDeletedMessagesIndex() {
+        String product = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equalsIgnoreCase(product)) {
+            return;
+        }
+
+        try {
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_messages_soft_deleted ON messages (message_id) WHERE is_deleted");
+            log.info("✅ Soft-deleted messages index is in place");
+        } catch (Exception e) {
+            log.warn("Could not create soft-deleted messages index: {}", e.getMessage());
+        }
+    }
 }
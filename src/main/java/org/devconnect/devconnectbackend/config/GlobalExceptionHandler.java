@@ -1,5 +1,7 @@
 package org.devconnect.devconnectbackend.config;
 
+import org.devconnect.devconnectbackend.exception.AttachmentNotFoundException;
+import org.devconnect.devconnectbackend.exception.IdempotencyConflictException;
 import org.devconnect.devconnectbackend.exception.ProjectAlreadyClaimedException;
 import org.devconnect.devconnectbackend.exception.ProjectNotFoundException;
 import org.springframework.http.HttpStatus;
@@ -38,6 +40,22 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
     }
 
+    @ExceptionHandler(AttachmentNotFoundException.class)
+    public ResponseEntity<Map<String, String>> handleAttachmentNotFoundException(AttachmentNotFoundException ex) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", "Attachment Not Found");
+        error.put("message", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+    }
+
+    @ExceptionHandler(IdempotencyConflictException.class)
+    public ResponseEntity<Map<String, String>> handleIdempotencyConflictException(IdempotencyConflictException ex) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", "Idempotency Conflict");
+        error.put("message", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String, String>> handleGenericException(Exception ex) {
         Map<String, String> error = new HashMap<>();
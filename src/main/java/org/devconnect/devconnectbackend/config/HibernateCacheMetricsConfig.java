@@ -0,0 +1,23 @@
+package org.devconnect.devconnectbackend.config;
+
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.HibernateMetrics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Publishes Hibernate statistics to Micrometer. Second-level cache hits and misses per region
+ * (users, users-by-email, developers, projects) are at
+ * /actuator/metrics/hibernate.second.level.cache.requests; needs hibernate.generate_statistics.
+ */
+@Configuration
+public class HibernateCacheMetricsConfig {
+
+    @Bean
+    public MeterBinder hibernateMetrics(EntityManagerFactory entityManagerFactory) {
+        return new HibernateMetrics(entityManagerFactory.unwrap(SessionFactory.class), "entityManagerFactory", Tags.empty());
+    }
+}
@@ -0,0 +1,34 @@
+package org.devconnect.devconnectbackend.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.devconnect.devconnectbackend.repository.MessageJournal;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Local write-ahead journal for WebSocket sends. When enabled, accepted messages are written
+ * to messages.journal.dir and acknowledged right away; MessageJournalReplayer stores them in
+ * the database in order, so sends keep working while the database is unavailable.
+ */
+@Configuration
+@ConditionalOnProperty(name = "messages.journal.enabled", havingValue = "true")
+public class MessageJournalConfig {
+
+    @Value("${messages.journal.dir}")
+    private String directory;
+
+    @Value("${messages.journal.segment-size-mb:64}")
+    private int segmentSizeMb;
+
+    @Bean
+    public MessageJournal messageJournal(ObjectMapper objectMapper) throws IOException {
+        MessageJournal journal = new MessageJournal(Path.of(directory), segmentSizeMb * 1024 * 1024, objectMapper);
+        journal.open();
+        return journal;
+    }
+}
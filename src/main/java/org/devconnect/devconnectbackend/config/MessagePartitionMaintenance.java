@@ -0,0 +1,228 @@
+package org.devconnect.devconnectbackend.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the messages table range-partitioned by month on PostgreSQL.
+ *
+ * On first run it converts the plain messages table into a partitioned one (PRIMARY KEY
+ * becomes (message_id, created_at), which PostgreSQL requires for partitioned tables).
+ * Afterwards it makes sure partitions exist for the coming months and optionally detaches
+ * partitions older than the retention window. Rows that landed in messages_default because
+ * their month had no partition yet are moved into the month's partition once it is created.
+ * Off while messages are sharded: the shards' messages tables are not partitioned.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MessagePartitionMaintenance {
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("uuuuMM");
+    private static final String PARTITION_PREFIX = "messages_p";
+    private static final String DEFAULT_PARTITION = "messages_default";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${messages.partitioning.enabled:false}")
+    private boolean enabled;
+
+    @Value("${messages.sharding.enabled:false}")
+    private boolean sharded;
+
+    @Value("${messages.partitioning.months-ahead:3}")
+    private int monthsAhead;
+
+    // 0 keeps every partition attached
+    @Value("${messages.partitioning.detach-after-months:0}")
+    private int detachAfterMonths;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintain();
+    }
+
+    /**
+     * Runs daily so there is always a partition ready before a new month starts
+     */
+    @Scheduled(cron = "${messages.partitioning.cron:0 30 3 * * *}")
+    public void maintain() {
+        if (!enabled) {
+            return;
+        }
+        if (sharded) {
+            log.warn("Message partitioning is disabled while messages.sharding.enabled=true; skipping");
+            return;
+        }
+
+        try {
+            if (!isPostgres()) {
+                log.warn("Message partitioning is only supported on PostgreSQL; skipping");
+                return;
+            }
+            if (!isPartitioned()) {
+                convertToPartitioned();
+            }
+            createFuturePartitions();
+            if (detachAfterMonths > 0) {
+                detachOldPartitions();
+            }
+        } catch (Exception e) {
+            log.error("Message partition maintenance failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private boolean isPostgres() {
+        String product = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        return "PostgreSQL".equalsIgnoreCase(product);
+    }
+
+    private boolean isPartitioned() {
+        List<String> kinds = jdbcTemplate.queryForList(
+                "SELECT relkind::text FROM pg_class WHERE relname = 'messages' AND relnamespace = current_schema()::regnamespace",
+                String.class);
+        return kinds.contains("p");
+    }
+
+    /**
+     * One-off conversion of the existing heap table. Runs in a single transaction,
+     * so a failure leaves the original table untouched.
+     */
+    private void convertToPartitioned() {
+        log.info("Converting messages table to monthly range partitions...");
+
+        transactionTemplate.executeWithoutResult(status -> {
+            // Remember foreign keys so they can be recreated with the same names
+            List<Map<String, Object>> foreignKeys = jdbcTemplate.queryForList("""
+                    SELECT conname, pg_get_constraintdef(oid) AS definition
+                    FROM pg_constraint
+                    WHERE conrelid = 'messages'::regclass AND contype = 'f'
+                    """);
+
+            jdbcTemplate.execute("ALTER TABLE messages RENAME TO messages_legacy");
+            jdbcTemplate.execute("""
+                    CREATE TABLE messages (LIKE messages_legacy INCLUDING DEFAULTS INCLUDING CONSTRAINTS)
+                    PARTITION BY RANGE (created_at)
+                    """);
+            jdbcTemplate.execute("ALTER TABLE messages ADD PRIMARY KEY (message_id, created_at)");
+            jdbcTemplate.execute("CREATE TABLE " + DEFAULT_PARTITION + " PARTITION OF messages DEFAULT");
+
+            LocalDate oldest = jdbcTemplate.queryForObject(
+                    "SELECT CAST(MIN(created_at) AS date) FROM messages_legacy", LocalDate.class);
+            YearMonth from = oldest != null ? YearMonth.from(oldest) : YearMonth.now();
+            for (YearMonth month = from; !month.isAfter(YearMonth.now().plusMonths(monthsAhead)); month = month.plusMonths(1)) {
+                createPartition(month);
+            }
+
+            jdbcTemplate.execute("INSERT INTO messages SELECT * FROM messages_legacy");
+            jdbcTemplate.execute("DROP TABLE messages_legacy");
+
+            for (Map<String, Object> foreignKey : foreignKeys) {
+                jdbcTemplate.execute("ALTER TABLE messages ADD CONSTRAINT " + foreignKey.get("conname")
+                        + " " + foreignKey.get("definition"));
+            }
+
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_messages_conversation_created ON messages (conversation_id, created_at)");
+            // Dropped with messages_legacy; see DatabaseMigration
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_messages_soft_deleted ON messages (message_id) WHERE is_deleted");
+        });
+
+        log.info("✅ messages table is now partitioned by month");
+    }
+
+    private void createFuturePartitions() {
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= monthsAhead; i++) {
+            YearMonth month = current.plusMonths(i);
+            try {
+                createPartition(month);
+            } catch (Exception e) {
+                // Its rows keep landing in messages_default until this succeeds on a later run
+                log.error("Could not create message partition for {}: {}", month, e.getMessage(), e);
+            }
+        }
+    }
+
+    private void createPartition(YearMonth month) {
+        String name = PARTITION_PREFIX + month.format(PARTITION_SUFFIX);
+        Boolean exists = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_class WHERE relname = ?)", Boolean.class, name);
+        if (Boolean.TRUE.equals(exists)) {
+            return;
+        }
+
+        LocalDate from = month.atDay(1);
+        LocalDate to = month.plusMonths(1).atDay(1);
+        String create = "CREATE TABLE " + name + " PARTITION OF messages FOR VALUES FROM ('" + from + "') TO ('" + to + "')";
+        if (!defaultPartitionHasRows(from, to)) {
+            jdbcTemplate.execute(create);
+            log.info("Created message partition {}", name);
+            return;
+        }
+
+        // PostgreSQL refuses a new partition while the default one holds rows in its range.
+        // Detaching the default locks messages, so inserts wait instead of failing meanwhile.
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("ALTER TABLE messages DETACH PARTITION " + DEFAULT_PARTITION);
+            jdbcTemplate.execute(create);
+            int moved = jdbcTemplate.update("INSERT INTO messages SELECT * FROM " + DEFAULT_PARTITION
+                    + " WHERE created_at >= ? AND created_at < ?", from, to);
+            jdbcTemplate.update("DELETE FROM " + DEFAULT_PARTITION + " WHERE created_at >= ? AND created_at < ?", from, to);
+            jdbcTemplate.execute("ALTER TABLE messages ATTACH PARTITION " + DEFAULT_PARTITION + " DEFAULT");
+            log.info("Created message partition {} and moved {} messages into it from {}", name, moved, DEFAULT_PARTITION);
+        });
+    }
+
+    private boolean defaultPartitionHasRows(LocalDate from, LocalDate to) {
+        Boolean exists = jdbcTemplate.queryForObject(
+                "SELECT to_regclass(?) IS NOT NULL", Boolean.class, DEFAULT_PARTITION);
+        if (!Boolean.TRUE.equals(exists)) {
+            return false;
+        }
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM " + DEFAULT_PARTITION
+                + " WHERE created_at >= ? AND created_at < ?)", Boolean.class, from, to));
+    }
+
+    /**
+     * Detached partitions stay in the database as standalone tables and can be archived or dropped separately
+     */
+    private void detachOldPartitions() {
+        YearMonth cutoff = YearMonth.now().minusMonths(detachAfterMonths);
+
+        List<String> partitions = jdbcTemplate.queryForList("""
+                SELECT child.relname
+                FROM pg_inherits
+                JOIN pg_class parent ON parent.oid = pg_inherits.inhparent
+                JOIN pg_class child ON child.oid = pg_inherits.inhrelid
+                WHERE parent.relname = 'messages'
+                """, String.class);
+
+        for (String partition : partitions) {
+            if (!partition.startsWith(PARTITION_PREFIX)) {
+                continue;
+            }
+
+            YearMonth month = YearMonth.parse(partition.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX);
+            if (month.isBefore(cutoff)) {
+                jdbcTemplate.execute("ALTER TABLE messages DETACH PARTITION " + partition);
+                log.info("Detached message partition {}", partition);
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package org.devconnect.devconnectbackend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replicas. When enabled, @Transactional(readOnly = true) service methods run on the databases
+ * in datasource.replicas.urls and everything else on spring.datasource (see ReplicaRoutingDataSource).
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.replicas.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    @Value("${datasource.replicas.urls}")
+    private List<String> replicaUrls;
+
+    @Value("${datasource.replicas.username:}")
+    private String username;
+
+    @Value("${datasource.replicas.password:}")
+    private String password;
+
+    @Value("${datasource.replicas.sticky-window-ms:2000}")
+    private long stickyWindowMs;
+
+    @Value("${datasource.replicas.transaction-prefix:org.devconnect.devconnectbackend.service.}")
+    private String transactionPrefix;
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, MeterRegistry meterRegistry) {
+        List<DataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            DataSourceBuilder<HikariDataSource> builder = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(replicaUrls.get(i).trim());
+            if (!username.isEmpty()) {
+                builder.username(username).password(password);
+            }
+            HikariDataSource replica = builder.build();
+            // Same hikaricp.connections.* metrics as the primary, tagged pool=replica-<n>
+            replica.setPoolName("replica-" + i);
+            replica.setMetricRegistry(meterRegistry);
+            replicas.add(replica);
+        }
+        return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primaryDataSource, replicas, stickyWindowMs, transactionPrefix));
+    }
+}
@@ -0,0 +1,131 @@
+package org.devconnect.devconnectbackend.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Sends connections of opted-in read-only transactions to the replicas (round robin) and
+ * everything else to the primary. A read-only transaction opts in when it was started by a
+ * method whose qualified name starts with replicaTransactionPrefix (the service package), so
+ * the read-only transactions Spring Data opens around repository calls (findById, findAll,
+ * findByEmail) stay on the primary, as does non-transactional access. Must sit behind a
+ * LazyConnectionDataSourceProxy, so the connection is only chosen once the transaction's
+ * read-only flag and name are known.
+ *
+ * Read-your-writes: for sticky-window-ms after a user's read-write transaction commits, that
+ * user's reads also go to the primary. Code whose results are tagged with a ResourceVersionService
+ * version must read the primary (onPrimary), or leave results untagged while the version is younger
+ * than the sticky window (ResourceVersionService.changedWithin), since a lagging replica would tie
+ * old data to it.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final String PRIMARY = "primary";
+    private static final ThreadLocal<Boolean> PRIMARY_ONLY = new ThreadLocal<>();
+    private static final int PURGE_THRESHOLD = 10_000;
+
+    private final List<String> replicaKeys = new ArrayList<>();
+    private final AtomicInteger next = new AtomicInteger();
+    private final long stickyWindowMs;
+    private final String replicaTransactionPrefix;
+    // Last commit time of each user's read-write transactions
+    private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, long stickyWindowMs,
+                                    String replicaTransactionPrefix) {
+        this.stickyWindowMs = stickyWindowMs;
+        this.replicaTransactionPrefix = replicaTransactionPrefix;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            targets.put("replica-" + i, replicas.get(i));
+            replicaKeys.add("replica-" + i);
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    /**
+     * Run work with all its reads on the primary
+     */
+    public static <T> T onPrimary(Supplier<T> work) {
+        Boolean previous = PRIMARY_ONLY.get();
+        PRIMARY_ONLY.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                PRIMARY_ONLY.remove();
+            }
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String user = currentUser();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (user != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        rememberWrite(user);
+                    }
+                });
+            }
+            return PRIMARY;
+        }
+
+        String transaction = TransactionSynchronizationManager.getCurrentTransactionName();
+        if (replicaKeys.isEmpty() || transaction == null || !transaction.startsWith(replicaTransactionPrefix)
+                || PRIMARY_ONLY.get() != null || wroteRecently(user)) {
+            return PRIMARY;
+        }
+        return replicaKeys.get(Math.floorMod(next.getAndIncrement(), replicaKeys.size()));
+    }
+
+    private void rememberWrite(String user) {
+        long now = System.currentTimeMillis();
+        if (lastWrites.size() > PURGE_THRESHOLD) {
+            lastWrites.values().removeIf(time -> now - time >= stickyWindowMs);
+        }
+        lastWrites.put(user, now);
+    }
+
+    private boolean wroteRecently(String user) {
+        if (user == null) {
+            return false;
+        }
+        Long lastWrite = lastWrites.get(user);
+        if (lastWrite == null) {
+            return false;
+        }
+        if (System.currentTimeMillis() - lastWrite < stickyWindowMs) {
+            return true;
+        }
+        lastWrites.remove(user, lastWrite);
+        return false;
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
@@ -0,0 +1,12 @@
+package org.devconnect.devconnectbackend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled background jobs (upload session cleanup, maintenance tasks).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
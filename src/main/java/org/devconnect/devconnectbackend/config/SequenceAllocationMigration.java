@@ -0,0 +1,66 @@
+package org.devconnect.devconnectbackend.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Moves the entity id sequences from increment 1 to ALLOCATION_SIZE, so they match the
+ * pooled-lo allocation of the entities (one nextval per block of ids instead of per insert).
+ *
+ * Runs before the EntityManagerFactory is built: Hibernate refuses to start when a sequence's
+ * increment differs from the mapped allocationSize. Sequences that do not exist yet are created
+ * by Hibernate with the right increment. The next value after the change is above every id
+ * handed out so far, so existing ids are never reused.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SequenceAllocationMigration {
+
+    // Must match allocationSize of the entities' @SequenceGenerator
+    public static final int ALLOCATION_SIZE = 50;
+
+    private static final List<String> SEQUENCES = List.of(
+            "user_seq", "developer_seq", "client_sequence", "project_seq", "conversation_seq",
+            "message_seq", "attachment_seq", "message_archive_seq");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void migrate() {
+        String product = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equalsIgnoreCase(product)) {
+            // H2 (tests) creates its schema from scratch
+            return;
+        }
+
+        for (String sequence : SEQUENCES) {
+            List<Long> increments = jdbcTemplate.queryForList(
+                    "SELECT increment_by FROM pg_sequences WHERE schemaname = current_schema() AND sequencename = ?",
+                    Long.class, sequence);
+            if (!increments.isEmpty() && increments.get(0) != ALLOCATION_SIZE) {
+                jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " INCREMENT BY " + ALLOCATION_SIZE);
+                log.info("✅ Sequence {} now increments by {}", sequence, ALLOCATION_SIZE);
+            }
+        }
+    }
+
+    /**
+     * Makes the EntityManagerFactory wait for this migration
+     */
+    @Component
+    static class EntityManagerFactoryDependsOnSequenceMigration extends EntityManagerFactoryDependsOnPostProcessor {
+
+        EntityManagerFactoryDependsOnSequenceMigration() {
+            super(SequenceAllocationMigration.class);
+        }
+    }
+}
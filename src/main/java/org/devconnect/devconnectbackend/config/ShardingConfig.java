@@ -0,0 +1,74 @@
+package org.devconnect.devconnectbackend.config;
+
+import org.devconnect.devconnectbackend.repository.ShardedMessageStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sharded message storage. When enabled, conversations and messages are stored on the
+ * shard databases listed in messages.sharding.urls instead of the main database.
+ * The main database keeps users, projects and the shard map.
+ *
+ * Conversations written to the main database before sharding was enabled are not visible to
+ * the shards. Startup fails while there are any, unless messages.sharding.backfill-on-startup
+ * is set (on one node), which copies them to their shards first.
+ */
+@Configuration
+@ConditionalOnProperty(name = "messages.sharding.enabled", havingValue = "true")
+public class ShardingConfig {
+
+    @Value("${messages.sharding.urls}")
+    private List<String> shardUrls;
+
+    @Value("${messages.sharding.username:}")
+    private String username;
+
+    @Value("${messages.sharding.password:}")
+    private String password;
+
+    @Value("${messages.sharding.backfill-on-startup:false}")
+    private boolean backfillOnStartup;
+
+    @Bean
+    public ShardedMessageStore shardedMessageStore(DataSource dataSource, PlatformTransactionManager transactionManager) {
+        List<DataSource> shards = new ArrayList<>();
+        for (String url : shardUrls) {
+            DataSourceBuilder<?> builder = DataSourceBuilder.create().url(url.trim());
+            if (!username.isEmpty()) {
+                builder.username(username).password(password);
+            }
+            shards.add(builder.build());
+        }
+
+        ShardedMessageStore store = new ShardedMessageStore(dataSource, shards, transactionManager);
+        try {
+            store.initialize();
+            if (backfillOnStartup && store.countUnshardedConversations() > 0) {
+                store.backfillFromPrimary();
+            }
+
+            int unsharded = store.countUnshardedConversations();
+            if (unsharded > 0) {
+                throw new IllegalStateException(unsharded + " conversations are still only in the main database and would "
+                        + "be hidden; start one node with messages.sharding.backfill-on-startup=true to copy them to the shards");
+            }
+        } catch (RuntimeException e) {
+            try {
+                store.close();
+            } catch (IOException closeFailure) {
+                e.addSuppressed(closeFailure);
+            }
+            throw e;
+        }
+        return store;
+    }
+}
@@ -1,14 +1,25 @@
 package org.devconnect.devconnectbackend.config;
 
+import org.devconnect.devconnectbackend.exception.ConnectionRejectedException;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.messaging.StompSubProtocolErrorHandler;
 
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
+
+    @Autowired
+    private ConnectionAdmissionInterceptor connectionAdmissionInterceptor;
     
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
@@ -34,5 +45,36 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         // Also register without SockJS for native WebSocket support
         registry.addEndpoint("/ws")
                 .setAllowedOriginPatterns("*");
+
+        registry.setErrorHandler(new AdmissionErrorHandler());
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        // Rate limit new connections (reconnect storms after a deploy)
+        registration.interceptors(connectionAdmissionInterceptor);
+    }
+
+    /**
+     * Adds a retry-after-ms header to the ERROR frame of a CONNECT rejected by admission control
+     */
+    private static class AdmissionErrorHandler extends StompSubProtocolErrorHandler {
+
+        @Override
+        public Message<byte[]> handleClientMessageProcessingError(Message<byte[]> clientMessage, Throwable ex) {
+            Throwable cause = ex;
+            while (cause != null && !(cause instanceof ConnectionRejectedException)) {
+                cause = cause.getCause();
+            }
+            if (cause == null) {
+                return super.handleClientMessageProcessingError(clientMessage, ex);
+            }
+
+            StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.ERROR);
+            accessor.setMessage(cause.getMessage());
+            accessor.setNativeHeader("retry-after-ms", String.valueOf(((ConnectionRejectedException) cause).getRetryAfterMs()));
+            accessor.setLeaveMutable(true);
+            return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+        }
     }
 }
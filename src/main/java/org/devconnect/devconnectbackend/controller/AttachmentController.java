@@ -0,0 +1,170 @@
+package org.devconnect.devconnectbackend.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.devconnect.devconnectbackend.dto.AttachmentDTO;
+import org.devconnect.devconnectbackend.dto.UploadSessionDTO;
+import org.devconnect.devconnectbackend.model.Attachment;
+import org.devconnect.devconnectbackend.service.AttachmentService;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/attachments")
+@RequiredArgsConstructor
+public class AttachmentController {
+
+    private final AttachmentService attachmentService;
+
+    /**
+     * Start a chunked upload
+     * POST /api/attachments/uploads?uploaderId={id}&fileName={name}&contentType={type}
+     */
+    @PostMapping("/uploads")
+    public ResponseEntity<UploadSessionDTO> startUpload(
+            @RequestParam Integer uploaderId,
+            @RequestParam String fileName,
+            @RequestParam(required = false) String contentType) {
+        UploadSessionDTO session = attachmentService.startUpload(uploaderId, fileName, contentType);
+        return ResponseEntity.status(HttpStatus.CREATED).body(session);
+    }
+
+    /**
+     * Append a chunk (raw request body) at the given offset
+     * PUT /api/attachments/uploads/{uploadId}?offset={bytesAlreadySent}
+     */
+    @PutMapping(value = "/uploads/{uploadId}", consumes = "application/octet-stream")
+    public ResponseEntity<UploadSessionDTO> uploadChunk(
+            @PathVariable String uploadId,
+            @RequestParam long offset,
+            HttpServletRequest request) throws IOException {
+        UploadSessionDTO session = attachmentService.appendChunk(uploadId, offset, request.getInputStream());
+        return ResponseEntity.ok(session);
+    }
+
+    /**
+     * Finish an upload and get the attachment id to reference from a message
+     * POST /api/attachments/uploads/{uploadId}/complete
+     */
+    @PostMapping("/uploads/{uploadId}/complete")
+    public ResponseEntity<AttachmentDTO> completeUpload(@PathVariable String uploadId) {
+        AttachmentDTO attachment = attachmentService.completeUpload(uploadId);
+        return ResponseEntity.status(HttpStatus.CREATED).body(attachment);
+    }
+
+    /**
+     * Abort an upload and discard the received chunks
+     * DELETE /api/attachments/uploads/{uploadId}
+     */
+    @DeleteMapping("/uploads/{uploadId}")
+    public ResponseEntity<Map<String, String>> abortUpload(@PathVariable String uploadId) {
+        attachmentService.abort(uploadId);
+        Map<String, String> response = new HashMap<>();
+        response.put("message", "Upload aborted");
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Get attachment metadata
+     * GET /api/attachments/{attachmentId}/meta
+     */
+    @GetMapping("/{attachmentId}/meta")
+    public ResponseEntity<AttachmentDTO> getAttachment(@PathVariable Integer attachmentId) {
+        return ResponseEntity.ok(attachmentService.getAttachment(attachmentId));
+    }
+
+    /**
+     * Download attachment content. Supports single byte ranges ("Range: bytes=start-end").
+     * GET /api/attachments/{attachmentId}
+     */
+    @GetMapping("/{attachmentId}")
+    public void downloadAttachment(
+            @PathVariable Integer attachmentId,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String rangeHeader,
+            HttpServletResponse response) throws IOException {
+        Attachment attachment = attachmentService.findAttachment(attachmentId);
+        long size = attachment.getSizeBytes();
+
+        long start = 0;
+        long end = size - 1;
+
+        if (rangeHeader != null && rangeHeader.startsWith("bytes=") && !rangeHeader.contains(",")) {
+            long[] range = parseRange(rangeHeader.substring(6).trim(), size);
+            if (range == null) {
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                return;
+            }
+            start = range[0];
+            end = range[1];
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+        } else {
+            response.setStatus(HttpStatus.OK.value());
+        }
+
+        long length = size == 0 ? 0 : end - start + 1;
+        response.setContentType(attachment.getContentType());
+        response.setContentLengthLong(length);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.ETAG, "\"" + attachment.getContentHash() + "\"");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(attachment.getFileName(), StandardCharsets.UTF_8)
+                .build()
+                .toString());
+
+        if (length > 0) {
+            WritableByteChannel target = Channels.newChannel(response.getOutputStream());
+            attachmentService.transferContent(attachment, start, length, target);
+        }
+        response.flushBuffer();
+    }
+
+    /**
+     * Parse "start-end", "start-" or "-suffixLength" against the content size.
+     * Returns null when the range cannot be satisfied.
+     */
+    private long[] parseRange(String spec, long size) {
+        try {
+            int dash = spec.indexOf('-');
+            if (dash < 0 || size == 0) {
+                return null;
+            }
+
+            String startPart = spec.substring(0, dash).trim();
+            String endPart = spec.substring(dash + 1).trim();
+
+            long start;
+            long end;
+            if (startPart.isEmpty()) {
+                long suffix = Long.parseLong(endPart);
+                if (suffix <= 0) {
+                    return null;
+                }
+                start = Math.max(0, size - suffix);
+                end = size - 1;
+            } else {
+                start = Long.parseLong(startPart);
+                end = endPart.isEmpty() ? size - 1 : Math.min(Long.parseLong(endPart), size - 1);
+            }
+
+            if (start < 0 || start >= size || start > end) {
+                return null;
+            }
+            return new long[]{start, end};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
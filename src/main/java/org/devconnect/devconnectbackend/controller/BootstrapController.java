@@ -0,0 +1,32 @@
+package org.devconnect.devconnectbackend.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.devconnect.devconnectbackend.dto.BootstrapDTO;
+import org.devconnect.devconnectbackend.service.BootstrapService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/bootstrap")
+@RequiredArgsConstructor
+public class BootstrapController {
+
+    private final BootstrapService bootstrapService;
+
+    /**
+     * Profile, inbox, unread totals, contact presence and active projects in one call.
+     * Parts that could not be loaded in time are null and listed in "degraded".
+     * GET /api/bootstrap/{userId}
+     */
+    @GetMapping("/{userId}")
+    public ResponseEntity<BootstrapDTO> bootstrap(@PathVariable Long userId) {
+        try {
+            return ResponseEntity.ok(bootstrapService.bootstrap(userId.intValue()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
@@ -1,13 +1,22 @@
 package org.devconnect.devconnectbackend.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.devconnect.devconnectbackend.dto.BatchResultDTO;
 import org.devconnect.devconnectbackend.dto.DeveloperResponseDTO;
 import org.devconnect.devconnectbackend.service.DeveloperService;
+import org.devconnect.devconnectbackend.service.ResourceVersionService;
+import org.devconnect.devconnectbackend.utills.JsonResponseCache;
+import org.devconnect.devconnectbackend.utills.KeysetPagination;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/developers")
@@ -15,15 +24,47 @@ import java.util.List;
 public class DeveloperController {
 
     private final DeveloperService developerService;
+    private final ObjectMapper objectMapper;
+    private final JsonResponseCache responseCache;
 
     /**
-     * Get all developers
-     * GET /api/developers
+     * Get all developers, one page at a time (X-Next-Cursor header holds the next page's cursor)
+     * GET /api/developers?cursor={cursor}&limit={n}
      */
     @GetMapping
-    public ResponseEntity<List<DeveloperResponseDTO>> getAllDevelopers() {
-        List<DeveloperResponseDTO> developers = developerService.getAllDevelopers();
-        return ResponseEntity.ok(developers);
+    public ResponseEntity<List<DeveloperResponseDTO>> getAllDevelopers(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + KeysetPagination.DEFAULT_LIMIT) int limit) {
+        try {
+            return KeysetPagination.response(developerService.getDevelopersPage(cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Get all developers with only some fields, e.g. for list screens
+     * GET /api/developers?fields=username,firstName,lastName,averageRating
+     */
+    @GetMapping(params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getDeveloperFields(
+            @RequestParam String fields,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + KeysetPagination.DEFAULT_LIMIT) int limit) {
+        try {
+            return KeysetPagination.response(developerService.getDeveloperFieldsPage(fields, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Stream all developers as NDJSON
+     * GET /api/developers with Accept: application/x-ndjson
+     */
+    @GetMapping(produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamDevelopers() {
+        return KeysetPagination.ndjson(objectMapper, write -> developerService.forEachDeveloper(write::accept));
     }
 
     /**
@@ -59,14 +100,43 @@ public class DeveloperController {
         return ResponseEntity.ok(developers);
     }
 
+    /**
+     * Get several developers at once, in request order; unknown ids are listed in missingIds
+     * GET /api/developers/batch?ids=1,2,3
+     */
+    @GetMapping("/batch")
+    public ResponseEntity<BatchResultDTO<DeveloperResponseDTO, Integer>> getDevelopersByIds(@RequestParam List<Integer> ids) {
+        try {
+            return ResponseEntity.ok(developerService.getDevelopersByIds(ids));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     /**
      * Get developer by ID
      * GET /api/developers/{id}
      */
     @GetMapping("/{id}")
-    public ResponseEntity<DeveloperResponseDTO> getDeveloperById(@PathVariable Integer id) {
-        DeveloperResponseDTO developer = developerService.getDeveloperById(id);
-        return ResponseEntity.ok(developer);
+    public ResponseEntity<byte[]> getDeveloperById(@PathVariable Integer id, WebRequest webRequest) {
+        Integer userId = developerService.getUserIdForDeveloper(id);
+        if (userId == null) {
+            throw new RuntimeException("Developer not found with ID: " + id);
+        }
+        return profile(userId, webRequest, () -> developerService.getDeveloperById(id));
+    }
+
+    /**
+     * Get developer by ID with only some fields
+     * GET /api/developers/{id}?fields=username,skills
+     */
+    @GetMapping(value = "/{id}", params = "fields")
+    public ResponseEntity<Map<String, Object>> getDeveloperFieldsById(@PathVariable Integer id, @RequestParam String fields) {
+        try {
+            return ResponseEntity.ok(developerService.getDeveloperFields(id, fields));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     /**
@@ -74,9 +144,8 @@ public class DeveloperController {
      * GET /api/developers/user/{userId}
      */
     @GetMapping("/user/{userId}")
-    public ResponseEntity<DeveloperResponseDTO> getDeveloperByUserId(@PathVariable Integer userId) {
-        DeveloperResponseDTO developer = developerService.getDeveloperByUserId(userId);
-        return ResponseEntity.ok(developer);
+    public ResponseEntity<byte[]> getDeveloperByUserId(@PathVariable Integer userId, WebRequest webRequest) {
+        return profile(userId, webRequest, () -> developerService.getDeveloperByUserId(userId));
     }
 
     /**
@@ -88,4 +157,11 @@ public class DeveloperController {
         List<DeveloperResponseDTO> developers = developerService.getDevelopersByMinRating(minRating);
         return ResponseEntity.ok(developers);
     }
+
+    /**
+     * Developer profile with an ETag, served from the JSON cache; 304 if If-None-Match still matches
+     */
+    private ResponseEntity<byte[]> profile(Integer userId, WebRequest webRequest, Supplier<DeveloperResponseDTO> load) {
+        return responseCache.respond(ResourceVersionService.developer(userId), webRequest, load);
+    }
 }
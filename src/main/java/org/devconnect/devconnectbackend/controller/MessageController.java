@@ -1,23 +1,43 @@
 package org.devconnect.devconnectbackend.controller;
 
+import org.devconnect.devconnectbackend.dto.BroadcastRequestDTO;
+import org.devconnect.devconnectbackend.dto.BroadcastResponseDTO;
 import org.devconnect.devconnectbackend.dto.ChatDTO;
 import org.devconnect.devconnectbackend.dto.MessageDTO;
+import org.devconnect.devconnectbackend.dto.UserResponseDTO;
+import org.devconnect.devconnectbackend.exception.IdempotencyConflictException;
+import org.devconnect.devconnectbackend.model.Conversation;
 import org.devconnect.devconnectbackend.model.User;
+import org.devconnect.devconnectbackend.service.ContactAutocompleteService;
 import org.devconnect.devconnectbackend.service.ConversationService;
+import org.devconnect.devconnectbackend.service.IdempotencyService;
+import org.devconnect.devconnectbackend.service.MessageExportService;
 import org.devconnect.devconnectbackend.service.MessageService;
+import org.devconnect.devconnectbackend.service.ResourceVersionService;
 import org.devconnect.devconnectbackend.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/messages")
 public class MessageController {
 
+    private static final int MAX_BROADCAST_RECEIVERS = 100;
+    private static final int MAX_AUTOCOMPLETE_RESULTS = 50;
+
     @Autowired
     private MessageService messageService;
 
@@ -27,15 +47,65 @@ public class MessageController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private MessageExportService messageExportService;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private ContactAutocompleteService contactAutocompleteService;
+
+    @Autowired
+    private ResourceVersionService resourceVersions;
+
+    // How far a replica may lag behind the primary
+    @Value("${datasource.replicas.sticky-window-ms:2000}")
+    private long replicaLagMs;
+
     /**
      * Get all conversations for a user
      * GET /api/messages/chats/{userId}
+     *
+     * Returns an ETag; with a matching If-None-Match header the answer is 304 and nothing is queried.
      */
     @GetMapping("/chats/{userId}")
-    public ResponseEntity<List<ChatDTO>> getUserChats(@PathVariable Long userId) {
+    public ResponseEntity<List<ChatDTO>> getUserChats(@PathVariable Long userId, WebRequest webRequest) {
         try {
+            String key = ResourceVersionService.inbox(userId.intValue());
+            // Taken before loading, so the tag is never newer than the data
+            String etag = resourceVersions.etag(key);
+            // The list may come from a replica that lacks a recent change; such an answer goes out untagged
+            if (resourceVersions.changedWithin(key, replicaLagMs)) {
+                return ResponseEntity.ok(conversationService.getConversationsForUser(userId.intValue()));
+            }
+            if (webRequest.checkNotModified(etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+
             List<ChatDTO> chats = conversationService.getConversationsForUser(userId.intValue());
-            return ResponseEntity.ok(chats);
+            return ResponseEntity.ok().eTag(etag).body(chats);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Autocomplete for the "new chat" picker: the user's contacts first, then other users
+     * GET /api/messages/contacts/{userId}/autocomplete?query={prefix}&limit={n}&fallback={true|false}
+     */
+    @GetMapping("/contacts/{userId}/autocomplete")
+    public ResponseEntity<List<UserResponseDTO>> autocompleteContacts(
+            @PathVariable Long userId,
+            @RequestParam String query,
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(defaultValue = "true") boolean fallback) {
+        if (limit < 1 || limit > MAX_AUTOCOMPLETE_RESULTS) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        try {
+            return ResponseEntity.ok(contactAutocompleteService.autocomplete(userId.intValue(), query, limit, fallback));
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
@@ -78,16 +148,55 @@ public class MessageController {
     /**
      * Send a message (REST endpoint alternative to WebSocket)
      * POST /api/messages/send
+     *
+     * With an Idempotency-Key header, a retried request returns the original message instead of sending it again.
      */
     @PostMapping("/send")
-    public ResponseEntity<MessageDTO> sendMessage(@RequestBody MessageDTO messageDTO) {
+    public ResponseEntity<MessageDTO> sendMessage(
+            @RequestBody MessageDTO messageDTO,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
         try {
-            MessageDTO sentMessage = messageService.sendMessage(
+            Supplier<MessageDTO> send = () -> messageService.sendMessage(
                     messageDTO.getSenderId().intValue(),
                     messageDTO.getReceiverId().intValue(),
-                    messageDTO.getText()
+                    messageDTO.getText(),
+                    messageDTO.getAttachmentId()
+            );
+            if (idempotencyKey == null) {
+                return ResponseEntity.ok(send.get());
+            }
+
+            IdempotencyService.Result<MessageDTO> result = idempotencyService.execute(
+                    "message-send:" + messageDTO.getSenderId(), idempotencyKey, messageDTO, MessageDTO.class, send);
+            return ResponseEntity.ok()
+                    .header("Idempotent-Replayed", String.valueOf(result.replayed()))
+                    .body(result.response());
+        } catch (IdempotencyConflictException e) {
+            throw e;
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Send the same message to many receivers
+     * POST /api/messages/broadcast
+     */
+    @PostMapping("/broadcast")
+    public ResponseEntity<BroadcastResponseDTO> broadcastMessage(@RequestBody BroadcastRequestDTO request) {
+        if (request.getSenderId() == null || request.getReceiverIds() == null || request.getReceiverIds().isEmpty()
+                || request.getReceiverIds().size() > MAX_BROADCAST_RECEIVERS) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        try {
+            BroadcastResponseDTO response = messageService.broadcastMessage(
+                    request.getSenderId().intValue(),
+                    request.getReceiverIds().stream().map(Long::intValue).toList(),
+                    request.getText(),
+                    request.getAttachmentId()
             );
-            return ResponseEntity.ok(sentMessage);
+            return ResponseEntity.ok(response);
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
@@ -145,5 +254,48 @@ public class MessageController {
             return ResponseEntity.badRequest().build();
         }
     }
-}
 
+    /**
+     * Export a conversation as NDJSON (one message per line), optionally gzipped
+     * GET /api/messages/export/conversation/{conversationId}?userId={userId}&gzip={true|false}
+     */
+    @GetMapping("/export/conversation/{conversationId}")
+    public ResponseEntity<StreamingResponseBody> exportConversation(
+            @PathVariable Long conversationId,
+            @RequestParam Long userId,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        try {
+            // Check access before streaming starts, so errors still get a proper status code
+            Conversation conversation = conversationService.getConversation(conversationId.intValue(), userId.intValue());
+            return exportResponse("conversation-" + conversationId, gzip,
+                    out -> messageExportService.export(List.of(conversation), out, gzip));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Export all conversations of a user as NDJSON (one message per line), optionally gzipped
+     * GET /api/messages/export/user/{userId}?gzip={true|false}
+     */
+    @GetMapping("/export/user/{userId}")
+    public ResponseEntity<StreamingResponseBody> exportUserConversations(
+            @PathVariable Long userId,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        try {
+            List<Conversation> conversations = conversationService.getConversationEntitiesForUser(userId.intValue());
+            return exportResponse("user-" + userId, gzip,
+                    out -> messageExportService.export(conversations, out, gzip));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    private ResponseEntity<StreamingResponseBody> exportResponse(String name, boolean gzip, StreamingResponseBody body) {
+        String fileName = "messages-" + name + (gzip ? ".ndjson.gz" : ".ndjson");
+        return ResponseEntity.ok()
+                .contentType(gzip ? MediaType.parseMediaType("application/gzip") : MediaType.parseMediaType("application/x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString())
+                .body(body);
+    }
+}
@@ -1,13 +1,21 @@
 package org.devconnect.devconnectbackend.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.devconnect.devconnectbackend.dto.BatchResultDTO;
 import org.devconnect.devconnectbackend.dto.ProjectRequestDTO;
 import org.devconnect.devconnectbackend.dto.ProjectResponseDTO;
 import org.devconnect.devconnectbackend.model.Project;
+import org.devconnect.devconnectbackend.service.IdempotencyService;
 import org.devconnect.devconnectbackend.service.ProjectService;
+import org.devconnect.devconnectbackend.service.ResourceVersionService;
+import org.devconnect.devconnectbackend.utills.JsonResponseCache;
+import org.devconnect.devconnectbackend.utills.KeysetPagination;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.HashMap;
 import java.util.List;
@@ -19,14 +27,28 @@ import java.util.Map;
 public class ProjectController {
 
     private final ProjectService projectService;
+    private final IdempotencyService idempotencyService;
+    private final ObjectMapper objectMapper;
+    private final JsonResponseCache responseCache;
 
-    // Create a new project
+    // Create a new project (a retry with the same Idempotency-Key returns the project created the first time)
     @PostMapping("/create")
-    public ResponseEntity<ProjectResponseDTO> createProject(@RequestBody ProjectRequestDTO requestDTO) {
+    public ResponseEntity<ProjectResponseDTO> createProject(
+            @RequestBody ProjectRequestDTO requestDTO,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
         try {
             System.out.println("Creating project with data: " + requestDTO);
-            ProjectResponseDTO response = projectService.addProject(requestDTO);
-            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+            if (idempotencyKey == null) {
+                ProjectResponseDTO response = projectService.addProject(requestDTO);
+                return ResponseEntity.status(HttpStatus.CREATED).body(response);
+            }
+
+            IdempotencyService.Result<ProjectResponseDTO> result = idempotencyService.execute(
+                    "project-create:" + requestDTO.getClientId(), idempotencyKey, requestDTO, ProjectResponseDTO.class,
+                    () -> projectService.addProject(requestDTO));
+            return ResponseEntity.status(result.replayed() ? HttpStatus.OK : HttpStatus.CREATED)
+                    .header("Idempotent-Replayed", String.valueOf(result.replayed()))
+                    .body(result.response());
         } catch (Exception e) {
             System.err.println("Error creating project: " + e.getMessage());
             e.printStackTrace();
@@ -68,32 +90,119 @@ public class ProjectController {
         return ResponseEntity.ok(response);
     }
 
-    // Get project by ID
+    // Get project by ID (cached as JSON, with an ETag for If-None-Match)
     @GetMapping("/{projectId}")
-    public ResponseEntity<ProjectResponseDTO> getProjectById(@PathVariable Long projectId) {
-        ProjectResponseDTO response = projectService.getProjectById(projectId);
-        return ResponseEntity.ok(response);
+    public ResponseEntity<byte[]> getProjectById(@PathVariable Long projectId, WebRequest webRequest) {
+        return responseCache.respond(ResourceVersionService.project(projectId), webRequest,
+                () -> projectService.getProjectById(projectId));
+    }
+
+    // Get project by ID with only some fields (?fields=projectName,status)
+    @GetMapping(value = "/{projectId}", params = "fields")
+    public ResponseEntity<Map<String, Object>> getProjectFieldsById(@PathVariable Long projectId, @RequestParam String fields) {
+        try {
+            return ResponseEntity.ok(projectService.getProjectFields(projectId, fields));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Get several projects at once (GET /api/projects/batch?ids=1,2,3), in request order;
+    // unknown ids are listed in missingIds
+    @GetMapping("/batch")
+    public ResponseEntity<BatchResultDTO<ProjectResponseDTO, Long>> getProjectsByIds(@RequestParam List<Long> ids) {
+        try {
+            return ResponseEntity.ok(projectService.getProjectsByIds(ids));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
-    // Get all projects
+    // Get all projects, one page at a time (X-Next-Cursor header holds the next page's cursor)
     @GetMapping
-    public ResponseEntity<List<ProjectResponseDTO>> getAllProjects() {
-        List<ProjectResponseDTO> projects = projectService.getAllProjects();
-        return ResponseEntity.ok(projects);
+    public ResponseEntity<List<ProjectResponseDTO>> getAllProjects(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + KeysetPagination.DEFAULT_LIMIT) int limit) {
+        return projectsPage(null, null, cursor, limit);
+    }
+
+    // Get all projects with only some fields (?fields=projectName,status,projectBudget);
+    // only the selected columns are read, so description is skipped unless asked for
+    @GetMapping(params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getProjectFields(
+            @RequestParam String fields,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + KeysetPagination.DEFAULT_LIMIT) int limit) {
+        return projectFieldsPage(fields, null, null, cursor, limit);
+    }
+
+    // Stream all projects as NDJSON (Accept: application/x-ndjson)
+    @GetMapping(produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamProjects() {
+        return KeysetPagination.ndjson(objectMapper, write -> projectService.forEachProject(null, null, write::accept));
     }
 
-    // Get projects by developer ID
+    // Get projects by developer ID, one page at a time
     @GetMapping("/developer/{devId}")
-    public ResponseEntity<List<ProjectResponseDTO>> getProjectsByDevId(@PathVariable Long devId) {
-        List<ProjectResponseDTO> projects = projectService.getProjectsByDevId(devId);
-        return ResponseEntity.ok(projects);
+    public ResponseEntity<List<ProjectResponseDTO>> getProjectsByDevId(
+            @PathVariable Long devId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + KeysetPagination.DEFAULT_LIMIT) int limit) {
+        return projectsPage(devId, null, cursor, limit);
+    }
+
+    @GetMapping(value = "/developer/{devId}", params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getProjectFieldsByDevId(
+            @PathVariable Long devId,
+            @RequestParam String fields,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + KeysetPagination.DEFAULT_LIMIT) int limit) {
+        return projectFieldsPage(fields, devId, null, cursor, limit);
     }
 
-    // Get projects by client ID
+    @GetMapping(value = "/developer/{devId}", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamProjectsByDevId(@PathVariable Long devId) {
+        return KeysetPagination.ndjson(objectMapper, write -> projectService.forEachProject(devId, null, write::accept));
+    }
+
+    // Get projects by client ID, one page at a time
     @GetMapping("/client/{clientId}")
-    public ResponseEntity<List<ProjectResponseDTO>> getProjectsByClientId(@PathVariable Long clientId) {
-        List<ProjectResponseDTO> projects = projectService.getProjectsByClientId(clientId);
-        return ResponseEntity.ok(projects);
+    public ResponseEntity<List<ProjectResponseDTO>> getProjectsByClientId(
+            @PathVariable Long clientId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + KeysetPagination.DEFAULT_LIMIT) int limit) {
+        return projectsPage(null, clientId, cursor, limit);
+    }
+
+    @GetMapping(value = "/client/{clientId}", params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getProjectFieldsByClientId(
+            @PathVariable Long clientId,
+            @RequestParam String fields,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + KeysetPagination.DEFAULT_LIMIT) int limit) {
+        return projectFieldsPage(fields, null, clientId, cursor, limit);
+    }
+
+    @GetMapping(value = "/client/{clientId}", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamProjectsByClientId(@PathVariable Long clientId) {
+        return KeysetPagination.ndjson(objectMapper, write -> projectService.forEachProject(null, clientId, write::accept));
+    }
+
+    private ResponseEntity<List<Map<String, Object>>> projectFieldsPage(
+            String fields, Long devId, Long clientId, String cursor, int limit) {
+        try {
+            return KeysetPagination.response(projectService.getProjectFieldsPage(fields, devId, clientId, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    private ResponseEntity<List<ProjectResponseDTO>> projectsPage(Long devId, Long clientId, String cursor, int limit) {
+        try {
+            return KeysetPagination.response(projectService.getProjectsPage(devId, clientId, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     // Get projects by status
@@ -106,11 +215,12 @@ public class ProjectController {
     /**
      * Get available (unclaimed) projects that developers can claim
      * GET /api/projects/available
+     * Served from the JSON cache; supports If-None-Match: an unchanged list is answered with 304
+     * without querying it.
      */
     @GetMapping("/available")
-    public ResponseEntity<List<ProjectResponseDTO>> getAvailableProjects() {
-        List<ProjectResponseDTO> projects = projectService.getAvailableProjects();
-        return ResponseEntity.ok(projects);
+    public ResponseEntity<byte[]> getAvailableProjects(WebRequest webRequest) {
+        return responseCache.respond(ResourceVersionService.AVAILABLE_PROJECTS, webRequest, projectService::getAvailableProjects);
     }
 
     /**
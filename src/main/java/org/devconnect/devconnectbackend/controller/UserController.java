@@ -1,16 +1,20 @@
 package org.devconnect.devconnectbackend.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.devconnect.devconnectbackend.dto.*;
 import org.devconnect.devconnectbackend.model.User;
 import org.devconnect.devconnectbackend.service.UserService;
+import org.devconnect.devconnectbackend.utills.KeysetPagination;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/users")
@@ -18,6 +22,9 @@ public class UserController {
 
     @Autowired
     private UserService userService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
     private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(UserController.class);
 
     // User Registration
@@ -51,29 +58,64 @@ public class UserController {
         return  ResponseEntity.status(HttpStatus.OK).body(userResponseDTO);
     }
 
-    // Get users by role
+    // Get users by role, one page at a time (X-Next-Cursor header holds the next page's cursor)
     @GetMapping("/role/{role}")
-    public ResponseEntity<List<UserResponseDTO>> getUsersByRole(@PathVariable User.UserRole role) {
-        return ResponseEntity.ok(userService.getUsersByRole(role));
+    public ResponseEntity<List<UserResponseDTO>> getUsersByRole(
+            @PathVariable User.UserRole role,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + KeysetPagination.DEFAULT_LIMIT) int limit) {
+        try {
+            return KeysetPagination.response(userService.getUsersPage(role, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Users of a role with only some fields: GET /api/users/role/{role}?fields=userId,firstName,lastName
+    @GetMapping(value = "/role/{role}", params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getUserFieldsByRole(
+            @PathVariable User.UserRole role,
+            @RequestParam String fields,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + KeysetPagination.DEFAULT_LIMIT) int limit) {
+        try {
+            return KeysetPagination.response(userService.getUserFieldsPage(fields, role, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Stream all users of a role as NDJSON (Accept: application/x-ndjson)
+    @GetMapping(value = "/role/{role}", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamUsersByRole(@PathVariable User.UserRole role) {
+        return KeysetPagination.ndjson(objectMapper, write -> userService.forEachUser(role, write::accept));
     }
 
     // Search users by name or email (for messaging)
+    // Returns one page; the X-Next-Cursor header holds the cursor for the next page
     @GetMapping("/search")
     public ResponseEntity<List<UserResponseDTO>> searchUsers(
             @RequestParam(required = false) String query,
-            @RequestParam(required = false) User.UserRole role) {
+            @RequestParam(required = false) User.UserRole role,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false) String cursor) {
         
-        if (query == null || query.trim().isEmpty()) {
-            // If no query, return users by role or all users
-            if (role != null) {
-                return ResponseEntity.ok(userService.getUsersByRole(role));
+        try {
+            if (query == null || query.trim().isEmpty()) {
+                // If no query, return users by role or all users
+                return KeysetPagination.response(userService.getUsersPage(role, cursor, limit));
+            }
+
+            // Search by name or email
+            UserSearchResultDTO result = userService.searchUsers(query, role, limit, cursor);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (result.getNextCursor() != null) {
+                response.header(KeysetPagination.NEXT_CURSOR_HEADER, result.getNextCursor());
             }
-            return ResponseEntity.ok(userService.getAllUsers());
+            return response.body(result.getUsers());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         }
-        
-        // Search by name or email
-        List<UserResponseDTO> users = userService.searchUsers(query, role);
-        return ResponseEntity.ok(users);
     }
 
     // Check if email exists
@@ -82,11 +124,36 @@ public class UserController {
         return ResponseEntity.ok(userService.isEmailExists(email));
     }
 
-    // Get All Users
+    // Get All Users, one page at a time (X-Next-Cursor header holds the next page's cursor)
     @GetMapping
-    public ResponseEntity<List<UserResponseDTO>> getUsers() {
-        List<UserResponseDTO> users = userService.getAllUsers();
-        return ResponseEntity.status(HttpStatus.OK).body(users);
+    public ResponseEntity<List<UserResponseDTO>> getUsers(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + KeysetPagination.DEFAULT_LIMIT) int limit) {
+        try {
+            return KeysetPagination.response(userService.getUsersPage(null, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // All users with only some fields: GET /api/users?fields=userId,firstName,lastName
+    // Only the selected columns are read from the database
+    @GetMapping(params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getUserFields(
+            @RequestParam String fields,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + KeysetPagination.DEFAULT_LIMIT) int limit) {
+        try {
+            return KeysetPagination.response(userService.getUserFieldsPage(fields, null, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Stream all users as NDJSON (Accept: application/x-ndjson)
+    @GetMapping(produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamUsers() {
+        return KeysetPagination.ndjson(objectMapper, write -> userService.forEachUser(null, write::accept));
     }
 
     // Get User by ID
@@ -96,6 +163,27 @@ public class UserController {
         return  ResponseEntity.status(HttpStatus.OK).body(userResponseDTO);
     }
 
+    // Get User by ID with only some fields: GET /api/users/{id}?fields=firstName,lastName
+    @GetMapping(value = "/{id}", params = "fields")
+    public ResponseEntity<Map<String, Object>> getUserFieldsById(@PathVariable Integer id, @RequestParam String fields) {
+        try {
+            return ResponseEntity.ok(userService.getUserFields(id, fields));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Get several users at once: GET /api/users/batch?ids=1,2,3
+    // Users come back in request order; ids that do not exist are listed in missingIds
+    @GetMapping("/batch")
+    public ResponseEntity<BatchResultDTO<UserResponseDTO, Integer>> getUsersByIds(@RequestParam List<Integer> ids) {
+        try {
+            return ResponseEntity.ok(userService.getUsersByIds(ids));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     // Update User
     @PutMapping("/{id}")
     public ResponseEntity<UserResponseDTO> updateUser(@PathVariable Integer id, @Valid @RequestBody UserUpdateDTO userUpdateDTO) {
@@ -1,8 +1,11 @@
 package org.devconnect.devconnectbackend.controller;
 
+import lombok.extern.slf4j.Slf4j;
 import org.devconnect.devconnectbackend.dto.MessageDTO;
 import org.devconnect.devconnectbackend.dto.MessageReadRequestDTO;
 import org.devconnect.devconnectbackend.dto.TypingIndicatorDTO;
+import org.devconnect.devconnectbackend.repository.MessageJournal;
+import org.devconnect.devconnectbackend.service.IdempotencyService;
 import org.devconnect.devconnectbackend.service.MessageService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.messaging.handler.annotation.MessageMapping;
@@ -10,6 +13,11 @@ import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Controller;
 
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+@Slf4j
 @Controller
 public class WebSocketController {
 
@@ -19,26 +27,56 @@ public class WebSocketController {
     @Autowired
     private SimpMessagingTemplate messagingTemplate;
 
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    // Only present when messages.journal.enabled=true
+    @Autowired(required = false)
+    private MessageJournal messageJournal;
+
     /**
      * Handle incoming messages from clients
      * Endpoint: /app/chat.sendMessage
+     *
+     * A resend carrying an already used clientMessageId is only confirmed to the sender again.
      */
     @MessageMapping("/chat.sendMessage")
     public void handleMessage(@Payload MessageDTO messageDTO) {
         try {
+            if (messageJournal != null) {
+                journalMessage(messageDTO);
+                return;
+            }
+
             // Process and send message
-            MessageDTO savedMessage = messageService.sendMessage(
+            Supplier<MessageDTO> send = () -> messageService.sendMessage(
                     messageDTO.getSenderId().intValue(),
                     messageDTO.getReceiverId().intValue(),
-                    messageDTO.getText()
+                    messageDTO.getText(),
+                    messageDTO.getAttachmentId()
             );
 
+            MessageDTO savedMessage;
+            boolean replayed = false;
+            if (messageDTO.getClientMessageId() == null) {
+                savedMessage = send.get();
+            } else {
+                IdempotencyService.Result<MessageDTO> result = idempotencyService.execute(
+                        "message-send:" + messageDTO.getSenderId(), messageDTO.getClientMessageId(),
+                        messageDTO, MessageDTO.class, send);
+                savedMessage = result.response();
+                savedMessage.setClientMessageId(messageDTO.getClientMessageId());
+                replayed = result.replayed();
+            }
+
             // Send message to receiver
-            messagingTemplate.convertAndSendToUser(
-                    messageDTO.getReceiverId().toString(),
-                    "/queue/messages",
-                    savedMessage
-            );
+            if (!replayed) {
+                messagingTemplate.convertAndSendToUser(
+                        messageDTO.getReceiverId().toString(),
+                        "/queue/messages",
+                        savedMessage
+                );
+            }
 
             // Send confirmation to sender
             messagingTemplate.convertAndSendToUser(
@@ -47,11 +85,42 @@ public class WebSocketController {
                     savedMessage
             );
         } catch (Exception e) {
-            System.err.println("Error handling message: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error handling message from user {}", messageDTO.getSenderId(), e);
         }
     }
 
+    /**
+     * Write the message to the local journal and acknowledge it as pending.
+     * MessageJournalReplayer stores it and pushes the saved message to both users.
+     * Messages that could never be stored are rejected here, before they reach the journal.
+     */
+    private void journalMessage(MessageDTO messageDTO) {
+        String clientMessageId = messageDTO.getClientMessageId();
+        if (messageDTO.getSenderId() == null) {
+            log.warn("Rejecting message without senderId");
+            return;
+        }
+        if (messageDTO.getReceiverId() == null || (clientMessageId != null
+                && (clientMessageId.isBlank() || clientMessageId.length() > IdempotencyService.MAX_KEY_LENGTH))) {
+            log.warn("Rejecting invalid message from user {}", messageDTO.getSenderId());
+            MessageDTO rejected = new MessageDTO(null, messageDTO.getSenderId(), messageDTO.getReceiverId(),
+                    messageDTO.getText(), "rejected", LocalDateTime.now(), messageDTO.getProjectId(), messageDTO.getAttachmentId());
+            rejected.setClientMessageId(clientMessageId);
+            messagingTemplate.convertAndSendToUser(messageDTO.getSenderId().toString(), "/queue/messages", rejected);
+            return;
+        }
+
+        if (clientMessageId == null) {
+            messageDTO.setClientMessageId(UUID.randomUUID().toString());
+        }
+        messageJournal.append(messageDTO);
+
+        MessageDTO pending = new MessageDTO(null, messageDTO.getSenderId(), messageDTO.getReceiverId(),
+                messageDTO.getText(), "pending", LocalDateTime.now(), messageDTO.getProjectId(), messageDTO.getAttachmentId());
+        pending.setClientMessageId(messageDTO.getClientMessageId());
+        messagingTemplate.convertAndSendToUser(messageDTO.getSenderId().toString(), "/queue/messages", pending);
+    }
+
     /**
      * Handle typing indicators
      * Endpoint: /app/typing
@@ -75,7 +144,7 @@ public class WebSocketController {
         try {
             messageService.markMessageAsDelivered(deliveryRequest.getConversationId());
         } catch (Exception e) {
-            System.err.println("Error marking message as delivered: " + e.getMessage());
+            log.warn("Error marking message as delivered: {}", e.getMessage());
         }
     }
 
@@ -98,7 +167,7 @@ public class WebSocketController {
                     readRequest
             );
         } catch (Exception e) {
-            System.err.println("Error marking messages as read: " + e.getMessage());
+            log.warn("Error marking messages as read: {}", e.getMessage());
         }
     }
 }
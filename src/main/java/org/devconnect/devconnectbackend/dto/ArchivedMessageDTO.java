@@ -0,0 +1,25 @@
+package org.devconnect.devconnectbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One line of an archive segment
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ArchivedMessageDTO {
+    private Integer messageId;
+    private Integer senderId;
+    private String content;
+    private Integer attachmentId;
+    private String status;
+    private LocalDateTime createdAt;
+    private LocalDateTime editedAt;
+    private LocalDateTime deliveredAt;
+    private LocalDateTime readAt;
+}
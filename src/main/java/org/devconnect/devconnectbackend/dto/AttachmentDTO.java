@@ -0,0 +1,20 @@
+package org.devconnect.devconnectbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AttachmentDTO {
+    private Integer attachmentId;
+    private Integer uploaderId;
+    private String fileName;
+    private String contentType;
+    private Long sizeBytes;
+    private String contentHash;
+    private LocalDateTime createdAt;
+}
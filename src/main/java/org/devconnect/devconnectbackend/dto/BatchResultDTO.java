@@ -0,0 +1,17 @@
+package org.devconnect.devconnectbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchResultDTO<T, ID> {
+    // Found items, in the order their ids were requested
+    private List<T> items;
+    // Requested ids that do not exist
+    private List<ID> missingIds;
+}
@@ -0,0 +1,24 @@
+package org.devconnect.devconnectbackend.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+public class BootstrapDTO {
+    private UserResponseDTO profile;
+    // Most recent conversations first
+    private List<ChatDTO> inbox;
+    private boolean moreChats;
+    private Integer unreadMessages;
+    private Integer unreadConversations;
+    // Contact user id -> status
+    private Map<Long, String> presence;
+    private List<ProjectResponseDTO> activeProjects;
+    // Parts that failed or missed their deadline; their fields are null
+    private List<String> degraded = new ArrayList<>();
+}
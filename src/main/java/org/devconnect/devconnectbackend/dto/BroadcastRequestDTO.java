@@ -0,0 +1,17 @@
+package org.devconnect.devconnectbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BroadcastRequestDTO {
+    private Long senderId;
+    private List<Long> receiverIds;
+    private String text;
+    private Integer attachmentId;
+}
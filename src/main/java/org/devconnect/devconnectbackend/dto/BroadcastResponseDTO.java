@@ -0,0 +1,17 @@
+package org.devconnect.devconnectbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BroadcastResponseDTO {
+    private int sentCount;
+    private int failedCount;
+    // One entry per distinct receiver, in request order
+    private List<BroadcastResultDTO> results;
+}
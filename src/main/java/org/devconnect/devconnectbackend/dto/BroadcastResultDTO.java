@@ -0,0 +1,19 @@
+package org.devconnect.devconnectbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of a broadcast for one receiver
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BroadcastResultDTO {
+    private Long receiverId;
+    private boolean success;
+    private Long messageId;
+    private Long conversationId;
+    private String error;
+}
@@ -0,0 +1,17 @@
+package org.devconnect.devconnectbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ConversationRowDTO {
+    private Integer conversationId;
+    // The participant who is not the user the row was loaded for
+    private Integer otherUserId;
+    private LocalDateTime createdAt;
+}
@@ -1,6 +1,9 @@
 package org.devconnect.devconnectbackend.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import java.time.LocalDateTime;
+import java.util.function.Supplier;
 
 public class MessageDTO {
     private Long id;
@@ -10,6 +13,13 @@ public class MessageDTO {
     private String status;
     private LocalDateTime timestamp;
     private Long projectId;
+    private Integer attachmentId;
+    // Client generated id for the STOMP send path; a resend with the same id is not stored twice
+    private String clientMessageId;
+    
+    // Resolves the text on first access, so compressed bodies are only decompressed when serialized
+    @JsonIgnore
+    private Supplier<String> textSupplier;
     
     // Constructors
     public MessageDTO() {}
@@ -25,6 +35,12 @@ public class MessageDTO {
         this.projectId = projectId;
     }
     
+    public MessageDTO(Long id, Long senderId, Long receiverId, String text, 
+                      String status, LocalDateTime timestamp, Long projectId, Integer attachmentId) {
+        this(id, senderId, receiverId, text, status, timestamp, projectId);
+        this.attachmentId = attachmentId;
+    }
+    
     // Getters and Setters
     public Long getId() {
         return id;
@@ -51,11 +67,21 @@ public class MessageDTO {
     }
     
     public String getText() {
+        if (textSupplier != null) {
+            text = textSupplier.get();
+            textSupplier = null;
+        }
         return text;
     }
     
     public void setText(String text) {
         this.text = text;
+        this.textSupplier = null;
+    }
+    
+    @JsonIgnore
+    public void setTextSupplier(Supplier<String> textSupplier) {
+        this.textSupplier = textSupplier;
     }
     
     public String getStatus() {
@@ -81,4 +107,20 @@ public class MessageDTO {
     public void setProjectId(Long projectId) {
         this.projectId = projectId;
     }
+    
+    public Integer getAttachmentId() {
+        return attachmentId;
+    }
+    
+    public void setAttachmentId(Integer attachmentId) {
+        this.attachmentId = attachmentId;
+    }
+    
+    public String getClientMessageId() {
+        return clientMessageId;
+    }
+    
+    public void setClientMessageId(String clientMessageId) {
+        this.clientMessageId = clientMessageId;
+    }
 }
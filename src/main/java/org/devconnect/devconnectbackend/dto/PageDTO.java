@@ -0,0 +1,16 @@
+package org.devconnect.devconnectbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PageDTO<T> {
+    private List<T> items;
+    // Pass as cursor to get the next page; null on the last page
+    private String nextCursor;
+}
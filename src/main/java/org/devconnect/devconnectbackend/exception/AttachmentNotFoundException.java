@@ -0,0 +1,7 @@
+package org.devconnect.devconnectbackend.exception;
+
+public class AttachmentNotFoundException extends RuntimeException {
+    public AttachmentNotFoundException(String message) {
+        super(message);
+    }
+}
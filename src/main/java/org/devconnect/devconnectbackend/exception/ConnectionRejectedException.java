@@ -0,0 +1,14 @@
+package org.devconnect.devconnectbackend.exception;
+
+public class ConnectionRejectedException extends RuntimeException {
+    private final long retryAfterMs;
+
+    public ConnectionRejectedException(String message, long retryAfterMs) {
+        super(message);
+        this.retryAfterMs = retryAfterMs;
+    }
+
+    public long getRetryAfterMs() {
+        return retryAfterMs;
+    }
+}
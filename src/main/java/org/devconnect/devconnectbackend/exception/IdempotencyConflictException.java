@@ -0,0 +1,7 @@
+package org.devconnect.devconnectbackend.exception;
+
+public class IdempotencyConflictException extends RuntimeException {
+    public IdempotencyConflictException(String message) {
+        super(message);
+    }
+}
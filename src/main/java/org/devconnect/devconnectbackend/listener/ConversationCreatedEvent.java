@@ -0,0 +1,7 @@
+package org.devconnect.devconnectbackend.listener;
+
+/**
+ * Published when a new conversation between two users has been created
+ */
+public record ConversationCreatedEvent(Integer conversationId, Integer user1Id, Integer user2Id) {
+}
@@ -0,0 +1,68 @@
+package org.devconnect.devconnectbackend.listener;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.devconnect.devconnectbackend.model.Developer;
+import org.devconnect.devconnectbackend.model.Project;
+import org.devconnect.devconnectbackend.model.User;
+import org.devconnect.devconnectbackend.service.CacheInvalidationService;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * Reports committed updates and deletes of second-level cached entities to
+ * CacheInvalidationService, whatever code path made them. Inserts are not reported,
+ * since no other instance can have a new row cached.
+ */
+@Component
+@RequiredArgsConstructor
+public class EntityCommitListener implements PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private static final Set<Class<?>> CACHED_ENTITIES = Set.of(User.class, Developer.class, Project.class);
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final CacheInvalidationService cacheInvalidationService;
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return CACHED_ENTITIES.contains(persister.getMappedClass());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        cacheInvalidationService.entityChanged(event.getPersister().getMappedClass(), event.getId());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        cacheInvalidationService.entityChanged(event.getPersister().getMappedClass(), event.getId());
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        // Rolled back, nothing changed
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+        // Rolled back, nothing changed
+    }
+}
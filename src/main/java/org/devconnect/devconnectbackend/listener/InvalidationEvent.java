@@ -0,0 +1,39 @@
+package org.devconnect.devconnectbackend.listener;
+
+/**
+ * A change that other instances have to apply to their in-memory caches.
+ * The version is the sending instance's sequence number, so receivers can tell when they missed events.
+ */
+public record InvalidationEvent(Type type, String id, long version) {
+
+    public enum Type {
+        USER('U'),
+        DEVELOPER('D'),
+        PROJECT('P'),
+        // The user's contacts changed (a conversation was created); id is the user id
+        CONTACTS('C'),
+        // A ResourceVersionService key was bumped; id is the key
+        RESOURCE('R'),
+        // Anything may be stale, e.g. after missed events; id is ignored
+        ALL('A');
+
+        private final char code;
+
+        Type(char code) {
+            this.code = code;
+        }
+
+        public char code() {
+            return code;
+        }
+
+        public static Type fromCode(char code) {
+            for (Type type : values()) {
+                if (type.code == code) {
+                    return type;
+                }
+            }
+            throw new IllegalArgumentException("Unknown invalidation type: " + code);
+        }
+    }
+}
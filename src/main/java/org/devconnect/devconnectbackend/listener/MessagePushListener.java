@@ -0,0 +1,33 @@
+package org.devconnect.devconnectbackend.listener;
+
+import org.devconnect.devconnectbackend.dto.MessageDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Pushes saved messages to their receivers over WebSocket.
+ * Runs after the transaction commits, on the async executor, so a large fan-out
+ * does not hold the request or the database transaction.
+ */
+@Component
+public class MessagePushListener {
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onMessagesSent(MessagesSentEvent event) {
+        for (MessageDTO message : event.messages()) {
+            messagingTemplate.convertAndSendToUser(
+                    message.getReceiverId().toString(),
+                    "/queue/messages",
+                    message
+            );
+        }
+    }
+}
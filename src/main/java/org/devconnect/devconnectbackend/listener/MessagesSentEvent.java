@@ -0,0 +1,11 @@
+package org.devconnect.devconnectbackend.listener;
+
+import org.devconnect.devconnectbackend.dto.MessageDTO;
+
+import java.util.List;
+
+/**
+ * Published when messages have been saved and should be pushed to their receivers
+ */
+public record MessagesSentEvent(List<MessageDTO> messages) {
+}
@@ -0,0 +1,56 @@
+package org.devconnect.devconnectbackend.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Metadata for a file shared in a conversation.
+ * The bytes live in the content-addressed store on disk under {@code contentHash},
+ * so several attachments with identical content share a single stored object.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(
+    name = "attachments",
+    indexes = {
+        @Index(name = "idx_attachments_content_hash", columnList = "content_hash")
+    }
+)
+public class Attachment {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "attachment_seq_gen")
+    @SequenceGenerator(name = "attachment_seq_gen", sequenceName = "attachment_seq", allocationSize = 50)
+    @Column(name = "attachment_id")
+    private Integer attachmentId;
+
+    @Column(name = "uploader_id", nullable = false)
+    private Integer uploaderId;
+
+    @Column(name = "file_name", nullable = false, length = 255)
+    private String fileName;
+
+    @Column(name = "content_type", nullable = false, length = 127)
+    private String contentType;
+
+    @Column(name = "size_bytes", nullable = false)
+    private Long sizeBytes;
+
+    // Hex encoded SHA-256 of the file content
+    @Column(name = "content_hash", nullable = false, length = 64)
+    private String contentHash;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+    }
+}
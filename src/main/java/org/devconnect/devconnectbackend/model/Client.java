@@ -16,7 +16,7 @@ public class Client {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "client_sequence")
-    @SequenceGenerator(name = "client_sequence", sequenceName = "client_sequence", allocationSize = 1)
+    @SequenceGenerator(name = "client_sequence", sequenceName = "client_sequence", allocationSize = 50)
     @Column(name = "client_id")
     private Integer clientId;
 
@@ -20,7 +20,7 @@ public class Conversation {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "conversation_seq_gen")
-    @SequenceGenerator(name = "conversation_seq_gen", sequenceName = "conversation_seq", allocationSize = 1)
+    @SequenceGenerator(name = "conversation_seq_gen", sequenceName = "conversation_seq", allocationSize = 50)
     @Column(name = "conversation_id")
     private Integer conversationId;
 
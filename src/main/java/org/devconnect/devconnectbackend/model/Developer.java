@@ -5,6 +5,8 @@ import jakarta.validation.constraints.Pattern;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 
@@ -13,11 +15,13 @@ import java.math.BigDecimal;
 @AllArgsConstructor
 @NoArgsConstructor
 @Table(name = "developers")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "developers")
 public class Developer {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "developer_seq_gen")
-    @SequenceGenerator(name = "developer_seq_gen", sequenceName = "developer_seq", allocationSize = 1)
+    @SequenceGenerator(name = "developer_seq_gen", sequenceName = "developer_seq", allocationSize = 50)
     @Column(name = "developer_id")
     private Integer developerId;
 
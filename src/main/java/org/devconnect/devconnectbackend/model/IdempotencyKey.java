@@ -0,0 +1,52 @@
+package org.devconnect.devconnectbackend.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A client supplied Idempotency-Key and the response of the request that first used it.
+ * Rows expire after the configured TTL.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(
+    name = "idempotency_keys",
+    indexes = {
+        @Index(name = "idx_idempotency_keys_expires", columnList = "expires_at")
+    }
+)
+public class IdempotencyKey {
+
+    public enum Status {
+        IN_PROGRESS,
+        COMPLETED
+    }
+
+    // Operation scope and client key, e.g. "message-send:42:6f1c..."
+    @Id
+    @Column(name = "idempotency_key", length = 255)
+    private String idempotencyKey;
+
+    // SHA-256 of the request body, to detect a key reused for a different request
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 16)
+    private Status status;
+
+    @Column(name = "response_body", columnDefinition = "TEXT")
+    private String responseBody;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -11,7 +11,12 @@ import java.time.LocalDateTime;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "messages")
+@Table(
+    name = "messages",
+    indexes = {
+        @Index(name = "idx_messages_conversation_created", columnList = "conversation_id, created_at")
+    }
+)
 public class Message {
 
     public enum MessageStatus {
@@ -22,7 +27,7 @@ public class Message {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "message_seq_gen")
-    @SequenceGenerator(name = "message_seq_gen", sequenceName = "message_seq", allocationSize = 1)
+    @SequenceGenerator(name = "message_seq_gen", sequenceName = "message_seq", allocationSize = 50)
     @Column(name = "message_id")
     private Integer messageId;
 
@@ -34,9 +39,18 @@ public class Message {
     @JoinColumn(name = "sender_id", nullable = false)
     private User sender;
 
+    // Full text for normal messages; only a short preview when the body is stored compressed
     @Column(name = "content", nullable = false, columnDefinition = "TEXT")
     private String content;
 
+    // LZ4 compressed body (with format marker) for messages above the compression threshold
+    @Column(name = "content_compressed", columnDefinition = "bytea")
+    private byte[] contentCompressed;
+
+    // Optional file shared with this message, stored outside the messages table
+    @Column(name = "attachment_id")
+    private Integer attachmentId;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
@@ -0,0 +1,58 @@
+package org.devconnect.devconnectbackend.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A block of archived messages from one conversation, stored as gzip compressed NDJSON.
+ * Cold conversations are moved here from the messages table by the lifecycle job.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(
+    name = "message_archive_segments",
+    indexes = {
+        @Index(name = "idx_archive_segments_conversation", columnList = "conversation_id, first_created_at")
+    }
+)
+public class MessageArchiveSegment {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "message_archive_seq_gen")
+    @SequenceGenerator(name = "message_archive_seq_gen", sequenceName = "message_archive_seq", allocationSize = 50)
+    @Column(name = "segment_id")
+    private Integer segmentId;
+
+    @Column(name = "conversation_id", nullable = false)
+    private Integer conversationId;
+
+    @Column(name = "message_count", nullable = false)
+    private Integer messageCount;
+
+    @Column(name = "first_created_at", nullable = false)
+    private LocalDateTime firstCreatedAt;
+
+    @Column(name = "last_created_at", nullable = false)
+    private LocalDateTime lastCreatedAt;
+
+    // Preview of the newest message in the segment, for the chat list
+    @Column(name = "last_message_preview", columnDefinition = "TEXT")
+    private String lastMessagePreview;
+
+    @Column(name = "payload", nullable = false, columnDefinition = "bytea")
+    private byte[] payload;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.archivedAt = LocalDateTime.now();
+    }
+}
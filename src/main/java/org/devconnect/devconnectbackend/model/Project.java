@@ -4,12 +4,16 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "projects")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "projects")
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -17,7 +21,7 @@ public class Project {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "project_seq_gen")
-    @SequenceGenerator(name = "project_seq_gen", sequenceName = "project_seq", allocationSize = 1)
+    @SequenceGenerator(name = "project_seq_gen", sequenceName = "project_seq", allocationSize = 50)
     @Column(name = "project_id")
     private Long projectId;
 
@@ -7,6 +7,10 @@ import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.time.LocalDateTime;
 
@@ -15,11 +19,14 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @NoArgsConstructor
 @Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
+@NaturalIdCache(region = "users-by-email")
 public class User {
     
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_seq_gen")
-    @SequenceGenerator(name = "user_seq_gen", sequenceName = "user_seq", allocationSize = 1)
+    @SequenceGenerator(name = "user_seq_gen", sequenceName = "user_seq", allocationSize = 50)
     @Column(name = "user_id")
     private Integer userId;
     
@@ -32,7 +39,9 @@ public class User {
     @Column(name = "username", unique = true, length = 50)
     private String username;
 
+    // Users can change their email, so the natural id is mutable
     @Email
+    @NaturalId(mutable = true)
     @Column(name = "email", nullable = false, unique = true, length = 255)
     private String email;
 
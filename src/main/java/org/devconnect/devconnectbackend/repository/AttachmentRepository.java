@@ -0,0 +1,11 @@
+package org.devconnect.devconnectbackend.repository;
+
+import org.devconnect.devconnectbackend.model.Attachment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AttachmentRepository extends JpaRepository<Attachment, Integer> {
+
+    boolean existsByContentHash(String contentHash);
+}
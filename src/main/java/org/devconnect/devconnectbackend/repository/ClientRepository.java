@@ -2,6 +2,7 @@ package org.devconnect.devconnectbackend.repository;
 
 import org.devconnect.devconnectbackend.model.Client;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -12,6 +13,10 @@ public interface ClientRepository extends JpaRepository<Client, Integer> {
 
     Optional<Client> findByUserId(Integer userId);
 
+    // Just the id, without loading (and caching) the entity
+    @Query("SELECT c.clientId FROM Client c WHERE c.userId = :userId")
+    Optional<Integer> findClientIdByUserId(Integer userId);
+
     List<Client> findByIndustry(String industry);
 
     List<Client> findByCompanyNameContainingIgnoreCase(String companyName);
@@ -1,9 +1,13 @@
 package org.devconnect.devconnectbackend.repository;
 
+import org.devconnect.devconnectbackend.dto.ConversationRowDTO;
 import org.devconnect.devconnectbackend.model.Conversation;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,7 +21,8 @@ public interface ConversationRepository extends JpaRepository<Conversation, Inte
            """)
     Optional<Conversation> findByUsers(Integer userId1, Integer userId2);
 
-    // Get all conversations for one user
+    // Get all conversations for one user, with both participants (the chat list shows the other one)
+    @EntityGraph(attributePaths = {"user1", "user2"})
     @Query("""
            SELECT c FROM Conversation c
            WHERE c.user1.userId = :userId
@@ -25,4 +30,40 @@ public interface ConversationRepository extends JpaRepository<Conversation, Inte
            ORDER BY c.createdAt DESC
            """)
     List<Conversation> findAllByUser(Integer userId);
+
+    // Chat list rows of one user: each conversation with the other participant's id, without loading any users
+    @Query("""
+           SELECT new org.devconnect.devconnectbackend.dto.ConversationRowDTO(c.conversationId,
+                  CASE WHEN c.user1.userId = :userId THEN c.user2.userId ELSE c.user1.userId END,
+                  c.createdAt)
+           FROM Conversation c
+           WHERE c.user1.userId = :userId
+              OR c.user2.userId = :userId
+           ORDER BY c.createdAt DESC
+           """)
+    List<ConversationRowDTO> findRowsByUser(Integer userId);
+
+    // One page of a user's chat list rows, latest activity first: the newest message, else the
+    // newest archived message, else the conversation's creation
+    @Query("""
+           SELECT new org.devconnect.devconnectbackend.dto.ConversationRowDTO(c.conversationId,
+                  CASE WHEN c.user1.userId = :userId THEN c.user2.userId ELSE c.user1.userId END,
+                  c.createdAt)
+           FROM Conversation c
+           WHERE c.user1.userId = :userId
+              OR c.user2.userId = :userId
+           ORDER BY COALESCE((SELECT MAX(m.createdAt) FROM Message m WHERE m.conversation = c),
+                             (SELECT MAX(s.lastCreatedAt) FROM MessageArchiveSegment s WHERE s.conversationId = c.conversationId),
+                             c.createdAt) DESC,
+                    c.conversationId DESC
+           """)
+    List<ConversationRowDTO> findRowsByUserOrderByActivity(Integer userId, Pageable pageable);
+
+    // Get the conversations between one user and any of the given users
+    @Query("""
+           SELECT c FROM Conversation c
+           WHERE (c.user1.userId = :userId AND c.user2.userId IN :otherUserIds)
+              OR (c.user2.userId = :userId AND c.user1.userId IN :otherUserIds)
+           """)
+    List<Conversation> findByUserAndOtherUsers(Integer userId, Collection<Integer> otherUserIds);
 }
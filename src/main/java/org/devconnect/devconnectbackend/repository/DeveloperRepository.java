@@ -1,10 +1,14 @@
 package org.devconnect.devconnectbackend.repository;
 
+import org.devconnect.devconnectbackend.dto.DeveloperResponseDTO;
 import org.devconnect.devconnectbackend.model.Developer;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,15 +17,43 @@ public interface DeveloperRepository extends JpaRepository<Developer, Integer> {
 
     Optional<Developer> findByUserId(Integer userId);
 
+    // Just the id, without loading (and caching) the entity
+    @Query("SELECT d.developerId FROM Developer d WHERE d.userId = :userId")
+    Optional<Integer> findDeveloperIdByUserId(Integer userId);
+
     List<Developer> findByHourlyRateGreaterThanEqual(BigDecimal hourlyRate);
 
     List<Developer> findByHourlyRateLessThanEqual(BigDecimal hourlyRate);
 
-    List<Developer> findByAverageRatingGreaterThanEqual(BigDecimal averageRating);
-
     List<Developer> findByAverageRatingLessThanEqual(BigDecimal averageRating);
 
     List<Developer> findByTotalProjectsCompletedGreaterThanEqual(Integer totalProjectsCompleted);
 
     List<Developer> findByTotalProjectsCompletedLessThanEqual(Integer totalProjectsCompleted);
+
+    // Read-only lists: developer and user columns in one join, straight into the DTO
+    String DEVELOPER_DTO = "SELECT new org.devconnect.devconnectbackend.dto.DeveloperResponseDTO(d.developerId, d.userId, " +
+            "d.username, u.email, u.firstName, u.lastName, d.bio, d.skills, d.hourlyRate, d.githubUrl, d.linkedinUrl, " +
+            "d.portfolioUrl, d.averageRating, d.totalProjectsCompleted, u.userStatus) " +
+            "FROM Developer d JOIN User u ON u.userId = d.userId ";
+
+    @Query(DEVELOPER_DTO)
+    List<DeveloperResponseDTO> findAllDTOs();
+
+    @Query(DEVELOPER_DTO + "WHERE d.developerId IN :developerIds")
+    List<DeveloperResponseDTO> findDTOsByIds(Collection<Integer> developerIds);
+
+    // Pattern is lower case, with ! as escape character
+    @Query(DEVELOPER_DTO + "WHERE LOWER(d.skills) LIKE :pattern ESCAPE '!'")
+    List<DeveloperResponseDTO> findDTOsBySkillsLike(String pattern);
+
+    @Query(DEVELOPER_DTO + "WHERE d.averageRating >= :minRating")
+    List<DeveloperResponseDTO> findDTOsByMinRating(BigDecimal minRating);
+
+    @Query(DEVELOPER_DTO + "WHERE d.hourlyRate BETWEEN :minRate AND :maxRate")
+    List<DeveloperResponseDTO> findDTOsByHourlyRateBetween(BigDecimal minRate, BigDecimal maxRate);
+
+    // Keyset pages ordered by id (see KeysetPagination)
+    @Query(DEVELOPER_DTO + "WHERE d.developerId > :afterId ORDER BY d.developerId")
+    List<DeveloperResponseDTO> findDTOPage(Integer afterId, Pageable pageable);
 }
@@ -0,0 +1,42 @@
+package org.devconnect.devconnectbackend.repository;
+
+import org.devconnect.devconnectbackend.model.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String> {
+
+    // Plain INSERT so a key that is already taken fails with a duplicate key error instead of being merged
+    @Modifying
+    @Query(value = """
+            INSERT INTO idempotency_keys (idempotency_key, request_hash, status, created_at, expires_at)
+            VALUES (:idempotencyKey, :requestHash, 'IN_PROGRESS', :createdAt, :expiresAt)
+            """, nativeQuery = true)
+    int claim(String idempotencyKey, String requestHash, LocalDateTime createdAt, LocalDateTime expiresAt);
+
+    @Modifying
+    @Query("UPDATE IdempotencyKey k SET k.status = :status, k.responseBody = :responseBody WHERE k.idempotencyKey = :idempotencyKey")
+    int complete(String idempotencyKey, IdempotencyKey.Status status, String responseBody);
+
+    // Remove a key that expired, or whose first request never finished
+    @Modifying
+    @Query("""
+           DELETE FROM IdempotencyKey k
+           WHERE k.idempotencyKey = :idempotencyKey
+             AND (k.expiresAt < :now OR (k.status = :inProgress AND k.createdAt < :abandonedBefore))
+           """)
+    int deleteStale(String idempotencyKey, LocalDateTime now, IdempotencyKey.Status inProgress, LocalDateTime abandonedBefore);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.idempotencyKey = :idempotencyKey AND k.status = :inProgress")
+    int release(String idempotencyKey, IdempotencyKey.Status inProgress);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.expiresAt < :now")
+    int deleteExpired(LocalDateTime now);
+}
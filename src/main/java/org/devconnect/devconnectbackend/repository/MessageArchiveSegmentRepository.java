@@ -0,0 +1,32 @@
+package org.devconnect.devconnectbackend.repository;
+
+import org.devconnect.devconnectbackend.model.MessageArchiveSegment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface MessageArchiveSegmentRepository extends JpaRepository<MessageArchiveSegment, Integer> {
+
+    List<MessageArchiveSegment> findByConversationIdOrderByFirstCreatedAtAsc(Integer conversationId);
+
+    // Segment ids only, so segments can be loaded one at a time
+    @Query("SELECT s.segmentId FROM MessageArchiveSegment s WHERE s.conversationId = :conversationId ORDER BY s.firstCreatedAt")
+    List<Integer> findSegmentIds(Integer conversationId);
+
+    Optional<MessageArchiveSegment> findFirstByConversationIdOrderByLastCreatedAtDesc(Integer conversationId);
+
+    // Preview of the newest segment of each conversation, without payloads: {conversationId, lastMessagePreview, lastCreatedAt}
+    @Query("""
+           SELECT s.conversationId, s.lastMessagePreview, s.lastCreatedAt FROM MessageArchiveSegment s
+           WHERE s.conversationId IN :conversationIds
+             AND s.lastCreatedAt = (SELECT MAX(l.lastCreatedAt) FROM MessageArchiveSegment l
+                                    WHERE l.conversationId = s.conversationId)
+           ORDER BY s.segmentId
+           """)
+    List<Object[]> findLastPreviews(Collection<Integer> conversationIds);
+}
@@ -0,0 +1,303 @@
+package org.devconnect.devconnectbackend.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.devconnect.devconnectbackend.dto.MessageDTO;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only journal of accepted messages on local disk, used to keep accepting messages
+ * while the database is unavailable.
+ *
+ * Messages are appended to memory-mapped segment files of a fixed size. Each record is
+ * [length][CRC32C][JSON], and a zero length marks the end of the written data, so a torn
+ * write at the tail is detected on restart and cut off. The checkpoint file holds the
+ * position up to which records have been stored in the database; segments before it are
+ * deleted. Everything after the checkpoint is replayed, also after a restart.
+ */
+@Slf4j
+public class MessageJournal implements AutoCloseable {
+
+    /**
+     * A journaled message and the position right after its record (its checkpoint).
+     * The message is null if the record could not be read.
+     */
+    public record Entry(MessageDTO message, long segment, int nextOffset) {
+    }
+
+    private static final int HEADER_SIZE = 8;
+    private static final String CHECKPOINT_FILE = "checkpoint";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final ObjectMapper objectMapper;
+
+    // Writer state, guarded by this
+    private FileChannel writeChannel;
+    private MappedByteBuffer writeBuffer;
+
+    // Published after each append; readers never look past it
+    private volatile long writeSegment;
+    private volatile int writePosition;
+
+    // Replay state, only changed by the replaying thread
+    private volatile long checkpointSegment;
+    private volatile int checkpointOffset;
+    private long readSegment = -1;
+    private MappedByteBuffer readBuffer;
+
+    public MessageJournal(Path directory, int segmentSize, ObjectMapper objectMapper) {
+        if (segmentSize < 4096) {
+            throw new IllegalArgumentException("Journal segment size must be at least 4096 bytes");
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Open the journal, restoring the checkpoint and the end of the written data
+     */
+    public synchronized void open() throws IOException {
+        Files.createDirectories(directory);
+
+        TreeSet<Long> segments = listSegments();
+        if (segments.isEmpty()) {
+            segments.add(0L);
+        }
+
+        Path checkpoint = directory.resolve(CHECKPOINT_FILE);
+        if (Files.exists(checkpoint)) {
+            String[] parts = Files.readString(checkpoint).trim().split(" ");
+            checkpointSegment = Long.parseLong(parts[0]);
+            checkpointOffset = Integer.parseInt(parts[1]);
+        } else {
+            checkpointSegment = segments.first();
+            checkpointOffset = 0;
+        }
+
+        long last = Math.max(segments.last(), checkpointSegment);
+        mapForWriting(last);
+        int position = last == checkpointSegment ? checkpointOffset : 0;
+        while (true) {
+            int length = recordLength(writeBuffer, position);
+            if (length <= 0 || !checksumMatches(writeBuffer, position, length)) {
+                break;
+            }
+            position += HEADER_SIZE + length;
+        }
+
+        // Zero whatever a torn write left behind, so it is never read as part of a later record
+        boolean torn = false;
+        for (int i = position; i < segmentSize; i++) {
+            if (writeBuffer.get(i) != 0) {
+                writeBuffer.put(i, (byte) 0);
+                torn = true;
+            }
+        }
+        if (torn) {
+            writeBuffer.force();
+            log.warn("Cut off a partially written record in journal segment {} at offset {}", last, position);
+        }
+
+        writeSegment = last;
+        writePosition = position;
+    }
+
+    /**
+     * Append a message and force it to disk
+     *
+     * @throws IllegalArgumentException if the message does not fit in a segment
+     */
+    public void append(MessageDTO message) {
+        byte[] payload;
+        try {
+            payload = objectMapper.writeValueAsBytes(message);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (payload.length + 2 * HEADER_SIZE > segmentSize) {
+            throw new IllegalArgumentException("Message is too large for the journal");
+        }
+
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+
+        synchronized (this) {
+            int position = writePosition;
+            // Keep room for the zero length that ends the segment
+            if (position + HEADER_SIZE + payload.length + 4 > segmentSize) {
+                try {
+                    mapForWriting(writeSegment + 1);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                writeSegment = writeSegment + 1;
+                position = 0;
+            }
+
+            // Payload and checksum first, length last: a record is only visible once it is complete
+            writeBuffer.putInt(position + 4, (int) crc.getValue());
+            writeBuffer.put(position + HEADER_SIZE, payload);
+            writeBuffer.putInt(position, payload.length);
+            writeBuffer.force(position, HEADER_SIZE + payload.length);
+
+            writePosition = position + HEADER_SIZE + payload.length;
+            notifyAll();
+        }
+    }
+
+    /**
+     * Wait until there are records after the checkpoint, or the timeout passes
+     */
+    public synchronized boolean awaitEntries(long timeoutMillis) throws InterruptedException {
+        if (!hasEntries()) {
+            wait(timeoutMillis);
+        }
+        return hasEntries();
+    }
+
+    /**
+     * Read up to maxEntries records following the checkpoint, oldest first.
+     * Reading does not move the checkpoint.
+     */
+    public List<Entry> read(int maxEntries) {
+        List<Entry> entries = new ArrayList<>();
+        long segment = checkpointSegment;
+        int offset = checkpointOffset;
+
+        while (entries.size() < maxEntries) {
+            long endSegment = writeSegment;
+            int endPosition = writePosition;
+            if (segment > endSegment || (segment == endSegment && offset >= endPosition)) {
+                break;
+            }
+
+            ByteBuffer buffer = mapForReading(segment);
+            int length = recordLength(buffer, offset);
+            if (length <= 0) {
+                // End of a finished segment
+                segment++;
+                offset = 0;
+                continue;
+            }
+
+            byte[] payload = new byte[length];
+            buffer.get(offset + HEADER_SIZE, payload);
+            offset += HEADER_SIZE + length;
+            try {
+                entries.add(new Entry(objectMapper.readValue(payload, MessageDTO.class), segment, offset));
+            } catch (IOException e) {
+                // Still returned, so the checkpoint can move past it
+                log.error("Unreadable journal record in segment {}: {}",
+                        segment, new String(payload, StandardCharsets.UTF_8), e);
+                entries.add(new Entry(null, segment, offset));
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Record that everything up to and including this entry is stored in the database
+     */
+    public void checkpoint(Entry entry) {
+        Path checkpoint = directory.resolve(CHECKPOINT_FILE);
+        Path temporary = directory.resolve(CHECKPOINT_FILE + ".tmp");
+        try {
+            Files.writeString(temporary, entry.segment() + " " + entry.nextOffset(),
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.SYNC);
+            Files.move(temporary, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        long previousSegment = checkpointSegment;
+        checkpointSegment = entry.segment();
+        checkpointOffset = entry.nextOffset();
+        for (long segment = previousSegment; segment < checkpointSegment; segment++) {
+            try {
+                Files.deleteIfExists(segmentPath(segment));
+            } catch (IOException e) {
+                log.warn("Could not delete journal segment {}: {}", segment, e.getMessage());
+            }
+        }
+    }
+
+    public boolean hasEntries() {
+        return writeSegment > checkpointSegment || writePosition > checkpointOffset;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (writeChannel != null) {
+            writeBuffer.force();
+            writeChannel.close();
+        }
+    }
+
+    private void mapForWriting(long segment) throws IOException {
+        if (writeChannel != null) {
+            writeBuffer.force();
+            writeChannel.close();
+        }
+        writeChannel = FileChannel.open(segmentPath(segment),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        // Mapping past the end grows the file to the full segment size, filled with zeros
+        writeBuffer = writeChannel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+    }
+
+    private ByteBuffer mapForReading(long segment) {
+        if (segment != readSegment) {
+            try (FileChannel channel = FileChannel.open(segmentPath(segment), StandardOpenOption.READ)) {
+                readBuffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, segmentSize);
+                readSegment = segment;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return readBuffer;
+    }
+
+    private int recordLength(ByteBuffer buffer, int offset) {
+        if (offset + HEADER_SIZE > segmentSize) {
+            return 0;
+        }
+        int length = buffer.getInt(offset);
+        return length > 0 && offset + HEADER_SIZE + length <= segmentSize ? length : 0;
+    }
+
+    private boolean checksumMatches(ByteBuffer buffer, int offset, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(offset + HEADER_SIZE, length));
+        return (int) crc.getValue() == buffer.getInt(offset + 4);
+    }
+
+    private TreeSet<Long> listSegments() throws IOException {
+        TreeSet<Long> segments = new TreeSet<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith("segment-") && name.endsWith(".log"))
+                    .forEach(name -> segments.add(Long.parseLong(name.substring(8, name.length() - 4))));
+        }
+        return segments;
+    }
+
+    private Path segmentPath(long segment) {
+        return directory.resolve("segment-%020d.log".formatted(segment));
+    }
+}
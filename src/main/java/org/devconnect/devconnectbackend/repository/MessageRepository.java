@@ -1,32 +1,97 @@
 package org.devconnect.devconnectbackend.repository;
 
+import org.devconnect.devconnectbackend.model.Conversation;
 import org.devconnect.devconnectbackend.model.Message;
 import org.devconnect.devconnectbackend.model.Message.MessageStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
+/**
+ * The messages table may be range-partitioned by created_at (see MessagePartitionMaintenance).
+ * Every per-conversation query therefore takes a lower bound on createdAt, so PostgreSQL
+ * only scans the partitions that can contain the conversation's messages.
+ */
 public interface MessageRepository extends JpaRepository<Message, Integer> {
 
     // Get all messages for a conversation (sorted oldest → newest)
-    List<Message> findByConversationConversationIdOrderByCreatedAtAsc(Integer conversationId);
+    List<Message> findByConversationConversationIdAndCreatedAtGreaterThanEqualOrderByCreatedAtAsc(
+            Integer conversationId, LocalDateTime since);
 
     // Get unread messages sent to a specific user
     @Query("""
            SELECT m FROM Message m
            WHERE m.conversation.conversationId = :conversationId
+             AND m.createdAt >= :since
              AND m.sender.userId <> :userId
              AND m.status <> 'READ'
            """)
-    List<Message> findUnreadMessages(Integer conversationId, Integer userId);
+    List<Message> findUnreadMessages(Integer conversationId, Integer userId, LocalDateTime since);
 
-    // Get last message in a conversation (useful for showing chat previews)
+    // Unread messages sent to a user, counted per conversation: {conversationId, count}
     @Query("""
-           SELECT m FROM Message m
-           WHERE m.conversation.conversationId = :conversationId
-           ORDER BY m.createdAt DESC
-           LIMIT 1
+           SELECT m.conversation.conversationId, COUNT(m) FROM Message m
+           WHERE m.conversation.conversationId IN :conversationIds
+             AND m.createdAt >= :since
+             AND m.sender.userId <> :userId
+             AND m.status <> 'READ'
+           GROUP BY m.conversation.conversationId
+           """)
+    List<Object[]> countUnreadMessages(Collection<Integer> conversationIds, Integer userId, LocalDateTime since);
+
+    // Unread messages sent to a user over all their conversations: one row {messages, conversations}.
+    // Has no lower bound, as it covers every conversation of the user.
+    @Query("""
+           SELECT COUNT(m), COUNT(DISTINCT m.conversation.conversationId) FROM Message m
+           WHERE (m.conversation.user1.userId = :userId OR m.conversation.user2.userId = :userId)
+             AND m.sender.userId <> :userId
+             AND m.status <> 'READ'
            """)
-    Message findLastMessage(Integer conversationId);
+    List<Object[]> countUnreadTotals(Integer userId);
+
+    // Newest message of each conversation, for chat previews: {conversationId, content, createdAt}.
+    // Messages sharing the newest createdAt all come back, in id order.
+    @Query("""
+           SELECT m.conversation.conversationId, m.content, m.createdAt FROM Message m
+           WHERE m.conversation.conversationId IN :conversationIds
+             AND m.createdAt >= :since
+             AND m.createdAt = (SELECT MAX(l.createdAt) FROM Message l
+                                WHERE l.conversation = m.conversation AND l.createdAt >= :since)
+           ORDER BY m.messageId
+           """)
+    List<Object[]> findLastMessages(Collection<Integer> conversationIds, LocalDateTime since);
+
+    // Oldest messages of a conversation up to a cutoff, one page at a time (used when archiving)
+    List<Message> findByConversationConversationIdAndCreatedAtBetweenOrderByCreatedAtAsc(
+            Integer conversationId, LocalDateTime since, LocalDateTime until, Pageable pageable);
+
+    // Ids of soft-deleted messages, for the purge job (served by the partial index idx_messages_soft_deleted)
+    @Query("SELECT m.messageId FROM Message m WHERE m.isDeleted = true")
+    List<Integer> findSoftDeletedIds(Pageable pageable);
+
+    // Conversations that still have messages, none of them newer than the cutoff.
+    // Both checks are index probes on (conversation_id, created_at) per conversation, instead of grouping the whole table
+    @Query("""
+           SELECT c.conversationId FROM Conversation c
+           WHERE EXISTS (SELECT 1 FROM Message m WHERE m.conversation = c AND m.createdAt < :cutoff)
+             AND NOT EXISTS (SELECT 1 FROM Message m WHERE m.conversation = c AND m.createdAt >= :cutoff)
+           """)
+    List<Integer> findColdConversationIds(LocalDateTime cutoff, Pageable pageable);
+
+    /**
+     * Earliest createdAt a message in this conversation can have.
+     * Messages are never older than their conversation; the one day margin covers
+     * clock differences between application nodes.
+     */
+    static LocalDateTime partitionLowerBound(Conversation conversation) {
+        return partitionLowerBound(conversation.getCreatedAt());
+    }
+
+    static LocalDateTime partitionLowerBound(LocalDateTime createdAt) {
+        return createdAt != null ? createdAt.minusDays(1) : LocalDateTime.of(1970, 1, 1, 0, 0);
+    }
 }
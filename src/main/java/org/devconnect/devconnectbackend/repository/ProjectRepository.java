@@ -1,16 +1,64 @@
 package org.devconnect.devconnectbackend.repository;
 
+import jakarta.persistence.LockModeType;
+import org.devconnect.devconnectbackend.dto.ProjectResponseDTO;
 import org.devconnect.devconnectbackend.model.Project;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ProjectRepository extends JpaRepository<Project, Long> {
-    List<Project> findByDevId(Long devId);
-    List<Project> findByClientId(Long clientId);
-    List<Project> findByStatus(Project.ProjectStatus status);
     List<Project> findByDevIdAndStatus(Long devId, Project.ProjectStatus status);
     List<Project> findByClientIdAndStatus(Long clientId, Project.ProjectStatus status);
+
+    // SELECT ... FOR UPDATE: always reads the row from the database (never the second-level cache)
+    // and holds its lock until the transaction ends
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Project p WHERE p.projectId = :projectId")
+    Optional<Project> findByIdForUpdate(Long projectId);
+
+    // Read-only lists select straight into the DTO: no managed entities, no dirty-checking snapshots
+    String PROJECT_DTO = "SELECT new org.devconnect.devconnectbackend.dto.ProjectResponseDTO(p.projectId, p.projectName, " +
+            "p.devId, p.clientId, p.description, p.status, p.projectBudget, p.timeline, p.createdAt, p.updatedAt) FROM Project p ";
+
+    @Query(PROJECT_DTO)
+    List<ProjectResponseDTO> findAllDTOs();
+
+    @Query(PROJECT_DTO + "WHERE p.projectId IN :projectIds")
+    List<ProjectResponseDTO> findDTOsByIds(Collection<Long> projectIds);
+
+    @Query(PROJECT_DTO + "WHERE p.devId = :devId")
+    List<ProjectResponseDTO> findDTOsByDevId(Long devId);
+
+    @Query(PROJECT_DTO + "WHERE p.clientId = :clientId")
+    List<ProjectResponseDTO> findDTOsByClientId(Long clientId);
+
+    @Query(PROJECT_DTO + "WHERE p.status = :status")
+    List<ProjectResponseDTO> findDTOsByStatus(Project.ProjectStatus status);
+
+    @Query(PROJECT_DTO + "WHERE p.devId IS NULL AND p.status = :status")
+    List<ProjectResponseDTO> findUnclaimedDTOsByStatus(Project.ProjectStatus status);
+
+    // Projects of a developer or a client (their developer and client ids, not user ids), most recently updated first.
+    // A null id matches nothing
+    @Query(PROJECT_DTO + "WHERE (p.devId = :devId OR p.clientId = :clientId) " +
+            "AND p.status IN :statuses ORDER BY p.updatedAt DESC")
+    List<ProjectResponseDTO> findDTOsByParticipantAndStatusIn(Long devId, Long clientId, Collection<Project.ProjectStatus> statuses);
+
+    // Keyset pages ordered by id (see KeysetPagination)
+    @Query(PROJECT_DTO + "WHERE p.projectId > :afterId ORDER BY p.projectId")
+    List<ProjectResponseDTO> findDTOPage(Long afterId, Pageable pageable);
+
+    @Query(PROJECT_DTO + "WHERE p.devId = :devId AND p.projectId > :afterId ORDER BY p.projectId")
+    List<ProjectResponseDTO> findDTOPageByDevId(Long devId, Long afterId, Pageable pageable);
+
+    @Query(PROJECT_DTO + "WHERE p.clientId = :clientId AND p.projectId > :afterId ORDER BY p.projectId")
+    List<ProjectResponseDTO> findDTOPageByClientId(Long clientId, Long afterId, Pageable pageable);
 }
@@ -0,0 +1,704 @@
+package org.devconnect.devconnectbackend.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.devconnect.devconnectbackend.model.Conversation;
+import org.devconnect.devconnectbackend.model.Message;
+import org.devconnect.devconnectbackend.model.User;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.jdbc.support.incrementer.DataFieldMaxValueIncrementer;
+import org.springframework.jdbc.support.incrementer.H2SequenceMaxValueIncrementer;
+import org.springframework.jdbc.support.incrementer.PostgresSequenceMaxValueIncrementer;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Stores conversations and messages across several databases ("shards"), keyed by conversation id.
+ *
+ * The primary database keeps the shard map (conversation_shards): the shard each conversation
+ * lives on and its two participants. New conversations are placed with a jump consistent hash
+ * of their id, so adding a shard only moves about 1/N of them (see ShardRebalanceService).
+ * Ids are taken from the primary's conversation_seq and message_seq and stay unique across shards;
+ * like the JPA entities, each nextval reserves a block of SEQUENCE_INCREMENT ids (pooled-lo).
+ *
+ * Users stay on the primary. Shard rows only carry user ids, so the returned entities
+ * have User objects with just the id set.
+ */
+@Slf4j
+public class ShardedMessageStore implements AutoCloseable {
+
+    /**
+     * A conversation with its newest message and the number of messages the user has not read yet
+     */
+    public record ChatSummary(Conversation conversation, Message lastMessage, int unreadCount) {
+    }
+
+    private static final int COPY_BATCH_SIZE = 500;
+    // Conversations in the main database's own tables that are not in the shard map
+    private static final String UNSHARDED =
+            "NOT EXISTS (SELECT 1 FROM conversation_shards s WHERE s.conversation_id = c.conversation_id)";
+    // Same as the allocationSize of Conversation and Message, which share these sequences
+    private static final int SEQUENCE_INCREMENT = 50;
+
+    private final JdbcTemplate primary;
+    private final List<DataSource> shardDataSources;
+    private final List<NamedParameterJdbcTemplate> shards = new ArrayList<>();
+    private final List<TransactionTemplate> shardTransactions = new ArrayList<>();
+    // Joins the caller's transaction on the primary, so shard map row locks are held until it commits
+    private final TransactionTemplate primaryTransaction;
+    // Separate transaction for shard map inserts, so a duplicate key does not spoil the caller's transaction
+    private final TransactionTemplate shardMapInsert;
+    private final PooledIds conversationIds;
+    private final PooledIds messageIds;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public ShardedMessageStore(DataSource primaryDataSource, List<DataSource> shardDataSources,
+                               PlatformTransactionManager primaryTransactionManager) {
+        if (shardDataSources.isEmpty()) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+
+        this.primary = new JdbcTemplate(primaryDataSource);
+        this.shardDataSources = List.copyOf(shardDataSources);
+        for (DataSource dataSource : shardDataSources) {
+            shards.add(new NamedParameterJdbcTemplate(dataSource));
+            shardTransactions.add(new TransactionTemplate(new DataSourceTransactionManager(dataSource)));
+        }
+
+        this.primaryTransaction = new TransactionTemplate(primaryTransactionManager);
+        this.shardMapInsert = new TransactionTemplate(primaryTransactionManager);
+        this.shardMapInsert.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        String product = databaseProduct(primaryDataSource);
+        if ("PostgreSQL".equalsIgnoreCase(product)) {
+            conversationIds = new PooledIds(new PostgresSequenceMaxValueIncrementer(primaryDataSource, "conversation_seq"));
+            messageIds = new PooledIds(new PostgresSequenceMaxValueIncrementer(primaryDataSource, "message_seq"));
+        } else if ("H2".equalsIgnoreCase(product)) {
+            conversationIds = new PooledIds(new H2SequenceMaxValueIncrementer(primaryDataSource, "conversation_seq"));
+            messageIds = new PooledIds(new H2SequenceMaxValueIncrementer(primaryDataSource, "message_seq"));
+        } else {
+            throw new IllegalStateException("Sharding needs PostgreSQL or H2 as the primary database, found " + product);
+        }
+    }
+
+    /**
+     * Create the shard map on the primary and the tables on every shard. Safe to run on every startup.
+     */
+    public void initialize() {
+        primary.execute("CREATE SEQUENCE IF NOT EXISTS conversation_seq INCREMENT BY " + SEQUENCE_INCREMENT);
+        primary.execute("CREATE SEQUENCE IF NOT EXISTS message_seq INCREMENT BY " + SEQUENCE_INCREMENT);
+        primary.execute("""
+                CREATE TABLE IF NOT EXISTS conversation_shards (
+                    conversation_id INTEGER PRIMARY KEY,
+                    shard_index INTEGER NOT NULL,
+                    low_user_id INTEGER NOT NULL,
+                    high_user_id INTEGER NOT NULL,
+                    CONSTRAINT uk_conversation_shards_users UNIQUE (low_user_id, high_user_id)
+                )
+                """);
+        primary.execute("CREATE INDEX IF NOT EXISTS idx_conversation_shards_high_user ON conversation_shards (high_user_id)");
+
+        for (NamedParameterJdbcTemplate shard : shards) {
+            JdbcTemplate jdbc = shard.getJdbcTemplate();
+            jdbc.execute("""
+                    CREATE TABLE IF NOT EXISTS conversations (
+                        conversation_id INTEGER PRIMARY KEY,
+                        user1_id INTEGER NOT NULL,
+                        user2_id INTEGER NOT NULL,
+                        created_at TIMESTAMP NOT NULL
+                    )
+                    """);
+            jdbc.execute("""
+                    CREATE TABLE IF NOT EXISTS messages (
+                        message_id INTEGER PRIMARY KEY,
+                        conversation_id INTEGER NOT NULL REFERENCES conversations (conversation_id),
+                        sender_id INTEGER NOT NULL,
+                        content TEXT NOT NULL,
+                        content_compressed BYTEA,
+                        attachment_id INTEGER,
+                        created_at TIMESTAMP NOT NULL,
+                        edited_at TIMESTAMP,
+                        is_deleted BOOLEAN DEFAULT FALSE NOT NULL,
+                        status VARCHAR(16) NOT NULL,
+                        delivered_at TIMESTAMP,
+                        read_at TIMESTAMP
+                    )
+                    """);
+            jdbc.execute("CREATE INDEX IF NOT EXISTS idx_messages_conversation_created ON messages (conversation_id, created_at)");
+        }
+
+        log.info("Sharded message store ready with {} shards", shards.size());
+    }
+
+    public int getShardCount() {
+        return shards.size();
+    }
+
+    /**
+     * Jump consistent hash (Lamping and Veach): maps a key to one of the buckets so that
+     * growing from n to n + 1 buckets only moves 1/(n + 1) of the keys, all into the new bucket.
+     */
+    public static int jumpHash(long key, int buckets) {
+        long bucket = -1;
+        long next = 0;
+        while (next < buckets) {
+            bucket = next;
+            key = key * 2862933555777941757L + 1;
+            next = (long) ((bucket + 1) * ((double) (1L << 31) / (double) ((key >>> 33) + 1)));
+        }
+        return (int) bucket;
+    }
+
+    // ==================== Conversations ====================
+
+    public Optional<Conversation> findConversation(Integer conversationId) {
+        Integer shard = findShard(conversationId);
+        return shard == null ? Optional.empty() : loadConversation(shard, conversationId);
+    }
+
+    public Optional<Conversation> findConversationByUsers(Integer userId1, Integer userId2) {
+        List<Map<String, Object>> rows = primary.queryForList(
+                "SELECT conversation_id, shard_index FROM conversation_shards WHERE low_user_id = ? AND high_user_id = ?",
+                Math.min(userId1, userId2), Math.max(userId1, userId2));
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Map<String, Object> row = rows.get(0);
+        return loadConversation(((Number) row.get("shard_index")).intValue(), ((Number) row.get("conversation_id")).intValue());
+    }
+
+    /**
+     * Create a conversation on the shard chosen by its id.
+     * If the other participant created the same conversation concurrently, that one is returned.
+     */
+    public Conversation createConversation(Integer userId1, Integer userId2) {
+        Integer conversationId = conversationIds.nextIntValue();
+        int shard = jumpHash(conversationId, shards.size());
+        LocalDateTime now = LocalDateTime.now();
+
+        // Shard row first, so a conversation is never visible in the shard map without its row
+        shards.get(shard).getJdbcTemplate().update(
+                "INSERT INTO conversations (conversation_id, user1_id, user2_id, created_at) VALUES (?, ?, ?, ?)",
+                conversationId, userId1, userId2, Timestamp.valueOf(now));
+
+        try {
+            shardMapInsert.executeWithoutResult(status -> primary.update(
+                    "INSERT INTO conversation_shards (conversation_id, shard_index, low_user_id, high_user_id) VALUES (?, ?, ?, ?)",
+                    conversationId, shard, Math.min(userId1, userId2), Math.max(userId1, userId2)));
+        } catch (DuplicateKeyException e) {
+            shards.get(shard).getJdbcTemplate().update("DELETE FROM conversations WHERE conversation_id = ?", conversationId);
+            return findConversationByUsers(userId1, userId2).orElseThrow(() -> e);
+        }
+
+        return conversation(conversationId, userId1, userId2, now);
+    }
+
+    /**
+     * Get all conversations of a user with their last message and unread count.
+     * Only the shards holding the user's conversations are queried, in parallel.
+     */
+    public List<ChatSummary> findChatSummaries(Integer userId) {
+        Map<Integer, List<Integer>> conversationsByShard = new HashMap<>();
+        primary.query("SELECT conversation_id, shard_index FROM conversation_shards WHERE low_user_id = ? OR high_user_id = ?",
+                (ResultSet rs) -> {
+                    conversationsByShard.computeIfAbsent(rs.getInt("shard_index"), shard -> new ArrayList<>())
+                            .add(rs.getInt("conversation_id"));
+                },
+                userId, userId);
+
+        List<CompletableFuture<List<ChatSummary>>> futures = new ArrayList<>();
+        conversationsByShard.forEach((shard, ids) -> futures.add(CompletableFuture.supplyAsync(
+                () -> loadChatSummaries(shard, ids, userId), executor)));
+
+        List<ChatSummary> summaries = new ArrayList<>();
+        for (CompletableFuture<List<ChatSummary>> future : futures) {
+            summaries.addAll(future.join());
+        }
+        summaries.sort(Comparator.comparing((ChatSummary summary) -> summary.conversation().getCreatedAt()).reversed());
+        return summaries;
+    }
+
+    // ==================== Messages ====================
+
+    /**
+     * Insert a new message on its conversation's shard and assign its id
+     */
+    public Message saveMessage(Message message) {
+        Integer conversationId = message.getConversation().getConversationId();
+        return primaryTransaction.execute(status -> {
+            int shard = lockShard(conversationId);
+            message.setMessageId(messageIds.nextIntValue());
+            shards.get(shard).update("""
+                    INSERT INTO messages (message_id, conversation_id, sender_id, content, content_compressed, attachment_id,
+                                          created_at, edited_at, is_deleted, status, delivered_at, read_at)
+                    VALUES (:messageId, :conversationId, :senderId, :content, :contentCompressed, :attachmentId,
+                            :createdAt, :editedAt, :deleted, :status, :deliveredAt, :readAt)
+                    """, messageParameters(message));
+            return message;
+        });
+    }
+
+    /**
+     * Write back the status, timestamps and deletion flag of an existing message
+     */
+    public void updateMessage(Message message) {
+        Integer conversationId = message.getConversation().getConversationId();
+        primaryTransaction.executeWithoutResult(status -> {
+            int shard = lockShard(conversationId);
+            shards.get(shard).update("""
+                    UPDATE messages
+                    SET status = :status, delivered_at = :deliveredAt, read_at = :readAt,
+                        edited_at = :editedAt, is_deleted = :deleted
+                    WHERE message_id = :messageId
+                    """, messageParameters(message));
+        });
+    }
+
+    /**
+     * Get all messages for a conversation (sorted oldest → newest)
+     */
+    public List<Message> findMessages(Conversation conversation) {
+        return queryMessages(conversation,
+                "SELECT * FROM messages WHERE conversation_id = :conversationId ORDER BY created_at, message_id",
+                new MapSqlParameterSource("conversationId", conversation.getConversationId()));
+    }
+
+    /**
+     * Get unread messages sent to a specific user
+     */
+    public List<Message> findUnreadMessages(Conversation conversation, Integer userId) {
+        return queryMessages(conversation, """
+                        SELECT * FROM messages
+                        WHERE conversation_id = :conversationId AND sender_id <> :userId AND status <> 'READ'
+                        ORDER BY created_at, message_id
+                        """,
+                new MapSqlParameterSource("conversationId", conversation.getConversationId()).addValue("userId", userId));
+    }
+
+    /**
+     * Visit all messages of a conversation (oldest → newest) without loading them all into memory
+     */
+    public void streamMessages(Conversation conversation, int fetchSize, Consumer<Message> consumer) {
+        Integer shard = findShard(conversation.getConversationId());
+        if (shard == null) {
+            return;
+        }
+
+        JdbcTemplate jdbc = new JdbcTemplate(shardDataSources.get(shard));
+        jdbc.setFetchSize(fetchSize);
+        // PostgreSQL only uses a cursor for the fetch size inside a transaction
+        TransactionTemplate readOnly = new TransactionTemplate(shardTransactions.get(shard).getTransactionManager());
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status -> jdbc.query(
+                "SELECT * FROM messages WHERE conversation_id = ? ORDER BY created_at, message_id",
+                (ResultSet rs) -> {
+                    consumer.accept(mapMessage(rs, conversation));
+                },
+                conversation.getConversationId()));
+    }
+
+    /**
+     * Find a message by id alone. The id does not tell which shard holds it, so all shards are asked.
+     */
+    public Optional<Message> findMessage(Integer messageId) {
+        List<CompletableFuture<Optional<Message>>> futures = new ArrayList<>();
+        for (int i = 0; i < shards.size(); i++) {
+            int shard = i;
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                List<Integer> conversationIds = shards.get(shard).queryForList(
+                        "SELECT conversation_id FROM messages WHERE message_id = :messageId",
+                        new MapSqlParameterSource("messageId", messageId), Integer.class);
+                if (conversationIds.isEmpty()) {
+                    return Optional.<Message>empty();
+                }
+                return loadConversation(shard, conversationIds.get(0)).flatMap(conversation ->
+                        queryMessages(conversation, "SELECT * FROM messages WHERE message_id = :messageId",
+                                new MapSqlParameterSource("messageId", messageId)).stream().findFirst());
+            }, executor));
+        }
+
+        for (CompletableFuture<Optional<Message>> future : futures) {
+            Optional<Message> message = future.join();
+            if (message.isPresent()) {
+                return message;
+            }
+        }
+        return Optional.empty();
+    }
+
+    // ==================== Rebalancing ====================
+
+    /**
+     * Get the shard of every conversation, as conversation id → shard index
+     */
+    public Map<Integer, Integer> findShardAssignments() {
+        Map<Integer, Integer> assignments = new LinkedHashMap<>();
+        primary.query("SELECT conversation_id, shard_index FROM conversation_shards ORDER BY conversation_id",
+                (ResultSet rs) -> {
+                    assignments.put(rs.getInt("conversation_id"), rs.getInt("shard_index"));
+                });
+        return assignments;
+    }
+
+    /**
+     * Move a conversation and its messages to another shard.
+     *
+     * The shard map row stays locked for the whole move, so sends and status updates for
+     * this conversation wait until it is done. Rows are copied first, then the shard map is
+     * switched, then the old rows are deleted; a failure at any step leaves the source authoritative.
+     */
+    public void moveConversation(Integer conversationId, int targetShard) {
+        if (targetShard < 0 || targetShard >= shards.size()) {
+            throw new IllegalArgumentException("No shard " + targetShard);
+        }
+
+        primaryTransaction.executeWithoutResult(status -> {
+            int sourceShard = lockShard(conversationId);
+            if (sourceShard == targetShard) {
+                return;
+            }
+
+            NamedParameterJdbcTemplate source = shards.get(sourceShard);
+            NamedParameterJdbcTemplate target = shards.get(targetShard);
+            MapSqlParameterSource id = new MapSqlParameterSource("conversationId", conversationId);
+
+            shardTransactions.get(targetShard).executeWithoutResult(copy -> {
+                // Leftovers from an earlier move that failed before the shard map was switched
+                target.update("DELETE FROM messages WHERE conversation_id = :conversationId", id);
+                target.update("DELETE FROM conversations WHERE conversation_id = :conversationId", id);
+
+                Conversation conversation = loadConversation(sourceShard, conversationId)
+                        .orElseThrow(() -> new RuntimeException("Conversation not found"));
+                target.getJdbcTemplate().update(
+                        "INSERT INTO conversations (conversation_id, user1_id, user2_id, created_at) VALUES (?, ?, ?, ?)",
+                        conversationId, conversation.getUser1().getUserId(), conversation.getUser2().getUserId(),
+                        Timestamp.valueOf(conversation.getCreatedAt()));
+
+                List<MapSqlParameterSource> batch = new ArrayList<>();
+                source.query("SELECT * FROM messages WHERE conversation_id = :conversationId", id, (ResultSet rs) -> {
+                    batch.add(messageRow(rs));
+                    if (batch.size() == COPY_BATCH_SIZE) {
+                        insertMessages(target, batch);
+                    }
+                });
+                insertMessages(target, batch);
+            });
+
+            primary.update("UPDATE conversation_shards SET shard_index = ? WHERE conversation_id = ?", targetShard, conversationId);
+
+            shardTransactions.get(sourceShard).executeWithoutResult(cleanup -> {
+                source.update("DELETE FROM messages WHERE conversation_id = :conversationId", id);
+                source.update("DELETE FROM conversations WHERE conversation_id = :conversationId", id);
+            });
+
+            log.info("Moved conversation {} from shard {} to shard {}", conversationId, sourceShard, targetShard);
+        });
+    }
+
+    // ==================== Backfill ====================
+
+    /**
+     * Count the conversations in the main database's own tables (written before sharding was
+     * enabled) that are not in the shard map yet. Those are invisible to the sharded store.
+     */
+    public int countUnshardedConversations() {
+        Integer count = primary.queryForObject("SELECT COUNT(*) FROM conversations c WHERE " + UNSHARDED, Integer.class);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Copy every unsharded conversation and its messages from the main database to its hashed shard.
+     *
+     * Per conversation the rows are copied first and the shard map row is added last, so a failure
+     * leaves the conversation unsharded and a later run copies it again. The rows in the main
+     * database are left in place; they are no longer read once the conversation is in the shard map.
+     *
+     * @return number of conversations copied
+     */
+    public int backfillFromPrimary() {
+        List<Conversation> pending = primary.query(
+                "SELECT conversation_id, user1_id, user2_id, created_at FROM conversations c WHERE " + UNSHARDED
+                        + " ORDER BY conversation_id",
+                (rs, rowNum) -> mapConversation(rs));
+
+        int copied = 0;
+        int failed = 0;
+        for (Conversation conversation : pending) {
+            try {
+                backfillConversation(conversation);
+                copied++;
+            } catch (Exception e) {
+                failed++;
+                log.error("Could not copy conversation {} to its shard: {}", conversation.getConversationId(), e.getMessage(), e);
+            }
+        }
+
+        log.info("Shard backfill finished: {} conversations copied, {} failed", copied, failed);
+        return copied;
+    }
+
+    private void backfillConversation(Conversation conversation) {
+        Integer conversationId = conversation.getConversationId();
+        int targetShard = jumpHash(conversationId, shards.size());
+        NamedParameterJdbcTemplate target = shards.get(targetShard);
+        MapSqlParameterSource id = new MapSqlParameterSource("conversationId", conversationId);
+        Integer userId1 = conversation.getUser1().getUserId();
+        Integer userId2 = conversation.getUser2().getUserId();
+
+        shardTransactions.get(targetShard).executeWithoutResult(copy -> {
+            // Leftovers from an earlier run that failed before the shard map row was added
+            target.update("DELETE FROM messages WHERE conversation_id = :conversationId", id);
+            target.update("DELETE FROM conversations WHERE conversation_id = :conversationId", id);
+
+            target.getJdbcTemplate().update(
+                    "INSERT INTO conversations (conversation_id, user1_id, user2_id, created_at) VALUES (?, ?, ?, ?)",
+                    conversationId, userId1, userId2, Timestamp.valueOf(conversation.getCreatedAt()));
+
+            List<MapSqlParameterSource> batch = new ArrayList<>();
+            primary.query("SELECT * FROM messages WHERE conversation_id = ?", (ResultSet rs) -> {
+                batch.add(messageRow(rs));
+                if (batch.size() == COPY_BATCH_SIZE) {
+                    insertMessages(target, batch);
+                }
+            }, conversationId);
+            insertMessages(target, batch);
+        });
+
+        primary.update(
+                "INSERT INTO conversation_shards (conversation_id, shard_index, low_user_id, high_user_id) VALUES (?, ?, ?, ?)",
+                conversationId, targetShard, Math.min(userId1, userId2), Math.max(userId1, userId2));
+    }
+
+    @Override
+    public void close() throws IOException {
+        executor.shutdown();
+        for (DataSource dataSource : shardDataSources) {
+            if (dataSource instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    // ==================== Helpers ====================
+
+    private Integer findShard(Integer conversationId) {
+        List<Integer> rows = primary.queryForList(
+                "SELECT shard_index FROM conversation_shards WHERE conversation_id = ?", Integer.class, conversationId);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    // Must run inside primaryTransaction; the lock is released when the caller's transaction ends
+    private int lockShard(Integer conversationId) {
+        List<Integer> rows = primary.queryForList(
+                "SELECT shard_index FROM conversation_shards WHERE conversation_id = ? FOR UPDATE", Integer.class, conversationId);
+        if (rows.isEmpty()) {
+            throw new RuntimeException("Conversation not found");
+        }
+        return rows.get(0);
+    }
+
+    private Optional<Conversation> loadConversation(int shard, Integer conversationId) {
+        return shards.get(shard).query("SELECT * FROM conversations WHERE conversation_id = :conversationId",
+                new MapSqlParameterSource("conversationId", conversationId),
+                (rs, rowNum) -> mapConversation(rs)).stream().findFirst();
+    }
+
+    private List<ChatSummary> loadChatSummaries(int shard, List<Integer> conversationIds, Integer userId) {
+        NamedParameterJdbcTemplate jdbc = shards.get(shard);
+        MapSqlParameterSource parameters = new MapSqlParameterSource("conversationIds", conversationIds)
+                .addValue("userId", userId);
+
+        Map<Integer, Conversation> conversations = new LinkedHashMap<>();
+        jdbc.query("SELECT * FROM conversations WHERE conversation_id IN (:conversationIds)", parameters, (ResultSet rs) -> {
+            Conversation conversation = mapConversation(rs);
+            conversations.put(conversation.getConversationId(), conversation);
+        });
+
+        Map<Integer, Message> lastMessages = new HashMap<>();
+        jdbc.query("""
+                SELECT m.* FROM messages m
+                WHERE m.conversation_id IN (:conversationIds)
+                  AND NOT EXISTS (
+                      SELECT 1 FROM messages n
+                      WHERE n.conversation_id = m.conversation_id
+                        AND (n.created_at > m.created_at OR (n.created_at = m.created_at AND n.message_id > m.message_id))
+                  )
+                """, parameters, (ResultSet rs) -> {
+            Message message = mapMessage(rs, conversations.get(rs.getInt("conversation_id")));
+            lastMessages.put(message.getConversation().getConversationId(), message);
+        });
+
+        Map<Integer, Integer> unreadCounts = new HashMap<>();
+        jdbc.query("""
+                SELECT conversation_id, COUNT(*) AS unread FROM messages
+                WHERE conversation_id IN (:conversationIds) AND sender_id <> :userId AND status <> 'READ'
+                GROUP BY conversation_id
+                """, parameters, (ResultSet rs) -> {
+            unreadCounts.put(rs.getInt("conversation_id"), rs.getInt("unread"));
+        });
+
+        List<ChatSummary> summaries = new ArrayList<>();
+        for (Conversation conversation : conversations.values()) {
+            Integer id = conversation.getConversationId();
+            summaries.add(new ChatSummary(conversation, lastMessages.get(id), unreadCounts.getOrDefault(id, 0)));
+        }
+        return summaries;
+    }
+
+    private List<Message> queryMessages(Conversation conversation, String sql, MapSqlParameterSource parameters) {
+        Integer shard = findShard(conversation.getConversationId());
+        if (shard == null) {
+            return List.of();
+        }
+        return shards.get(shard).query(sql, parameters, (rs, rowNum) -> mapMessage(rs, conversation));
+    }
+
+    private void insertMessages(NamedParameterJdbcTemplate target, List<MapSqlParameterSource> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        target.batchUpdate("""
+                INSERT INTO messages (message_id, conversation_id, sender_id, content, content_compressed, attachment_id,
+                                      created_at, edited_at, is_deleted, status, delivered_at, read_at)
+                VALUES (:messageId, :conversationId, :senderId, :content, :contentCompressed, :attachmentId,
+                        :createdAt, :editedAt, :deleted, :status, :deliveredAt, :readAt)
+                """, batch.toArray(new MapSqlParameterSource[0]));
+        batch.clear();
+    }
+
+    // Insert parameters for a messages row read from another database
+    private static MapSqlParameterSource messageRow(ResultSet rs) throws SQLException {
+        return new MapSqlParameterSource()
+                .addValue("messageId", rs.getInt("message_id"))
+                .addValue("conversationId", rs.getInt("conversation_id"))
+                .addValue("senderId", rs.getInt("sender_id"))
+                .addValue("content", rs.getString("content"))
+                .addValue("contentCompressed", rs.getBytes("content_compressed"))
+                .addValue("attachmentId", rs.getObject("attachment_id"))
+                .addValue("createdAt", rs.getTimestamp("created_at"))
+                .addValue("editedAt", rs.getTimestamp("edited_at"))
+                .addValue("deleted", rs.getBoolean("is_deleted"))
+                .addValue("status", rs.getString("status"))
+                .addValue("deliveredAt", rs.getTimestamp("delivered_at"))
+                .addValue("readAt", rs.getTimestamp("read_at"));
+    }
+
+    private MapSqlParameterSource messageParameters(Message message) {
+        return new MapSqlParameterSource()
+                .addValue("messageId", message.getMessageId())
+                .addValue("conversationId", message.getConversation().getConversationId())
+                .addValue("senderId", message.getSender().getUserId())
+                .addValue("content", message.getContent())
+                .addValue("contentCompressed", message.getContentCompressed())
+                .addValue("attachmentId", message.getAttachmentId())
+                .addValue("createdAt", timestamp(message.getCreatedAt()))
+                .addValue("editedAt", timestamp(message.getEditedAt()))
+                .addValue("deleted", message.isDeleted())
+                .addValue("status", message.getStatus().name())
+                .addValue("deliveredAt", timestamp(message.getDeliveredAt()))
+                .addValue("readAt", timestamp(message.getReadAt()));
+    }
+
+    private Conversation mapConversation(ResultSet rs) throws SQLException {
+        return conversation(rs.getInt("conversation_id"), rs.getInt("user1_id"), rs.getInt("user2_id"),
+                rs.getTimestamp("created_at").toLocalDateTime());
+    }
+
+    private Message mapMessage(ResultSet rs, Conversation conversation) throws SQLException {
+        Message message = new Message();
+        message.setMessageId(rs.getInt("message_id"));
+        message.setConversation(conversation);
+        message.setSender(user(rs.getInt("sender_id")));
+        message.setContent(rs.getString("content"));
+        message.setContentCompressed(rs.getBytes("content_compressed"));
+        message.setAttachmentId(rs.getObject("attachment_id", Integer.class));
+        message.setCreatedAt(localDateTime(rs.getTimestamp("created_at")));
+        message.setEditedAt(localDateTime(rs.getTimestamp("edited_at")));
+        message.setDeleted(rs.getBoolean("is_deleted"));
+        message.setStatus(Message.MessageStatus.valueOf(rs.getString("status")));
+        message.setDeliveredAt(localDateTime(rs.getTimestamp("delivered_at")));
+        message.setReadAt(localDateTime(rs.getTimestamp("read_at")));
+        return message;
+    }
+
+    private static Conversation conversation(Integer conversationId, Integer userId1, Integer userId2, LocalDateTime createdAt) {
+        Conversation conversation = new Conversation();
+        conversation.setConversationId(conversationId);
+        conversation.setUser1(user(userId1));
+        conversation.setUser2(user(userId2));
+        conversation.setCreatedAt(createdAt);
+        return conversation;
+    }
+
+    private static User user(Integer userId) {
+        User user = new User();
+        user.setUserId(userId);
+        return user;
+    }
+
+    private static Timestamp timestamp(LocalDateTime value) {
+        return value != null ? Timestamp.valueOf(value) : null;
+    }
+
+    private static LocalDateTime localDateTime(Timestamp value) {
+        return value != null ? value.toLocalDateTime() : null;
+    }
+
+    private static String databaseProduct(DataSource dataSource) {
+        try {
+            return JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+        } catch (MetaDataAccessException e) {
+            throw new IllegalStateException("Could not determine primary database type", e);
+        }
+    }
+
+    /**
+     * Ids from a sequence that increments by SEQUENCE_INCREMENT: each value read is the lowest
+     * id of a block this instance owns, so only one nextval is needed per block
+     */
+    private static final class PooledIds {
+
+        private final DataFieldMaxValueIncrementer sequence;
+        private long next;
+        private long end;
+
+        PooledIds(DataFieldMaxValueIncrementer sequence) {
+            this.sequence = sequence;
+        }
+
+        synchronized int nextIntValue() {
+            if (next >= end) {
+                next = sequence.nextLongValue();
+                end = next + SEQUENCE_INCREMENT;
+            }
+            return Math.toIntExact(next++);
+        }
+    }
+}
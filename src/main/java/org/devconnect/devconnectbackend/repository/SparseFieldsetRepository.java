@@ -0,0 +1,137 @@
+package org.devconnect.devconnectbackend.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.devconnect.devconnectbackend.model.Developer;
+import org.devconnect.devconnectbackend.model.Project;
+import org.devconnect.devconnectbackend.model.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Reads only the selected columns for sparse fieldset requests (see SparseFieldset), so TEXT
+ * columns like bio, skills and description are not loaded when the client did not ask for them.
+ * Rows are maps from field name to value, in selection order, sorted by id.
+ */
+@Repository
+public class SparseFieldsetRepository {
+
+    // Developer fields that are read from the developer's user
+    private static final Set<String> DEVELOPER_USER_FIELDS = Set.of("email", "firstName", "lastName", "userStatus");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Users with an id greater than afterId, optionally only one id or one role
+     */
+    public List<Map<String, Object>> findUsers(Set<String> fields, Integer userId, User.UserRole role,
+                                               long afterId, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<User> user = query.from(User.class);
+
+        List<Predicate> where = new ArrayList<>();
+        if (userId != null) {
+            where.add(cb.equal(user.get("userId"), userId));
+        }
+        if (role != null) {
+            where.add(cb.equal(user.get("userRole"), role));
+        }
+        where.add(cb.greaterThan(user.<Integer>get("userId"), (int) afterId));
+
+        // UserResponseDTO serializes isActive as "active"
+        return select(query, where, fields, field -> user.get("active".equals(field) ? "isActive" : field),
+                user.get("userId"), pageable);
+    }
+
+    /**
+     * Developers with an id greater than afterId, optionally only one id.
+     * The user table is only joined when a user field is selected.
+     */
+    public List<Map<String, Object>> findDevelopers(Set<String> fields, Integer developerId,
+                                                    long afterId, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Developer> developer = query.from(Developer.class);
+
+        List<Predicate> where = new ArrayList<>();
+        Root<User> user = null;
+        if (fields.stream().anyMatch(DEVELOPER_USER_FIELDS::contains)) {
+            user = query.from(User.class);
+            where.add(cb.equal(user.get("userId"), developer.get("userId")));
+        }
+        if (developerId != null) {
+            where.add(cb.equal(developer.get("developerId"), developerId));
+        }
+        where.add(cb.greaterThan(developer.<Integer>get("developerId"), (int) afterId));
+
+        Root<User> userRoot = user;
+        return select(query, where, fields,
+                field -> DEVELOPER_USER_FIELDS.contains(field) ? userRoot.get(field) : developer.get(field),
+                developer.get("developerId"), pageable);
+    }
+
+    /**
+     * Projects with an id greater than afterId, optionally only one id, developer or client
+     */
+    public List<Map<String, Object>> findProjects(Set<String> fields, Long projectId, Long devId, Long clientId,
+                                                  long afterId, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Project> project = query.from(Project.class);
+
+        List<Predicate> where = new ArrayList<>();
+        if (projectId != null) {
+            where.add(cb.equal(project.get("projectId"), projectId));
+        }
+        if (devId != null) {
+            where.add(cb.equal(project.get("devId"), devId));
+        }
+        if (clientId != null) {
+            where.add(cb.equal(project.get("clientId"), clientId));
+        }
+        where.add(cb.greaterThan(project.<Long>get("projectId"), afterId));
+
+        return select(query, where, fields, project::get, project.get("projectId"), pageable);
+    }
+
+    private List<Map<String, Object>> select(CriteriaQuery<Tuple> query, List<Predicate> where, Set<String> fields,
+                                             Function<String, Path<?>> column, Path<?> id, Pageable pageable) {
+        List<Selection<?>> selections = new ArrayList<>();
+        for (String field : fields) {
+            selections.add(column.apply(field).alias(field));
+        }
+        query.multiselect(selections)
+                .where(where.toArray(new Predicate[0]))
+                .orderBy(entityManager.getCriteriaBuilder().asc(id));
+
+        List<Tuple> tuples = entityManager.createQuery(query)
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+
+        List<Map<String, Object>> rows = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (String field : fields) {
+                row.put(field, tuple.get(field));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,14 @@
+package org.devconnect.devconnectbackend.repository;
+
+import org.devconnect.devconnectbackend.model.User;
+
+import java.util.Optional;
+
+/**
+ * Lookup of users by email, their natural id. Part of UserRepository; the implementation
+ * takes the place of the derived findByEmail query.
+ */
+public interface UserEmailLookup {
+
+    Optional<User> findByEmail(String email);
+}
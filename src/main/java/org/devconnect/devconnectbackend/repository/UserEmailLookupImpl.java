@@ -0,0 +1,46 @@
+package org.devconnect.devconnectbackend.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.devconnect.devconnectbackend.config.ReplicaRoutingDataSource;
+import org.devconnect.devconnectbackend.model.User;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * Resolves the email through the natural id cache (users-by-email) and the user through the
+ * entity cache (users), so logins and token checks usually skip the database. Both regions are
+ * kept up to date by Hibernate when a user is saved, also when the email changes. Another instance
+ * only evicts the user (see CacheInvalidationService), so a cached email that now belongs to a
+ * different user is detected here and looked up again.
+ * Always reads the primary, also inside a replica transaction, so neither cache is filled from a lagging replica.
+ */
+class UserEmailLookupImpl implements UserEmailLookup {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<User> findByEmail(String email) {
+        if (email == null) {
+            return Optional.empty();
+        }
+        return ReplicaRoutingDataSource.onPrimary(() -> load(email));
+    }
+
+    private Optional<User> load(String email) {
+        Session session = entityManager.unwrap(Session.class);
+        Optional<User> user = session.bySimpleNaturalId(User.class).loadOptional(email);
+        if (user.isEmpty() || email.equals(user.get().getEmail())) {
+            return user;
+        }
+
+        session.getSessionFactory().getCache().evictNaturalIdData(User.class);
+        return session.createQuery("SELECT u FROM User u WHERE u.email = :email", User.class)
+                .setParameter("email", email)
+                .uniqueResultOptional();
+    }
+}
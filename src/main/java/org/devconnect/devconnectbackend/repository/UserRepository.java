@@ -1,30 +1,72 @@
 
 package org.devconnect.devconnectbackend.repository;
 
+import org.devconnect.devconnectbackend.dto.UserResponseDTO;
 import org.devconnect.devconnectbackend.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Integer> {
+public interface UserRepository extends JpaRepository<User, Integer>, UserEmailLookup {
 
     // List<User> findAll() already provided by JpaRepository
 
     // List<User> findById() already provided by JpaRepository
 
-    Optional<User> findByEmail(String email);
+    // Optional<User> findByEmail(String email) comes from UserEmailLookup (natural id cache)
 
     boolean existsByEmail(String email);
 
     boolean existsByUsername(String username);
 
-    List<User> findByUserRole(User.UserRole userRole);
-
     List<User> findByIsActive(Boolean isActive);
 
     List<User> findByIsVerified(Boolean isVerified);
 
-}
\ No newline at end of file
+    // Read-only lists select straight into the DTO: no managed entities, no dirty-checking snapshots
+    String USER_DTO = "new org.devconnect.devconnectbackend.dto.UserResponseDTO(u.userId, u.firstName, u.lastName, " +
+            "u.email, u.telephone, u.userRole, u.userStatus, u.createdAt, u.lastSeen, u.isActive)";
+
+    @Query("SELECT " + USER_DTO + " FROM User u")
+    List<UserResponseDTO> findAllDTOs();
+
+    @Query("SELECT " + USER_DTO + " FROM User u WHERE u.userId IN :userIds")
+    List<UserResponseDTO> findDTOsByIds(Collection<Integer> userIds);
+
+    @Query("SELECT " + USER_DTO + " FROM User u WHERE u.userRole = :userRole")
+    List<UserResponseDTO> findDTOsByUserRole(User.UserRole userRole);
+
+    // Keyset pages ordered by id (see KeysetPagination)
+    @Query("SELECT " + USER_DTO + " FROM User u WHERE u.userId > :afterId ORDER BY u.userId")
+    List<UserResponseDTO> findDTOPage(Integer afterId, Pageable pageable);
+
+    @Query("SELECT " + USER_DTO + " FROM User u WHERE u.userRole = :userRole AND u.userId > :afterId ORDER BY u.userId")
+    List<UserResponseDTO> findDTOPageByUserRole(User.UserRole userRole, Integer afterId, Pageable pageable);
+
+    // Relevance: 0 = username or email equals the term, 1 = a name or the username starts with it, 2 = contains it
+    String SEARCH_RANK = "CASE WHEN LOWER(u.username) = :term OR LOWER(u.email) = :term THEN 0 " +
+            "WHEN LOWER(u.firstName) LIKE :prefix ESCAPE '!' OR LOWER(u.lastName) LIKE :prefix ESCAPE '!' " +
+            "OR LOWER(u.username) LIKE :prefix ESCAPE '!' THEN 1 " +
+            "ELSE 2 END";
+
+    /**
+     * Users whose first name, last name, username or email contains the term, best matches first.
+     * Keyset paginated on (rank, userId): pass the last row's values as afterRank and afterId,
+     * or -1 and 0 for the first page. Each row is [UserResponseDTO, rank].
+     * On PostgreSQL the LOWER(...) LIKE '%term%' filters use the trigram indexes from DatabaseMigration.
+     */
+    @Query("SELECT " + USER_DTO + ", " + SEARCH_RANK + " FROM User u " +
+            "WHERE (:role IS NULL OR u.userRole = :role) " +
+            "AND (LOWER(u.firstName) LIKE :contains ESCAPE '!' OR LOWER(u.lastName) LIKE :contains ESCAPE '!' " +
+            "OR LOWER(u.username) LIKE :contains ESCAPE '!' OR LOWER(u.email) LIKE :contains ESCAPE '!') " +
+            "AND (" + SEARCH_RANK + " > :afterRank OR (" + SEARCH_RANK + " = :afterRank AND u.userId > :afterId)) " +
+            "ORDER BY " + SEARCH_RANK + ", u.userId")
+    List<Object[]> search(String term, String prefix, String contains, User.UserRole role,
+                          int afterRank, int afterId, Pageable pageable);
+
+}
@@ -0,0 +1,230 @@
+package org.devconnect.devconnectbackend.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.devconnect.devconnectbackend.dto.AttachmentDTO;
+import org.devconnect.devconnectbackend.dto.UploadSessionDTO;
+import org.devconnect.devconnectbackend.exception.AttachmentNotFoundException;
+import org.devconnect.devconnectbackend.model.Attachment;
+import org.devconnect.devconnectbackend.repository.AttachmentRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AttachmentService {
+
+    private final AttachmentRepository attachmentRepository;
+    private final AttachmentStorageService storageService;
+
+    private final Map<String, UploadSession> sessions = new ConcurrentHashMap<>();
+
+    @Value("${attachments.max-size-bytes:104857600}")
+    private long maxSizeBytes;
+
+    @Value("${attachments.upload-session-ttl-minutes:60}")
+    private long uploadSessionTtlMinutes;
+
+    /**
+     * Start a chunked upload. Chunks are then appended in order with {@link #appendChunk}.
+     */
+    public UploadSessionDTO startUpload(Integer uploaderId, String fileName, String contentType) {
+        if (fileName == null || fileName.isBlank()) {
+            throw new IllegalArgumentException("fileName is required");
+        }
+
+        String uploadId = UUID.randomUUID().toString();
+        try {
+            Path stagingFile = storageService.createStagingFile(uploadId);
+            UploadSession session = new UploadSession(
+                    uploaderId,
+                    fileName,
+                    contentType != null && !contentType.isBlank() ? contentType : "application/octet-stream",
+                    stagingFile,
+                    newDigest()
+            );
+            sessions.put(uploadId, session);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start upload", e);
+        }
+
+        return new UploadSessionDTO(uploadId, 0L);
+    }
+
+    /**
+     * Append the next chunk of an upload.
+     * The offset must match the number of bytes already received, which makes a
+     * retried chunk detectable instead of silently corrupting the file. A chunk that fails
+     * part way leaves neither the file nor the hash changed, so it can be retried at the same offset.
+     */
+    public UploadSessionDTO appendChunk(String uploadId, long offset, InputStream chunk) {
+        UploadSession session = getSession(uploadId);
+
+        synchronized (session) {
+            if (offset != session.receivedBytes) {
+                throw new IllegalStateException("Chunk offset " + offset + " does not match received bytes " + session.receivedBytes);
+            }
+
+            MessageDigest chunkDigest = copyOf(session.digest);
+            try {
+                long written = storageService.appendChunk(session.stagingFile, session.receivedBytes,
+                        chunk, chunkDigest, maxSizeBytes - session.receivedBytes);
+                session.digest = chunkDigest;
+                session.receivedBytes += written;
+                session.lastActivity = Instant.now();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not store chunk", e);
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                abort(uploadId);
+                throw e;
+            }
+
+            return new UploadSessionDTO(uploadId, session.receivedBytes);
+        }
+    }
+
+    /**
+     * Finish an upload: move the file into the content-addressed store and record its metadata
+     */
+    @Transactional
+    public AttachmentDTO completeUpload(String uploadId) {
+        UploadSession session = getSession(uploadId);
+
+        synchronized (session) {
+            String contentHash = HexFormat.of().formatHex(session.digest.digest());
+            try {
+                boolean stored = storageService.commit(session.stagingFile, contentHash);
+                if (!stored) {
+                    log.info("Upload {} deduplicated against existing object {}", uploadId, contentHash);
+                }
+            } catch (IOException e) {
+                storageService.discard(session.stagingFile);
+                throw new UncheckedIOException("Could not store attachment", e);
+            } finally {
+                sessions.remove(uploadId);
+            }
+
+            Attachment attachment = new Attachment();
+            attachment.setUploaderId(session.uploaderId);
+            attachment.setFileName(session.fileName);
+            attachment.setContentType(session.contentType);
+            attachment.setSizeBytes(session.receivedBytes);
+            attachment.setContentHash(contentHash);
+
+            return toDTO(attachmentRepository.save(attachment));
+        }
+    }
+
+    public void abort(String uploadId) {
+        UploadSession session = sessions.remove(uploadId);
+        if (session != null) {
+            storageService.discard(session.stagingFile);
+        }
+    }
+
+    public AttachmentDTO getAttachment(Integer attachmentId) {
+        return toDTO(findAttachment(attachmentId));
+    }
+
+    /**
+     * Write a byte range of an attachment's content to the given channel
+     */
+    public void transferContent(Attachment attachment, long position, long count, WritableByteChannel target) throws IOException {
+        storageService.transferTo(attachment.getContentHash(), position, count, target);
+    }
+
+    public Attachment findAttachment(Integer attachmentId) {
+        return attachmentRepository.findById(attachmentId)
+                .orElseThrow(() -> new AttachmentNotFoundException("Attachment not found with id: " + attachmentId));
+    }
+
+    public boolean exists(Integer attachmentId) {
+        return attachmentRepository.existsById(attachmentId);
+    }
+
+    /**
+     * Drop upload sessions that have been idle for longer than the configured TTL
+     */
+    @Scheduled(fixedDelayString = "${attachments.upload-session-sweep-ms:300000}")
+    public void expireIdleUploads() {
+        Instant cutoff = Instant.now().minus(Duration.ofMinutes(uploadSessionTtlMinutes));
+        sessions.forEach((uploadId, session) -> {
+            if (session.lastActivity.isBefore(cutoff)) {
+                log.info("Expiring idle upload {}", uploadId);
+                abort(uploadId);
+            }
+        });
+    }
+
+    private UploadSession getSession(String uploadId) {
+        UploadSession session = sessions.get(uploadId);
+        if (session == null) {
+            throw new AttachmentNotFoundException("Upload session not found: " + uploadId);
+        }
+        return session;
+    }
+
+    private AttachmentDTO toDTO(Attachment attachment) {
+        return new AttachmentDTO(
+                attachment.getAttachmentId(),
+                attachment.getUploaderId(),
+                attachment.getFileName(),
+                attachment.getContentType(),
+                attachment.getSizeBytes(),
+                attachment.getContentHash(),
+                attachment.getCreatedAt()
+        );
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    // Chunks update a copy, which is adopted once the whole chunk is on disk
+    private static MessageDigest copyOf(MessageDigest digest) {
+        try {
+            return (MessageDigest) digest.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException("SHA-256 digest cannot be copied", e);
+        }
+    }
+
+    private static class UploadSession {
+        private final Integer uploaderId;
+        private final String fileName;
+        private final String contentType;
+        private final Path stagingFile;
+        private MessageDigest digest;
+        private long receivedBytes;
+        private Instant lastActivity = Instant.now();
+
+        private UploadSession(Integer uploaderId, String fileName, String contentType, Path stagingFile, MessageDigest digest) {
+            this.uploaderId = uploaderId;
+            this.fileName = fileName;
+            this.contentType = contentType;
+            this.stagingFile = stagingFile;
+            this.digest = digest;
+        }
+    }
+}
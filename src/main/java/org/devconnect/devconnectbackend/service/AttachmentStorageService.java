@@ -0,0 +1,175 @@
+package org.devconnect.devconnectbackend.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+
+/**
+ * Content-addressed file store on local disk.
+ * Objects are written once under {@code objects/ab/cd/<sha256>} and never modified,
+ * so identical uploads are stored only once and can be served with zero-copy transfers.
+ */
+@Slf4j
+@Service
+public class AttachmentStorageService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Value("${attachments.storage-dir:./data/attachments}")
+    private String storageDir;
+
+    private Path objectsDir;
+    private Path uploadsDir;
+
+    @PostConstruct
+    public void init() {
+        try {
+            Path root = Paths.get(storageDir).toAbsolutePath().normalize();
+            objectsDir = Files.createDirectories(root.resolve("objects"));
+            uploadsDir = Files.createDirectories(root.resolve("uploads"));
+            log.info("Attachment store initialised at {}", root);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not initialise attachment store at " + storageDir, e);
+        }
+    }
+
+    /**
+     * Create an empty staging file for a new upload session
+     */
+    public Path createStagingFile(String uploadId) throws IOException {
+        return Files.createFile(uploadsDir.resolve(uploadId + ".part"));
+    }
+
+    /**
+     * Stream a chunk from the request body into a staging file, starting at position (the bytes
+     * received so far). The digest is updated with exactly the bytes written so the hash is ready
+     * on completion.
+     *
+     * If the chunk fails part way (e.g. the client disconnects), the file is cut back to position
+     * so the chunk can be retried at the same offset. The digest has then seen part of the chunk,
+     * so callers pass a copy and keep it only when this method returns normally.
+     *
+     * @return number of bytes appended
+     * @throws IllegalStateException if the file could not be cut back; the upload must be discarded
+     */
+    public long appendChunk(Path stagingFile, long position, InputStream in, MessageDigest digest, long maxBytes) throws IOException {
+        long written = 0;
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+        try (ReadableByteChannel source = Channels.newChannel(in);
+             FileChannel target = FileChannel.open(stagingFile, StandardOpenOption.WRITE)) {
+            if (target.size() < position) {
+                throw new IllegalStateException("Staging file is shorter than the received bytes");
+            }
+            target.truncate(position);
+            target.position(position);
+
+            try {
+                while (source.read(buffer) != -1) {
+                    buffer.flip();
+                    written += buffer.remaining();
+                    if (written > maxBytes) {
+                        throw new IllegalArgumentException("Attachment exceeds the maximum allowed size of " + maxBytes + " bytes");
+                    }
+
+                    digest.update(buffer.duplicate());
+                    while (buffer.hasRemaining()) {
+                        target.write(buffer);
+                    }
+                    buffer.clear();
+                }
+                target.force(false);
+            } catch (IOException | RuntimeException e) {
+                try {
+                    target.truncate(position);
+                } catch (IOException truncateFailure) {
+                    IllegalStateException failure = new IllegalStateException("Could not cut off a partial chunk", truncateFailure);
+                    failure.addSuppressed(e);
+                    throw failure;
+                }
+                throw e;
+            }
+        }
+
+        return written;
+    }
+
+    /**
+     * Move a completed staging file into the object store.
+     * If an object with the same hash already exists the staging file is discarded instead.
+     *
+     * @return true if a new object was stored, false if it was deduplicated
+     */
+    public boolean commit(Path stagingFile, String contentHash) throws IOException {
+        Path target = objectPath(contentHash);
+        if (Files.exists(target)) {
+            Files.deleteIfExists(stagingFile);
+            return false;
+        }
+
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(stagingFile, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(stagingFile, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return true;
+    }
+
+    public void discard(Path stagingFile) {
+        try {
+            Files.deleteIfExists(stagingFile);
+        } catch (IOException e) {
+            log.warn("Could not delete staging file {}: {}", stagingFile, e.getMessage());
+        }
+    }
+
+    public boolean exists(String contentHash) {
+        return Files.exists(objectPath(contentHash));
+    }
+
+    /**
+     * Copy a byte range of a stored object to the given channel.
+     * Uses FileChannel.transferTo, which lets the kernel move the bytes without
+     * copying them through the JVM heap when the target supports it.
+     */
+    public void transferTo(String contentHash, long position, long count, WritableByteChannel target) throws IOException {
+        try (FileChannel source = FileChannel.open(objectPath(contentHash), StandardOpenOption.READ)) {
+            long sent = 0;
+            while (sent < count) {
+                long transferred = source.transferTo(position + sent, count - sent, target);
+                if (transferred <= 0) {
+                    break;
+                }
+                sent += transferred;
+            }
+        }
+    }
+
+    private Path objectPath(String contentHash) {
+        if (!contentHash.matches("[0-9a-f]{64}")) {
+            throw new IllegalArgumentException("Invalid content hash");
+        }
+        return objectsDir
+                .resolve(contentHash.substring(0, 2))
+                .resolve(contentHash.substring(2, 4))
+                .resolve(contentHash);
+    }
+}
@@ -0,0 +1,133 @@
+package org.devconnect.devconnectbackend.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.devconnect.devconnectbackend.dto.BootstrapDTO;
+import org.devconnect.devconnectbackend.dto.ProjectResponseDTO;
+import org.devconnect.devconnectbackend.dto.UserResponseDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Everything a client loads right after login, in one call: profile, the first page of the
+ * inbox with unread totals, contact presence and active projects.
+ *
+ * The parts are independent queries and run concurrently on virtual threads. Each gets the
+ * same time budget from the start of the request; a part that fails or misses it is left out
+ * and listed in degraded, so the client can load it separately. Only a failing profile fails
+ * the whole request, since the user most likely does not exist.
+ *
+ * Parts still running when the request returns are cancelled. Interrupting a virtual thread
+ * blocked on a socket closes the socket, so a slow query is aborted and its connection is
+ * released instead of being held by a result nobody reads.
+ */
+@Slf4j
+@Service
+public class BootstrapService {
+
+    private final UserService userService;
+    private final ConversationService conversationService;
+    private final ProjectService projectService;
+    private final long partTimeoutMs;
+    private final int inboxSize;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public BootstrapService(
+            UserService userService,
+            ConversationService conversationService,
+            ProjectService projectService,
+            @Value("${bootstrap.part-timeout-ms:1500}") long partTimeoutMs,
+            @Value("${bootstrap.inbox-size:20}") int inboxSize) {
+        this.userService = userService;
+        this.conversationService = conversationService;
+        this.projectService = projectService;
+        this.partTimeoutMs = partTimeoutMs;
+        this.inboxSize = inboxSize;
+    }
+
+    public BootstrapDTO bootstrap(Integer userId) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(partTimeoutMs);
+        Future<UserResponseDTO> profile = start(() -> userService.getUserById(userId));
+        Future<ConversationService.Inbox> inbox = start(() -> conversationService.getInbox(userId, inboxSize));
+        Future<Map<Long, String>> presence = start(() -> conversationService.getContactStatuses(userId));
+        Future<List<ProjectResponseDTO>> projects = start(() -> projectService.getActiveProjectsForUser(userId.longValue()));
+
+        try {
+            return collect(userId, deadline, profile, inbox, presence, projects);
+        } finally {
+            // No-op for parts that are done
+            for (Future<?> part : List.of(profile, inbox, presence, projects)) {
+                part.cancel(true);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private BootstrapDTO collect(Integer userId, long deadline, Future<UserResponseDTO> profile, Future<ConversationService.Inbox> inbox,
+                                 Future<Map<Long, String>> presence, Future<List<ProjectResponseDTO>> projects) {
+        BootstrapDTO result = new BootstrapDTO();
+        try {
+            result.setProfile(profile.get(remaining(deadline), TimeUnit.NANOSECONDS));
+        } catch (TimeoutException e) {
+            degrade(result, "profile", userId, e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : new RuntimeException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            degrade(result, "profile", userId, e);
+        }
+
+        ConversationService.Inbox firstPage = await(inbox, deadline, result, "inbox", userId);
+        if (firstPage != null) {
+            result.setInbox(firstPage.chats());
+            result.setMoreChats(firstPage.moreChats());
+            result.setUnreadMessages(firstPage.unreadMessages());
+            result.setUnreadConversations(firstPage.unreadConversations());
+        }
+
+        result.setPresence(await(presence, deadline, result, "presence", userId));
+        result.setActiveProjects(await(projects, deadline, result, "activeProjects", userId));
+        return result;
+    }
+
+    private <T> Future<T> start(Callable<T> part) {
+        return executor.submit(part);
+    }
+
+    private <T> T await(Future<T> part, long deadline, BootstrapDTO result, String name, Integer userId) {
+        try {
+            return part.get(remaining(deadline), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            degrade(result, name, userId, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            degrade(result, name, userId, e);
+        }
+        return null;
+    }
+
+    private void degrade(BootstrapDTO result, String name, Integer userId, Exception e) {
+        log.warn("Bootstrap part {} for user {} degraded: {}", name, userId,
+                e instanceof TimeoutException ? "timed out after " + partTimeoutMs + " ms"
+                        : String.valueOf(e.getCause() != null ? e.getCause() : e));
+        result.getDegraded().add(name);
+    }
+
+    private static long remaining(long deadline) {
+        return Math.max(0, deadline - System.nanoTime());
+    }
+}
@@ -0,0 +1,190 @@
+package org.devconnect.devconnectbackend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.devconnect.devconnectbackend.listener.ConversationCreatedEvent;
+import org.devconnect.devconnectbackend.listener.InvalidationEvent;
+import org.devconnect.devconnectbackend.model.Developer;
+import org.devconnect.devconnectbackend.model.Project;
+import org.devconnect.devconnectbackend.model.User;
+import org.devconnect.devconnectbackend.utills.InvalidationCodec;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the in-memory caches of all instances in step: the second-level cache of users,
+ * developers and projects, ResourceVersionService versions (and with them ETags and
+ * JsonResponseCache entries) and contact autocomplete indexes.
+ *
+ * Committed local changes are queued as (type, id) events, deduplicated, and sent every
+ * invalidation.flush-interval-ms as batches numbered with this instance's sequence. Peers apply
+ * them; when a peer sees a sequence gap, or the bus reports lost messages, it drops everything.
+ * Metrics: cache_invalidation.events (direction=sent|received), cache_invalidation.lag (send to
+ * apply, across clocks), cache_invalidation.resyncs.
+ */
+@Slf4j
+@Service
+public class CacheInvalidationService {
+
+    // PostgreSQL NOTIFY payloads must stay below 8000 bytes
+    private static final int MAX_PAYLOAD_BYTES = 7900;
+
+    private final InvalidationBus bus;
+    private final ResourceVersionService resourceVersions;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ContactAutocompleteService contactAutocompleteService;
+
+    private final String origin = UUID.randomUUID().toString();
+    private final Queue<InvalidationEvent> pending = new ConcurrentLinkedQueue<>();
+    // Guarded by this
+    private long sequence;
+    private final Map<String, Long> lastVersions = new ConcurrentHashMap<>();
+
+    private final Counter sent;
+    private final Counter received;
+    private final Counter resyncs;
+    private final Timer lag;
+
+    public CacheInvalidationService(
+            InvalidationBus bus,
+            ResourceVersionService resourceVersions,
+            EntityManagerFactory entityManagerFactory,
+            ContactAutocompleteService contactAutocompleteService,
+            MeterRegistry meterRegistry) {
+        this.bus = bus;
+        this.resourceVersions = resourceVersions;
+        this.entityManagerFactory = entityManagerFactory;
+        this.contactAutocompleteService = contactAutocompleteService;
+        this.sent = meterRegistry.counter("cache_invalidation.events", "direction", "sent");
+        this.received = meterRegistry.counter("cache_invalidation.events", "direction", "received");
+        this.resyncs = meterRegistry.counter("cache_invalidation.resyncs");
+        this.lag = meterRegistry.timer("cache_invalidation.lag");
+        meterRegistry.gaugeCollectionSize("cache_invalidation.pending", Tags.empty(), pending);
+    }
+
+    @PostConstruct
+    public void start() {
+        bus.subscribe(this::receive, this::resync);
+        resourceVersions.addListener(keys -> keys.forEach(key -> publish(InvalidationEvent.Type.RESOURCE, key)));
+    }
+
+    /**
+     * A cached entity was updated or deleted; called after commit
+     */
+    public void entityChanged(Class<?> entityClass, Object id) {
+        if (entityClass == User.class) {
+            publish(InvalidationEvent.Type.USER, id);
+        } else if (entityClass == Developer.class) {
+            publish(InvalidationEvent.Type.DEVELOPER, id);
+        } else if (entityClass == Project.class) {
+            publish(InvalidationEvent.Type.PROJECT, id);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onConversationCreated(ConversationCreatedEvent event) {
+        publish(InvalidationEvent.Type.CONTACTS, event.user1Id());
+        publish(InvalidationEvent.Type.CONTACTS, event.user2Id());
+    }
+
+    /**
+     * Send the queued events. Numbered here rather than when queued, so peers see them in order.
+     */
+    @Scheduled(fixedDelayString = "${invalidation.flush-interval-ms:50}")
+    public synchronized void flush() {
+        Set<InvalidationEvent> unique = new LinkedHashSet<>();
+        InvalidationEvent event;
+        while ((event = pending.poll()) != null) {
+            unique.add(event);
+        }
+        if (unique.isEmpty()) {
+            return;
+        }
+
+        List<InvalidationEvent> events = new ArrayList<>(unique.size());
+        for (InvalidationEvent change : unique) {
+            events.add(new InvalidationEvent(change.type(), change.id(), ++sequence));
+        }
+        // A payload that fails to send leaves a gap in the sequence, which makes peers resync
+        for (String payload : InvalidationCodec.encode(origin, System.currentTimeMillis(), events, MAX_PAYLOAD_BYTES)) {
+            try {
+                bus.publish(payload);
+            } catch (RuntimeException e) {
+                log.warn("Could not publish cache invalidations: {}", e.getMessage());
+            }
+        }
+        sent.increment(events.size());
+    }
+
+    void receive(String payload) {
+        InvalidationCodec.Batch batch;
+        try {
+            batch = InvalidationCodec.decode(payload);
+        } catch (IllegalArgumentException e) {
+            log.warn("Unreadable cache invalidation payload: {}", e.getMessage());
+            resync();
+            return;
+        }
+        if (batch.origin().equals(origin) || batch.events().isEmpty()) {
+            return;
+        }
+
+        lag.record(Math.max(0, System.currentTimeMillis() - batch.sentAtMillis()), TimeUnit.MILLISECONDS);
+        received.increment(batch.events().size());
+
+        Long last = lastVersions.get(batch.origin());
+        lastVersions.put(batch.origin(), batch.events().getLast().version());
+        if (last != null && batch.events().getFirst().version() != last + 1) {
+            log.warn("Missed cache invalidations from {} ({} to {})", batch.origin(), last, batch.events().getFirst().version());
+            resync();
+            return;
+        }
+        for (InvalidationEvent event : batch.events()) {
+            apply(event);
+        }
+    }
+
+    /**
+     * Drop everything that may have been changed by another instance
+     */
+    void resync() {
+        resyncs.increment();
+        entityManagerFactory.getCache().evictAll();
+        resourceVersions.refreshAll();
+        contactAutocompleteService.evictAll();
+    }
+
+    private void publish(InvalidationEvent.Type type, Object id) {
+        pending.add(new InvalidationEvent(type, String.valueOf(id), 0));
+    }
+
+    private void apply(InvalidationEvent event) {
+        Cache cache = entityManagerFactory.getCache();
+        switch (event.type()) {
+            case USER -> cache.evict(User.class, Integer.valueOf(event.id()));
+            case DEVELOPER -> cache.evict(Developer.class, Integer.valueOf(event.id()));
+            case PROJECT -> cache.evict(Project.class, Long.valueOf(event.id()));
+            case CONTACTS -> contactAutocompleteService.evict(Integer.valueOf(event.id()));
+            case RESOURCE -> resourceVersions.refresh(List.of(event.id()));
+            case ALL -> resync();
+        }
+    }
+}
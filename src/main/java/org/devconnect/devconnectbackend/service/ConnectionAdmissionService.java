@@ -0,0 +1,109 @@
+package org.devconnect.devconnectbackend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control for new WebSocket connections.
+ *
+ * New STOMP CONNECTs take a token from a token bucket. A rejected client is told when to come
+ * back: each rejection gets the next free slot at the admission rate plus random jitter, so a
+ * reconnect storm after a deploy is spread out instead of hitting the server again all at once.
+ * Admitted users are remembered for a short window, so their bootstrap queries
+ * (see BootstrapPriorityFilter) go ahead of everyone else's.
+ */
+@Service
+public class ConnectionAdmissionService {
+
+    private final double connectsPerSecond;
+    private final double burst;
+    private final long maxJitterMs;
+    private final long maxRetryAfterMs;
+    private final long bootstrapWindowMs;
+
+    private double tokens;
+    private long lastRefillNanos;
+    // Time at which the next rejected client is told to come back
+    private long nextSlotNanos;
+
+    private final Map<Integer, Long> admittedAt = new ConcurrentHashMap<>();
+
+    public ConnectionAdmissionService(
+            @Value("${websocket.admission.connects-per-second:50}") double connectsPerSecond,
+            @Value("${websocket.admission.burst:200}") double burst,
+            @Value("${websocket.admission.max-jitter-ms:2000}") long maxJitterMs,
+            @Value("${websocket.admission.max-retry-after-ms:60000}") long maxRetryAfterMs,
+            @Value("${websocket.admission.bootstrap-window-seconds:60}") long bootstrapWindowSeconds) {
+        this.connectsPerSecond = connectsPerSecond;
+        this.burst = burst;
+        this.maxJitterMs = maxJitterMs;
+        this.maxRetryAfterMs = maxRetryAfterMs;
+        this.bootstrapWindowMs = TimeUnit.SECONDS.toMillis(bootstrapWindowSeconds);
+        this.tokens = burst;
+        this.lastRefillNanos = System.nanoTime();
+        this.nextSlotNanos = lastRefillNanos;
+    }
+
+    /**
+     * Try to admit a new connection. Callers then record the admitted user with recordAdmission.
+     *
+     * @return 0 if admitted, otherwise the suggested delay before reconnecting in milliseconds
+     */
+    public long tryAdmit() {
+        long now = System.nanoTime();
+        long waitNanos;
+        synchronized (this) {
+            tokens = Math.min(burst, tokens + (now - lastRefillNanos) / 1e9 * connectsPerSecond);
+            lastRefillNanos = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            long slot = Math.max(nextSlotNanos, now + (long) ((1 - tokens) / connectsPerSecond * 1e9));
+            nextSlotNanos = slot + (long) (1e9 / connectsPerSecond);
+            waitNanos = slot - now;
+        }
+
+        long jitter = ThreadLocalRandom.current().nextLong(maxJitterMs + 1);
+        long retryAfter = TimeUnit.NANOSECONDS.toMillis(waitNanos) + jitter;
+        if (retryAfter > maxRetryAfterMs) {
+            // The queue is longer than we want clients to wait; spread them over the whole range
+            retryAfter = ThreadLocalRandom.current().nextLong(maxRetryAfterMs / 2, maxRetryAfterMs + 1);
+        }
+        return retryAfter;
+    }
+
+    /**
+     * Remember an admitted connection's user, giving their bootstrap queries priority
+     *
+     * @param userId the connecting user's id, or null if unknown
+     */
+    public void recordAdmission(Integer userId) {
+        if (userId != null) {
+            admittedAt.put(userId, System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Whether the user's connection was admitted within the bootstrap window
+     */
+    public boolean isRecentlyAdmitted(Integer userId) {
+        if (userId == null) {
+            return false;
+        }
+        Long admitted = admittedAt.get(userId);
+        return admitted != null && System.currentTimeMillis() - admitted < bootstrapWindowMs;
+    }
+
+    @Scheduled(fixedDelay = 60000)
+    public void forgetExpiredAdmissions() {
+        long cutoff = System.currentTimeMillis() - bootstrapWindowMs;
+        admittedAt.values().removeIf(admitted -> admitted < cutoff);
+    }
+}
@@ -0,0 +1,223 @@
+package org.devconnect.devconnectbackend.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.devconnect.devconnectbackend.dto.UserResponseDTO;
+import org.devconnect.devconnectbackend.listener.ConversationCreatedEvent;
+import org.devconnect.devconnectbackend.model.Conversation;
+import org.devconnect.devconnectbackend.model.User;
+import org.devconnect.devconnectbackend.repository.UserRepository;
+import org.devconnect.devconnectbackend.utills.UserMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Autocomplete over the people a user already has conversations with, for the "new chat" picker.
+ *
+ * Each user's contacts are indexed in memory as a sorted array of name tokens (first name,
+ * last name, full name and username), so a prefix lookup is a binary search. Indexes are built
+ * on first use, kept for the most recently active users only, and extended when a conversation
+ * is created. Global search is only used to fill up the result when contacts do not.
+ */
+@Service
+@RequiredArgsConstructor
+public class ContactAutocompleteService {
+
+    private final ConversationService conversationService;
+    private final UserRepository userRepository;
+    private final UserMapper userMapper;
+    private final UserService userService;
+
+    @Value("${autocomplete.max-indexed-users:10000}")
+    private int maxIndexedUsers;
+
+    // Rebuilt after this long, so renamed contacts show up with their new name
+    @Value("${autocomplete.index-ttl-minutes:30}")
+    private long indexTtlMinutes;
+
+    private Map<Integer, ContactIndex> indexes;
+
+    @PostConstruct
+    public void init() {
+        int maxEntries = maxIndexedUsers;
+        indexes = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, ContactIndex> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    /**
+     * Contacts whose name or username starts with the query, then (if fallback is set and
+     * there is room left) other users from the global search
+     */
+    public List<UserResponseDTO> autocomplete(Integer userId, String query, int limit, boolean fallback) {
+        String prefix = normalize(query);
+        if (prefix.isEmpty()) {
+            return List.of();
+        }
+
+        List<UserResponseDTO> results = new ArrayList<>(getIndex(userId).search(prefix, limit));
+        if (fallback && results.size() < limit) {
+            Set<Integer> seen = new HashSet<>();
+            seen.add(userId);
+            results.forEach(contact -> seen.add(contact.getUserId()));
+
+            for (UserResponseDTO user : userService.searchUsers(query, null, limit + seen.size(), null).getUsers()) {
+                if (results.size() >= limit) {
+                    break;
+                }
+                if (seen.add(user.getUserId())) {
+                    results.add(user);
+                }
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Add the new conversation partner to both users' indexes, if they are loaded
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onConversationCreated(ConversationCreatedEvent event) {
+        ContactIndex index1 = indexes.get(event.user1Id());
+        ContactIndex index2 = indexes.get(event.user2Id());
+        if (index1 == null && index2 == null) {
+            return;
+        }
+
+        Map<Integer, User> users = new HashMap<>();
+        for (User user : userRepository.findAllById(List.of(event.user1Id(), event.user2Id()))) {
+            users.put(user.getUserId(), user);
+        }
+        if (index1 != null && users.containsKey(event.user2Id())) {
+            indexes.put(event.user1Id(), index1.with(List.of(users.get(event.user2Id())), userMapper));
+        }
+        if (index2 != null && users.containsKey(event.user1Id())) {
+            indexes.put(event.user2Id(), index2.with(List.of(users.get(event.user1Id())), userMapper));
+        }
+    }
+
+    /**
+     * Drop a user's index, e.g. after their contacts changed on another instance
+     */
+    public void evict(Integer userId) {
+        indexes.remove(userId);
+    }
+
+    public void evictAll() {
+        indexes.clear();
+    }
+
+    private ContactIndex getIndex(Integer userId) {
+        ContactIndex index = indexes.get(userId);
+        if (index != null && System.nanoTime() - index.builtAt() < TimeUnit.MINUTES.toNanos(indexTtlMinutes)) {
+            return index;
+        }
+
+        // Conversations only carry user ids when sharded, so the partners are loaded in one query
+        List<Integer> contactIds = new ArrayList<>();
+        for (Conversation conversation : conversationService.getConversationEntitiesForUser(userId)) {
+            Integer user1Id = conversation.getUser1().getUserId();
+            contactIds.add(user1Id.equals(userId) ? conversation.getUser2().getUserId() : user1Id);
+        }
+        index = ContactIndex.of(userRepository.findAllById(contactIds), userMapper);
+        indexes.put(userId, index);
+        return index;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+    }
+
+    /**
+     * Immutable contact index: tokens sorted for prefix search, each pointing at its contact.
+     * Updates create a new index, so lookups never lock.
+     */
+    private record ContactIndex(String[] tokens, int[] owners, Map<Integer, UserResponseDTO> contacts, long builtAt) {
+
+        static ContactIndex of(List<User> users, UserMapper userMapper) {
+            return new ContactIndex(new String[0], new int[0], Map.of(), System.nanoTime()).with(users, userMapper);
+        }
+
+        ContactIndex with(List<User> users, UserMapper userMapper) {
+            Map<Integer, UserResponseDTO> byId = new HashMap<>(contacts);
+            List<Map.Entry<String, Integer>> entries = new ArrayList<>();
+            for (int i = 0; i < tokens.length; i++) {
+                if (!containsUser(users, owners[i])) {
+                    entries.add(Map.entry(tokens[i], owners[i]));
+                }
+            }
+
+            for (User user : users) {
+                byId.put(user.getUserId(), userMapper.toUserResponseDTO(user));
+                String firstName = normalize(user.getFirstName());
+                String lastName = normalize(user.getLastName());
+                for (String token : new LinkedHashSet<>(Arrays.asList(
+                        firstName, lastName, normalize(firstName + " " + lastName), normalize(user.getUsername())))) {
+                    if (!token.isEmpty()) {
+                        entries.add(Map.entry(token, user.getUserId()));
+                    }
+                }
+            }
+            entries.sort(Map.Entry.comparingByKey());
+
+            String[] newTokens = new String[entries.size()];
+            int[] newOwners = new int[entries.size()];
+            for (int i = 0; i < entries.size(); i++) {
+                newTokens[i] = entries.get(i).getKey();
+                newOwners[i] = entries.get(i).getValue();
+            }
+            return new ContactIndex(newTokens, newOwners, byId, builtAt);
+        }
+
+        private static boolean containsUser(List<User> users, int userId) {
+            for (User user : users) {
+                if (user.getUserId() == userId) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        List<UserResponseDTO> search(String prefix, int limit) {
+            // First token >= prefix; all tokens starting with the prefix follow it
+            int from = 0;
+            int to = tokens.length;
+            while (from < to) {
+                int middle = (from + to) >>> 1;
+                if (tokens[middle].compareTo(prefix) < 0) {
+                    from = middle + 1;
+                } else {
+                    to = middle;
+                }
+            }
+
+            Set<Integer> matched = new LinkedHashSet<>();
+            for (int i = from; i < tokens.length && tokens[i].startsWith(prefix) && matched.size() < limit; i++) {
+                matched.add(owners[i]);
+            }
+
+            List<UserResponseDTO> results = new ArrayList<>();
+            for (Integer id : matched) {
+                results.add(contacts.get(id));
+            }
+            return results;
+        }
+    }
+}
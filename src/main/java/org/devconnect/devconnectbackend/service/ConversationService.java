@@ -1,18 +1,32 @@
 package org.devconnect.devconnectbackend.service;
 
+import org.devconnect.devconnectbackend.config.ReplicaRoutingDataSource;
 import org.devconnect.devconnectbackend.dto.ChatDTO;
+import org.devconnect.devconnectbackend.dto.ConversationRowDTO;
+import org.devconnect.devconnectbackend.dto.UserResponseDTO;
+import org.devconnect.devconnectbackend.exception.UserNotFoundException;
+import org.devconnect.devconnectbackend.listener.ConversationCreatedEvent;
 import org.devconnect.devconnectbackend.model.Conversation;
 import org.devconnect.devconnectbackend.model.Message;
 import org.devconnect.devconnectbackend.model.User;
 import org.devconnect.devconnectbackend.repository.ConversationRepository;
+import org.devconnect.devconnectbackend.repository.MessageArchiveSegmentRepository;
 import org.devconnect.devconnectbackend.repository.MessageRepository;
+import org.devconnect.devconnectbackend.repository.ShardedMessageStore;
 import org.devconnect.devconnectbackend.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class ConversationService {
@@ -26,72 +40,276 @@ public class ConversationService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private MessageArchiveSegmentRepository archiveSegmentRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ResourceVersionService resourceVersions;
+
+    // Only present when messages.sharding.enabled=true; conversations then live on the shards
+    @Autowired(required = false)
+    private ShardedMessageStore shardedStore;
+
     /**
      * Get or create a conversation between two users
      */
     @Transactional
     public Conversation getOrCreateConversation(Integer userId1, Integer userId2) {
+        if (shardedStore != null) {
+            return shardedStore.findConversationByUsers(userId1, userId2)
+                    .orElseGet(() -> {
+                        if (!userRepository.existsById(userId1)) {
+                            throw new UserNotFoundException("User1 not found");
+                        }
+                        if (!userRepository.existsById(userId2)) {
+                            throw new UserNotFoundException("User2 not found");
+                        }
+                        return published(shardedStore.createConversation(userId1, userId2));
+                    });
+        }
+
         return conversationRepository.findByUsers(userId1, userId2)
                 .orElseGet(() -> {
                     User user1 = userRepository.findById(userId1)
-                            .orElseThrow(() -> new RuntimeException("User1 not found"));
+                            .orElseThrow(() -> new UserNotFoundException("User1 not found"));
                     User user2 = userRepository.findById(userId2)
-                            .orElseThrow(() -> new RuntimeException("User2 not found"));
+                            .orElseThrow(() -> new UserNotFoundException("User2 not found"));
 
                     Conversation conversation = new Conversation();
                     conversation.setUser1(user1);
                     conversation.setUser2(user2);
-                    return conversationRepository.save(conversation);
+                    return published(conversationRepository.save(conversation));
                 });
     }
 
     /**
-     * Get all conversations for a user as ChatDTOs
+     * Get or create the conversations between one user and many others.
+     * Existing conversations are found with one query and missing ones are inserted together.
+     *
+     * @return conversations keyed by the other user's id
      */
+    @Transactional
+    public Map<Integer, Conversation> getOrCreateConversations(User user, Collection<User> otherUsers) {
+        Map<Integer, Conversation> conversations = new HashMap<>();
+        if (shardedStore != null) {
+            for (User otherUser : otherUsers) {
+                conversations.put(otherUser.getUserId(), getOrCreateConversation(user.getUserId(), otherUser.getUserId()));
+            }
+            return conversations;
+        }
+
+        List<Integer> otherUserIds = otherUsers.stream().map(User::getUserId).toList();
+        for (Conversation conversation : conversationRepository.findByUserAndOtherUsers(user.getUserId(), otherUserIds)) {
+            conversations.put(getOtherUserId(conversation, user.getUserId()), conversation);
+        }
+
+        List<Conversation> missing = new ArrayList<>();
+        for (User otherUser : otherUsers) {
+            if (!conversations.containsKey(otherUser.getUserId())) {
+                Conversation conversation = new Conversation();
+                conversation.setUser1(user);
+                conversation.setUser2(otherUser);
+                missing.add(conversation);
+            }
+        }
+        for (Conversation conversation : conversationRepository.saveAll(missing)) {
+            conversations.put(conversation.getUser2().getUserId(), published(conversation));
+        }
+
+        return conversations;
+    }
+
+    private Conversation published(Conversation conversation) {
+        resourceVersions.bump(ResourceVersionService.inbox(conversation.getUser1().getUserId()),
+                ResourceVersionService.inbox(conversation.getUser2().getUserId()));
+        eventPublisher.publishEvent(new ConversationCreatedEvent(conversation.getConversationId(),
+                conversation.getUser1().getUserId(), conversation.getUser2().getUserId()));
+        return conversation;
+    }
+
+    /**
+     * First page of a user's chat list and the unread totals over all their conversations
+     */
+    public record Inbox(List<ChatDTO> chats, boolean moreChats, int unreadMessages, int unreadConversations) {
+    }
+
+    /**
+     * Get all conversations for a user as ChatDTOs.
+     * The other participants are read as DTO projections, which never touch the second-level
+     * cache, so this can run on a replica.
+     */
+    @Transactional(readOnly = true)
     public List<ChatDTO> getConversationsForUser(Integer userId) {
-        List<Conversation> conversations = conversationRepository.findAllByUser(userId);
+        return shardedStore != null
+                ? getConversationsForUserSharded(userId)
+                : toChatDTOs(conversationRepository.findRowsByUser(userId), userId);
+    }
+
+    /**
+     * Get the size most recently active conversations of a user, newest first, with unread totals.
+     * The database sorts, limits and counts, so only the page is built.
+     */
+    @Transactional(readOnly = true)
+    public Inbox getInbox(Integer userId, int size) {
+        if (shardedStore != null) {
+            // The shards return every conversation with its summary already counted
+            List<ChatDTO> chats = getConversationsForUserSharded(userId).stream()
+                    .sorted(Comparator.comparing(ChatDTO::getLastMessageTime,
+                            Comparator.nullsLast(Comparator.<LocalDateTime>reverseOrder())))
+                    .toList();
+            return new Inbox(chats.subList(0, Math.min(size, chats.size())), chats.size() > size,
+                    chats.stream().mapToInt(ChatDTO::getUnreadCount).sum(),
+                    (int) chats.stream().filter(chat -> chat.getUnreadCount() > 0).count());
+        }
+
+        // One row more than asked for tells whether there is a next page
+        List<ConversationRowDTO> rows = conversationRepository.findRowsByUserOrderByActivity(userId, PageRequest.of(0, size + 1));
+        boolean moreChats = rows.size() > size;
+        List<ChatDTO> chats = toChatDTOs(moreChats ? rows.subList(0, size) : rows, userId);
+
+        Object[] totals = messageRepository.countUnreadTotals(userId).get(0);
+        return new Inbox(chats, moreChats, ((Number) totals[0]).intValue(), ((Number) totals[1]).intValue());
+    }
+
+    /**
+     * Build the ChatDTOs of the given conversations, in the same order.
+     * Users, last messages, archive previews and unread counts are each read in one query for all of them.
+     */
+    private List<ChatDTO> toChatDTOs(List<ConversationRowDTO> conversations, Integer userId) {
         List<ChatDTO> chatDTOs = new ArrayList<>();
+        if (conversations.isEmpty()) {
+            return chatDTOs;
+        }
+
+        List<Integer> conversationIds = conversations.stream().map(ConversationRowDTO::getConversationId).toList();
+        Map<Integer, UserResponseDTO> users = findUsers(conversations.stream().map(ConversationRowDTO::getOtherUserId).toList());
 
-        for (Conversation conversation : conversations) {
-            // Determine the other user
-            User otherUser = conversation.getUser1().getUserId().equals(userId)
-                    ? conversation.getUser2()
-                    : conversation.getUser1();
+        // Bound on created_at so only the relevant message partitions are scanned; the oldest conversation sets it
+        LocalDateTime since = conversations.stream()
+                .map(conversation -> MessageRepository.partitionLowerBound(conversation.getCreatedAt()))
+                .min(Comparator.naturalOrder())
+                .orElseThrow();
 
-            // Get last message for preview
-            Message lastMessage = messageRepository.findLastMessage(conversation.getConversationId());
-            String lastMessagePreview = lastMessage != null ? lastMessage.getContent() : null;
+        // Last message for the preview; on ties the newest id wins, as rows come in id order
+        Map<Integer, Object[]> lastMessages = new HashMap<>();
+        for (Object[] row : messageRepository.findLastMessages(conversationIds, since)) {
+            lastMessages.put((Integer) row[0], row);
+        }
+
+        // Fully archived conversations keep their preview in the newest archive segment
+        List<Integer> archivedIds = conversationIds.stream().filter(id -> !lastMessages.containsKey(id)).toList();
+        if (!archivedIds.isEmpty()) {
+            for (Object[] row : archiveSegmentRepository.findLastPreviews(archivedIds)) {
+                lastMessages.put((Integer) row[0], row);
+            }
+        }
+
+        // Unread messages sent to this user; conversations without any have no row
+        Map<Integer, Integer> unreadCounts = new HashMap<>();
+        for (Object[] row : messageRepository.countUnreadMessages(conversationIds, userId, since)) {
+            unreadCounts.put((Integer) row[0], ((Number) row[1]).intValue());
+        }
+
+        for (ConversationRowDTO conversation : conversations) {
+            UserResponseDTO otherUser = users.get(conversation.getOtherUserId());
+            if (otherUser == null) {
+                continue; // User was deleted
+            }
 
-            // Count unread messages for this user
-            Integer unreadCount = messageRepository.findUnreadMessages(
+            Object[] lastMessage = lastMessages.get(conversation.getConversationId());
+            chatDTOs.add(toChatDTO(
                     conversation.getConversationId(),
-                    userId
-            ).size();
-
-            String userName = otherUser.getFirstName() + " " + otherUser.getLastName();
-            ChatDTO chatDTO = new ChatDTO(
-                    conversation.getConversationId().longValue(),
-                    otherUser.getUserId().longValue(),
-                    userName,
-                    null, // User model doesn't have avatar field
-                    otherUser.getUserRole().name().toLowerCase(),
-                    otherUser.getUserStatus().name().toLowerCase(),
-                    lastMessagePreview,
-                    lastMessage != null ? lastMessage.getCreatedAt() : conversation.getCreatedAt(),
-                    unreadCount,
-                    null // No projectId in new model
-            );
-            chatDTOs.add(chatDTO);
+                    otherUser,
+                    lastMessage != null ? (String) lastMessage[1] : null,
+                    lastMessage != null ? (LocalDateTime) lastMessage[2] : conversation.getCreatedAt(),
+                    unreadCounts.getOrDefault(conversation.getConversationId(), 0)
+            ));
         }
 
         return chatDTOs;
     }
 
+    /**
+     * Get all conversation entities for a user (from the primary, as their users are loaded too)
+     */
+    @Transactional(readOnly = true)
+    public List<Conversation> getConversationEntitiesForUser(Integer userId) {
+        if (shardedStore != null) {
+            return shardedStore.findChatSummaries(userId).stream()
+                    .map(ShardedMessageStore.ChatSummary::conversation)
+                    .toList();
+        }
+        return ReplicaRoutingDataSource.onPrimary(() -> conversationRepository.findAllByUser(userId));
+    }
+
+    /**
+     * Online status of everyone the user has a conversation with, keyed by user id
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, String> getContactStatuses(Integer userId) {
+        Map<Long, String> statuses = new HashMap<>();
+        List<Integer> contactIds = getContactIds(userId);
+        for (User user : ReplicaRoutingDataSource.onPrimary(() -> userRepository.findAllById(contactIds))) {
+            statuses.put(user.getUserId().longValue(), user.getUserStatus().name().toLowerCase());
+        }
+        return statuses;
+    }
+
+    /**
+     * Ids of everyone the user has a conversation with
+     */
+    @Transactional(readOnly = true)
+    public List<Integer> getContactIds(Integer userId) {
+        List<Integer> contactIds = new ArrayList<>();
+        for (Conversation conversation : getConversationEntitiesForUser(userId)) {
+            contactIds.add(getOtherUserId(conversation, userId));
+        }
+        return contactIds;
+    }
+
+    /**
+     * Get all conversations for a user from the shards.
+     * The other participants are read from the users table in one query.
+     */
+    private List<ChatDTO> getConversationsForUserSharded(Integer userId) {
+        List<ShardedMessageStore.ChatSummary> summaries = shardedStore.findChatSummaries(userId);
+
+        List<Integer> otherUserIds = new ArrayList<>();
+        for (ShardedMessageStore.ChatSummary summary : summaries) {
+            otherUserIds.add(getOtherUserId(summary.conversation(), userId));
+        }
+        Map<Integer, UserResponseDTO> users = findUsers(otherUserIds);
+
+        List<ChatDTO> chatDTOs = new ArrayList<>();
+        for (ShardedMessageStore.ChatSummary summary : summaries) {
+            UserResponseDTO otherUser = users.get(getOtherUserId(summary.conversation(), userId));
+            if (otherUser == null) {
+                continue; // User was deleted
+            }
+
+            Message lastMessage = summary.lastMessage();
+            chatDTOs.add(toChatDTO(
+                    summary.conversation().getConversationId(),
+                    otherUser,
+                    lastMessage != null ? lastMessage.getContent() : null,
+                    lastMessage != null ? lastMessage.getCreatedAt() : summary.conversation().getCreatedAt(),
+                    summary.unreadCount()
+            ));
+        }
+        return chatDTOs;
+    }
+
     /**
      * Get a conversation by ID (with permission check)
      */
+    @Transactional(readOnly = true)
     public Conversation getConversation(Integer conversationId, Integer userId) {
-        Conversation conversation = conversationRepository.findById(conversationId)
+        Conversation conversation = (shardedStore != null
+                ? shardedStore.findConversation(conversationId)
+                : conversationRepository.findById(conversationId))
                 .orElseThrow(() -> new RuntimeException("Conversation not found"));
 
         // Check that the user is a participant
@@ -102,5 +320,39 @@ public class ConversationService {
 
         return conversation;
     }
-}
 
+    private Integer getOtherUserId(Conversation conversation, Integer userId) {
+        return conversation.getUser1().getUserId().equals(userId)
+                ? conversation.getUser2().getUserId()
+                : conversation.getUser1().getUserId();
+    }
+
+    // Users as DTOs keyed by id, read in one query
+    private Map<Integer, UserResponseDTO> findUsers(Collection<Integer> userIds) {
+        Map<Integer, UserResponseDTO> users = new HashMap<>();
+        if (userIds.isEmpty()) {
+            return users;
+        }
+        for (UserResponseDTO user : userRepository.findDTOsByIds(userIds)) {
+            users.put(user.getUserId(), user);
+        }
+        return users;
+    }
+
+    private ChatDTO toChatDTO(Integer conversationId, UserResponseDTO otherUser, String lastMessagePreview,
+                              LocalDateTime lastMessageTime, Integer unreadCount) {
+        String userName = otherUser.getFirstName() + " " + otherUser.getLastName();
+        return new ChatDTO(
+                conversationId.longValue(),
+                otherUser.getUserId().longValue(),
+                userName,
+                null, // User model doesn't have avatar field
+                otherUser.getUserRole().name().toLowerCase(),
+                otherUser.getUserStatus().name().toLowerCase(),
+                lastMessagePreview,
+                lastMessageTime,
+                unreadCount,
+                null // No projectId in new model
+        );
+    }
+}
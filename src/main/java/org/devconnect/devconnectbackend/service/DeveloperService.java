@@ -1,15 +1,27 @@
 package org.devconnect.devconnectbackend.service;
 
 import lombok.RequiredArgsConstructor;
+import org.devconnect.devconnectbackend.config.ReplicaRoutingDataSource;
+import org.devconnect.devconnectbackend.dto.BatchResultDTO;
 import org.devconnect.devconnectbackend.dto.DeveloperResponseDTO;
+import org.devconnect.devconnectbackend.dto.PageDTO;
 import org.devconnect.devconnectbackend.model.Developer;
 import org.devconnect.devconnectbackend.model.User;
 import org.devconnect.devconnectbackend.repository.DeveloperRepository;
+import org.devconnect.devconnectbackend.repository.SparseFieldsetRepository;
 import org.devconnect.devconnectbackend.repository.UserRepository;
+import org.devconnect.devconnectbackend.utills.BatchLookup;
+import org.devconnect.devconnectbackend.utills.KeysetPagination;
+import org.devconnect.devconnectbackend.utills.SparseFieldset;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
@@ -18,65 +30,138 @@ public class DeveloperService {
 
     private final DeveloperRepository developerRepository;
     private final UserRepository userRepository;
+    private final SparseFieldsetRepository sparseFieldsetRepository;
+
+    // A developer's user never changes, so the mapping is kept once looked up
+    private final Map<Integer, Integer> userIdsByDeveloperId = new ConcurrentHashMap<>();
 
     /**
      * Get all developers with their user information
      */
+    @Transactional(readOnly = true)
     public List<DeveloperResponseDTO> getAllDevelopers() {
-        return developerRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return developerRepository.findAllDTOs();
+    }
+
+    /**
+     * One page of developers in id order
+     */
+    @Transactional(readOnly = true)
+    public PageDTO<DeveloperResponseDTO> getDevelopersPage(String cursor, int limit) {
+        List<DeveloperResponseDTO> rows = developerRepository.findDTOPage(
+                (int) KeysetPagination.afterId(cursor), KeysetPagination.firstRows(limit));
+        return KeysetPagination.toPage(rows, limit, DeveloperResponseDTO::getDeveloperId, developer -> developer);
+    }
+
+    /**
+     * One page of developers with only the selected fields; the user table is only read
+     * for user fields (email, names, status)
+     */
+    @Transactional(readOnly = true)
+    public PageDTO<Map<String, Object>> getDeveloperFieldsPage(String fields, String cursor, int limit) {
+        List<Map<String, Object>> rows = sparseFieldsetRepository.findDevelopers(
+                SparseFieldset.parse(fields, SparseFieldset.DEVELOPER_FIELDS), null,
+                KeysetPagination.afterId(cursor), KeysetPagination.firstRows(limit));
+        return KeysetPagination.toPage(rows, limit, SparseFieldset::rowId, row -> row);
+    }
+
+    /**
+     * Visit all developers in id order, one batch at a time
+     */
+    public void forEachDeveloper(Consumer<DeveloperResponseDTO> action) {
+        KeysetPagination.forEach(
+                afterId -> developerRepository.findDTOPage((int) afterId, KeysetPagination.streamBatch()),
+                DeveloperResponseDTO::getDeveloperId,
+                action);
     }
 
     /**
      * Search developers by skills (case-insensitive)
      */
+    @Transactional(readOnly = true)
     public List<DeveloperResponseDTO> searchDevelopersBySkills(String skillQuery) {
-        return developerRepository.findAll().stream()
-                .filter(dev -> dev.getSkills() != null && 
-                              dev.getSkills().toLowerCase().contains(skillQuery.toLowerCase()))
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        String escaped = skillQuery.toLowerCase().replace("!", "!!").replace("%", "!%").replace("_", "!_");
+        return developerRepository.findDTOsBySkillsLike("%" + escaped + "%");
     }
 
     /**
      * Get developers by minimum rating
      */
+    @Transactional(readOnly = true)
     public List<DeveloperResponseDTO> getDevelopersByMinRating(BigDecimal minRating) {
-        return developerRepository.findByAverageRatingGreaterThanEqual(minRating).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return developerRepository.findDTOsByMinRating(minRating);
     }
 
     /**
      * Get developers by hourly rate range
      */
+    @Transactional(readOnly = true)
     public List<DeveloperResponseDTO> getDevelopersByHourlyRateRange(BigDecimal minRate, BigDecimal maxRate) {
-        return developerRepository.findAll().stream()
-                .filter(dev -> {
-                    BigDecimal rate = dev.getHourlyRate();
-                    return rate != null && rate.compareTo(minRate) >= 0 && rate.compareTo(maxRate) <= 0;
-                })
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return developerRepository.findDTOsByHourlyRateBetween(minRate, maxRate);
     }
 
     /**
-     * Get developer by user ID
+     * Get developer by user ID.
+     * Entity lookups read the primary, so the second-level cache is never filled from a replica.
      */
+    @Transactional(readOnly = true)
     public DeveloperResponseDTO getDeveloperByUserId(Integer userId) {
-        Developer developer = developerRepository.findByUserId(userId)
-                .orElseThrow(() -> new RuntimeException("Developer not found for user ID: " + userId));
-        return convertToDTO(developer);
+        return ReplicaRoutingDataSource.onPrimary(() -> {
+            Developer developer = developerRepository.findByUserId(userId)
+                    .orElseThrow(() -> new RuntimeException("Developer not found for user ID: " + userId));
+            return convertToDTO(developer);
+        });
     }
 
     /**
-     * Get developer by ID
+     * Get developer by ID (from the primary, see getDeveloperByUserId)
      */
+    @Transactional(readOnly = true)
     public DeveloperResponseDTO getDeveloperById(Integer developerId) {
-        Developer developer = developerRepository.findById(developerId)
-                .orElseThrow(() -> new RuntimeException("Developer not found with ID: " + developerId));
-        return convertToDTO(developer);
+        return ReplicaRoutingDataSource.onPrimary(() -> {
+            Developer developer = developerRepository.findById(developerId)
+                    .orElseThrow(() -> new RuntimeException("Developer not found with ID: " + developerId));
+            return convertToDTO(developer);
+        });
+    }
+
+    /**
+     * User id of a developer, or null if the developer does not exist
+     */
+    @Transactional(readOnly = true)
+    public Integer getUserIdForDeveloper(Integer developerId) {
+        Integer userId = userIdsByDeveloperId.get(developerId);
+        if (userId == null) {
+            userId = ReplicaRoutingDataSource.onPrimary(
+                    () -> developerRepository.findById(developerId).map(Developer::getUserId).orElse(null));
+            if (userId != null) {
+                userIdsByDeveloperId.put(developerId, userId);
+            }
+        }
+        return userId;
+    }
+
+    /**
+     * Get developer by ID with only the selected fields
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getDeveloperFields(Integer developerId, String fields) {
+        List<Map<String, Object>> rows = sparseFieldsetRepository.findDevelopers(
+                SparseFieldset.parse(fields, SparseFieldset.DEVELOPER_FIELDS), developerId, 0, PageRequest.of(0, 1));
+        if (rows.isEmpty()) {
+            throw new RuntimeException("Developer not found with ID: " + developerId);
+        }
+        return rows.get(0);
+    }
+
+    /**
+     * Get several developers, in request order, joined with their users in one query;
+     * developers without a user are reported as missing.
+     */
+    @Transactional(readOnly = true)
+    public BatchResultDTO<DeveloperResponseDTO, Integer> getDevelopersByIds(List<Integer> developerIds) {
+        return BatchLookup.resolve(developerIds, ids -> developerRepository.findDTOsByIds(ids).stream()
+                .collect(Collectors.toMap(DeveloperResponseDTO::getDeveloperId, developer -> developer)));
     }
 
     /**
@@ -85,7 +170,10 @@ public class DeveloperService {
     private DeveloperResponseDTO convertToDTO(Developer developer) {
         User user = userRepository.findById(developer.getUserId())
                 .orElseThrow(() -> new RuntimeException("User not found for developer"));
+        return convertToDTO(developer, user);
+    }
 
+    private DeveloperResponseDTO convertToDTO(Developer developer, User user) {
         return DeveloperResponseDTO.builder()
                 .developerId(developer.getDeveloperId())
                 .userId(developer.getUserId())
@@ -0,0 +1,198 @@
+package org.devconnect.devconnectbackend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.devconnect.devconnectbackend.exception.IdempotencyConflictException;
+import org.devconnect.devconnectbackend.model.IdempotencyKey;
+import org.devconnect.devconnectbackend.repository.IdempotencyKeyRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Runs an operation at most once per client supplied idempotency key.
+ *
+ * The key is claimed by inserting a row into idempotency_keys before the operation runs, so
+ * concurrent retries on any node see it. The response is stored in the same transaction as
+ * the operation's own writes, and a retry gets the stored response back instead of running
+ * the operation again. Recent responses are also kept in a bounded in-memory LRU, so most
+ * retries are answered without a database round trip.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class IdempotencyService {
+
+    public static final int MAX_KEY_LENGTH = 200;
+
+    /**
+     * The response of the operation, and whether it was replayed from an earlier request
+     */
+    public record Result<T>(T response, boolean replayed) {
+    }
+
+    private record CachedResponse(String requestHash, String responseBody, LocalDateTime expiresAt) {
+    }
+
+    private final IdempotencyKeyRepository repository;
+    private final ObjectMapper objectMapper;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${idempotency.ttl-hours:24}")
+    private long ttlHours;
+
+    @Value("${idempotency.cache-size:10000}")
+    private int cacheSize;
+
+    // A key still in progress after this long is treated as abandoned (e.g. the node crashed)
+    @Value("${idempotency.in-progress-timeout-seconds:60}")
+    private long inProgressTimeoutSeconds;
+
+    private Map<String, CachedResponse> cache;
+
+    @PostConstruct
+    public void init() {
+        int maxEntries = cacheSize;
+        cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    /**
+     * Run the action once for this scope and key.
+     *
+     * @param scope        operation and owner of the key, e.g. "message-send:42"
+     * @param key          the client's idempotency key
+     * @param request      the request body, used to detect a key reused for a different request
+     * @param responseType type the stored response is read back as
+     */
+    public <T> Result<T> execute(String scope, String key, Object request, Class<T> responseType, Supplier<T> action) {
+        if (key == null || key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String storageKey = scope + ":" + key;
+        String requestHash = hash(request);
+
+        CachedResponse cached = cache.get(storageKey);
+        if (cached != null && cached.expiresAt().isAfter(LocalDateTime.now())) {
+            return new Result<>(replay(cached.requestHash(), requestHash, cached.responseBody(), responseType), true);
+        }
+
+        if (!claim(storageKey, requestHash)) {
+            IdempotencyKey existing = repository.findById(storageKey)
+                    .orElseThrow(() -> new IdempotencyConflictException("Idempotency key is being processed, retry later"));
+            if (existing.getStatus() != IdempotencyKey.Status.COMPLETED) {
+                throw new IdempotencyConflictException("A request with this idempotency key is still being processed");
+            }
+
+            cache.put(storageKey, new CachedResponse(existing.getRequestHash(), existing.getResponseBody(), existing.getExpiresAt()));
+            return new Result<>(replay(existing.getRequestHash(), requestHash, existing.getResponseBody(), responseType), true);
+        }
+
+        String[] responseBody = new String[1];
+        try {
+            T response = new TransactionTemplate(transactionManager).execute(status -> {
+                T result = action.get();
+                responseBody[0] = serialize(result);
+                repository.complete(storageKey, IdempotencyKey.Status.COMPLETED, responseBody[0]);
+                return result;
+            });
+
+            cache.put(storageKey, new CachedResponse(requestHash, responseBody[0], LocalDateTime.now().plusHours(ttlHours)));
+            return new Result<>(response, false);
+        } catch (RuntimeException e) {
+            // Nothing was saved, so let the client retry with the same key
+            release(storageKey);
+            throw e;
+        }
+    }
+
+    /**
+     * Remove expired keys
+     */
+    @Scheduled(fixedDelayString = "${idempotency.purge-interval-ms:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        int deleted = repository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            log.info("Purged {} expired idempotency keys", deleted);
+        }
+    }
+
+    private boolean claim(String storageKey, String requestHash) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        // Committed on its own, so concurrent retries see the claim while the operation runs
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            transaction.executeWithoutResult(status -> {
+                repository.deleteStale(storageKey, now, IdempotencyKey.Status.IN_PROGRESS, now.minusSeconds(inProgressTimeoutSeconds));
+                repository.claim(storageKey, requestHash, now, now.plusHours(ttlHours));
+            });
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+
+    private void release(String storageKey) {
+        try {
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            transaction.executeWithoutResult(status -> repository.release(storageKey, IdempotencyKey.Status.IN_PROGRESS));
+        } catch (RuntimeException e) {
+            // The key becomes claimable again after the in-progress timeout
+            log.warn("Could not release idempotency key {}: {}", storageKey, e.getMessage());
+        }
+    }
+
+    private <T> T replay(String storedHash, String requestHash, String responseBody, Class<T> responseType) {
+        if (!storedHash.equals(requestHash)) {
+            throw new IdempotencyConflictException("Idempotency key was already used for a different request");
+        }
+        try {
+            return objectMapper.readValue(responseBody, responseType);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not read stored response", e);
+        }
+    }
+
+    private String serialize(Object response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not store response", e);
+        }
+    }
+
+    private String hash(Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not hash request", e);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package org.devconnect.devconnectbackend.service;
+
+import java.util.function.Consumer;
+
+/**
+ * Broadcasts cache invalidation payloads (see InvalidationCodec) to all instances.
+ * Selected with invalidation.bus: local (in-JVM, the default) or postgres (LISTEN/NOTIFY).
+ */
+public interface InvalidationBus {
+
+    void publish(String payload);
+
+    /**
+     * @param receiver gets every payload, including the ones this instance published
+     * @param onGap    runs when payloads may have been lost, e.g. after a reconnect
+     */
+    void subscribe(Consumer<String> receiver, Runnable onGap);
+}
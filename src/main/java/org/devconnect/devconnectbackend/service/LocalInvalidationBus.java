@@ -0,0 +1,31 @@
+package org.devconnect.devconnectbackend.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Invalidation bus within one JVM, for a single instance and for tests. Delivers synchronously.
+ */
+@Service
+@ConditionalOnProperty(name = "invalidation.bus", havingValue = "local", matchIfMissing = true)
+public class LocalInvalidationBus implements InvalidationBus {
+
+    private final List<Consumer<String>> receivers = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(String payload) {
+        for (Consumer<String> receiver : receivers) {
+            receiver.accept(payload);
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<String> receiver, Runnable onGap) {
+        // Nothing is ever lost in memory
+        receivers.add(receiver);
+    }
+}
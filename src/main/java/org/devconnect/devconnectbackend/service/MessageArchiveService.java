@@ -0,0 +1,179 @@
+package org.devconnect.devconnectbackend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.devconnect.devconnectbackend.dto.ArchivedMessageDTO;
+import org.devconnect.devconnectbackend.model.Conversation;
+import org.devconnect.devconnectbackend.model.Message;
+import org.devconnect.devconnectbackend.model.MessageArchiveSegment;
+import org.devconnect.devconnectbackend.repository.ConversationRepository;
+import org.devconnect.devconnectbackend.repository.MessageArchiveSegmentRepository;
+import org.devconnect.devconnectbackend.repository.MessageRepository;
+import org.devconnect.devconnectbackend.utills.MessageContentCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Moves old messages out of the messages table into gzip compressed NDJSON segments
+ * (one JSON object per line) and reads them back when an old conversation is opened.
+ * Archiving only works on the main database, so it is refused while messages are sharded;
+ * segments archived before sharding was enabled can still be read.
+ */
+@Service
+@RequiredArgsConstructor
+public class MessageArchiveService {
+
+    private static final int PREVIEW_LENGTH = 200;
+
+    private final MessageRepository messageRepository;
+    private final ConversationRepository conversationRepository;
+    private final MessageArchiveSegmentRepository segmentRepository;
+    private final MessageContentCodec contentCodec;
+    private final ObjectMapper objectMapper;
+
+    @Value("${messages.sharding.enabled:false}")
+    private boolean sharded;
+
+    /**
+     * Archive the oldest messages of a conversation created before the cutoff.
+     * Soft-deleted messages are dropped instead of archived.
+     *
+     * @return number of rows removed from the messages table, 0 when nothing is left to archive
+     */
+    @Transactional
+    public int archiveOldestMessages(Integer conversationId, LocalDateTime cutoff, int batchSize) {
+        if (sharded) {
+            throw new IllegalStateException("Archiving is not supported while messages.sharding.enabled=true");
+        }
+        Conversation conversation = conversationRepository.findById(conversationId)
+                .orElseThrow(() -> new RuntimeException("Conversation not found"));
+
+        List<Message> messages = messageRepository.findByConversationConversationIdAndCreatedAtBetweenOrderByCreatedAtAsc(
+                conversationId, MessageRepository.partitionLowerBound(conversation), cutoff, PageRequest.of(0, batchSize));
+        if (messages.isEmpty()) {
+            return 0;
+        }
+
+        List<ArchivedMessageDTO> archived = new ArrayList<>();
+        List<Integer> ids = new ArrayList<>();
+        for (Message message : messages) {
+            ids.add(message.getMessageId());
+            if (!message.isDeleted()) {
+                archived.add(toArchived(message));
+            }
+        }
+
+        if (!archived.isEmpty()) {
+            ArchivedMessageDTO last = archived.get(archived.size() - 1);
+
+            MessageArchiveSegment segment = new MessageArchiveSegment();
+            segment.setConversationId(conversationId);
+            segment.setMessageCount(archived.size());
+            segment.setFirstCreatedAt(archived.get(0).getCreatedAt());
+            segment.setLastCreatedAt(last.getCreatedAt());
+            segment.setLastMessagePreview(preview(last.getContent()));
+            segment.setPayload(writeSegment(archived));
+            segmentRepository.save(segment);
+        }
+
+        messageRepository.deleteAllByIdInBatch(ids);
+        return ids.size();
+    }
+
+    /**
+     * Get all archived messages of a conversation (sorted oldest → newest)
+     */
+    public List<ArchivedMessageDTO> getArchivedMessages(Integer conversationId) {
+        List<ArchivedMessageDTO> messages = new ArrayList<>();
+        for (MessageArchiveSegment segment : segmentRepository.findByConversationIdOrderByFirstCreatedAtAsc(conversationId)) {
+            messages.addAll(readSegment(segment.getPayload()));
+        }
+        return messages;
+    }
+
+    /**
+     * Visit all archived messages of a conversation (oldest → newest), holding one segment in memory at a time
+     */
+    public void forEachArchivedMessage(Integer conversationId, Consumer<ArchivedMessageDTO> consumer) {
+        for (Integer segmentId : segmentRepository.findSegmentIds(conversationId)) {
+            segmentRepository.findById(segmentId)
+                    .ifPresent(segment -> readSegment(segment.getPayload()).forEach(consumer));
+        }
+    }
+
+    /**
+     * Get the newest archived segment, used for the chat preview once all hot messages are archived
+     */
+    public Optional<MessageArchiveSegment> getLatestSegment(Integer conversationId) {
+        return segmentRepository.findFirstByConversationIdOrderByLastCreatedAtDesc(conversationId);
+    }
+
+    byte[] writeSegment(List<ArchivedMessageDTO> messages) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (Writer writer = new OutputStreamWriter(new GZIPOutputStream(buffer), StandardCharsets.UTF_8)) {
+            for (ArchivedMessageDTO message : messages) {
+                writer.write(objectMapper.writeValueAsString(message));
+                writer.write('\n');
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write archive segment", e);
+        }
+        return buffer.toByteArray();
+    }
+
+    List<ArchivedMessageDTO> readSegment(byte[] payload) {
+        List<ArchivedMessageDTO> messages = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(new ByteArrayInputStream(payload)), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isEmpty()) {
+                    messages.add(objectMapper.readValue(line, ArchivedMessageDTO.class));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read archive segment", e);
+        }
+        return messages;
+    }
+
+    private ArchivedMessageDTO toArchived(Message message) {
+        return new ArchivedMessageDTO(
+                message.getMessageId(),
+                message.getSender().getUserId(),
+                contentCodec.decode(message),
+                message.getAttachmentId(),
+                message.getStatus().name(),
+                message.getCreatedAt(),
+                message.getEditedAt(),
+                message.getDeliveredAt(),
+                message.getReadAt()
+        );
+    }
+
+    private String preview(String content) {
+        if (content == null || content.length() <= PREVIEW_LENGTH) {
+            return content;
+        }
+        return content.substring(0, PREVIEW_LENGTH);
+    }
+}
@@ -0,0 +1,171 @@
+package org.devconnect.devconnectbackend.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.devconnect.devconnectbackend.dto.ArchivedMessageDTO;
+import org.devconnect.devconnectbackend.model.Conversation;
+import org.devconnect.devconnectbackend.repository.MessageRepository;
+import org.devconnect.devconnectbackend.repository.ShardedMessageStore;
+import org.devconnect.devconnectbackend.utills.MessageContentCodec;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exports chat histories as NDJSON (one JSON object per line).
+ *
+ * Rows are read through a JDBC cursor with a bounded fetch size and written straight to
+ * the output stream, so memory use does not depend on the size of the history.
+ * Archived messages are included; soft-deleted messages are not.
+ */
+@Service
+public class MessageExportService {
+
+    private static final int FETCH_SIZE = 500;
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MessageArchiveService archiveService;
+
+    @Autowired
+    private MessageContentCodec contentCodec;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Only present when messages.sharding.enabled=true
+    @Autowired(required = false)
+    private ShardedMessageStore shardedStore;
+
+    /**
+     * Write all messages of the given conversations, conversation by conversation (oldest → newest)
+     */
+    public void export(List<Conversation> conversations, OutputStream out, boolean gzip) throws IOException {
+        GZIPOutputStream gzipStream = gzip ? new GZIPOutputStream(out, GZIP_BUFFER_SIZE) : null;
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(gzipStream != null ? gzipStream : out)) {
+            // Lines are separated by '\n' below instead of the default root separator
+            generator.setRootValueSeparator(null);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+            for (Conversation conversation : conversations) {
+                exportConversation(conversation, generator, writer);
+            }
+            generator.flush();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        if (gzipStream != null) {
+            gzipStream.finish();
+        }
+    }
+
+    private void exportConversation(Conversation conversation, JsonGenerator generator, ObjectWriter writer) {
+        archiveService.forEachArchivedMessage(conversation.getConversationId(),
+                message -> writeLine(generator, writer, conversation, message, true));
+
+        if (shardedStore != null) {
+            shardedStore.streamMessages(conversation, FETCH_SIZE, message -> {
+                if (!message.isDeleted()) {
+                    writeLine(generator, writer, conversation, new ArchivedMessageDTO(
+                            message.getMessageId(),
+                            message.getSender().getUserId(),
+                            contentCodec.decode(message),
+                            message.getAttachmentId(),
+                            message.getStatus().name(),
+                            message.getCreatedAt(),
+                            message.getEditedAt(),
+                            message.getDeliveredAt(),
+                            message.getReadAt()
+                    ), false);
+                }
+            });
+            return;
+        }
+
+        // PostgreSQL only streams with a cursor when autocommit is off, hence the read-only transaction
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement("""
+                    SELECT message_id, sender_id, content, content_compressed, attachment_id, status,
+                           created_at, edited_at, delivered_at, read_at
+                    FROM messages
+                    WHERE conversation_id = ? AND created_at >= ? AND is_deleted = false
+                    ORDER BY created_at, message_id
+                    """, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(FETCH_SIZE);
+            statement.setInt(1, conversation.getConversationId());
+            statement.setTimestamp(2, Timestamp.valueOf(MessageRepository.partitionLowerBound(conversation)));
+            return statement;
+        }, (ResultSet rs) -> {
+            byte[] compressed = rs.getBytes("content_compressed");
+            writeLine(generator, writer, conversation, new ArchivedMessageDTO(
+                    rs.getInt("message_id"),
+                    rs.getInt("sender_id"),
+                    compressed != null ? contentCodec.decompress(compressed) : rs.getString("content"),
+                    rs.getObject("attachment_id", Integer.class),
+                    rs.getString("status"),
+                    toLocalDateTime(rs.getTimestamp("created_at")),
+                    toLocalDateTime(rs.getTimestamp("edited_at")),
+                    toLocalDateTime(rs.getTimestamp("delivered_at")),
+                    toLocalDateTime(rs.getTimestamp("read_at"))
+            ), false);
+        }));
+    }
+
+    private void writeLine(JsonGenerator generator, ObjectWriter writer, Conversation conversation,
+                           ArchivedMessageDTO message, boolean archived) {
+        Integer user1Id = conversation.getUser1().getUserId();
+        Integer receiverId = message.getSenderId().equals(user1Id) ? conversation.getUser2().getUserId() : user1Id;
+
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("conversationId", conversation.getConversationId());
+        line.put("id", message.getMessageId());
+        line.put("senderId", message.getSenderId());
+        line.put("receiverId", receiverId);
+        line.put("text", message.getContent());
+        line.put("status", message.getStatus().toLowerCase());
+        line.put("attachmentId", message.getAttachmentId());
+        line.put("createdAt", message.getCreatedAt());
+        line.put("editedAt", message.getEditedAt());
+        line.put("deliveredAt", message.getDeliveredAt());
+        line.put("readAt", message.getReadAt());
+        line.put("archived", archived);
+
+        try {
+            writer.writeValue(generator, line);
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
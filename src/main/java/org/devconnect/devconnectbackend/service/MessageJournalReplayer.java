@@ -0,0 +1,183 @@
+package org.devconnect.devconnectbackend.service;
+
+import com.fasterxml.jackson.core.JacksonException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.devconnect.devconnectbackend.dto.MessageDTO;
+import org.devconnect.devconnectbackend.exception.AttachmentNotFoundException;
+import org.devconnect.devconnectbackend.exception.IdempotencyConflictException;
+import org.devconnect.devconnectbackend.exception.UserNotFoundException;
+import org.devconnect.devconnectbackend.repository.MessageJournal;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+
+import java.util.List;
+
+/**
+ * Stores journaled messages in the database, in the order they were accepted.
+ *
+ * Runs on its own thread. When a message cannot be stored it waits and retries the same
+ * message, so later messages never overtake it. Only messages that can never be stored
+ * (a user or attachment that does not exist, or a malformed message) are dropped, and a message
+ * that keeps failing for an unknown reason is dropped after a bounded number of retries, so one
+ * bad entry cannot hold up the messages behind it for good. Each message is stored through
+ * IdempotencyService keyed by its clientMessageId, so a message that was stored just before
+ * a crash (but after the last checkpoint) is not stored twice on replay.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "messages.journal.enabled", havingValue = "true")
+public class MessageJournalReplayer {
+
+    private final MessageJournal journal;
+    private final MessageService messageService;
+    private final IdempotencyService idempotencyService;
+    private final SimpMessagingTemplate messagingTemplate;
+
+    @Value("${messages.journal.batch-size:100}")
+    private int batchSize;
+
+    @Value("${messages.journal.retry-delay-ms:1000}")
+    private long retryDelayMs;
+
+    // Long enough to outlast idempotency.in-progress-timeout-seconds after a crash
+    @Value("${messages.journal.max-conflict-retries:120}")
+    private int maxConflictRetries;
+
+    // Retries of a message failing for an unknown reason that is not a database error
+    @Value("${messages.journal.max-failure-retries:10}")
+    private int maxFailureRetries;
+
+    private volatile boolean running;
+    private Thread thread;
+    private int conflictRetries;
+    private int failureRetries;
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        thread = Thread.ofPlatform().name("message-journal-replayer").daemon().start(this::run);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        thread.interrupt();
+        thread.join(10_000);
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                if (!journal.awaitEntries(retryDelayMs)) {
+                    continue;
+                }
+                if (!replayBatch()) {
+                    Thread.sleep(retryDelayMs);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Message journal replay failed", e);
+            }
+        }
+    }
+
+    /**
+     * Store the next batch of journaled messages
+     *
+     * @return false if replay stopped because the database is unavailable
+     */
+    boolean replayBatch() {
+        List<MessageJournal.Entry> entries = journal.read(batchSize);
+        for (MessageJournal.Entry entry : entries) {
+            MessageDTO message = entry.message();
+            if (message != null && !replay(message)) {
+                return false;
+            }
+            journal.checkpoint(entry);
+        }
+        return true;
+    }
+
+    /**
+     * @return false if the message should be retried later
+     */
+    private boolean replay(MessageDTO message) {
+        try {
+            IdempotencyService.Result<MessageDTO> result = idempotencyService.execute(
+                    "message-send:" + message.getSenderId(), message.getClientMessageId(), message, MessageDTO.class,
+                    () -> messageService.sendMessage(
+                            message.getSenderId().intValue(),
+                            message.getReceiverId().intValue(),
+                            message.getText(),
+                            message.getAttachmentId()
+                    ));
+            resetRetries();
+
+            // Also pushed when replayed, since a crash may have happened before the first push
+            MessageDTO savedMessage = result.response();
+            savedMessage.setClientMessageId(message.getClientMessageId());
+            messagingTemplate.convertAndSendToUser(message.getReceiverId().toString(), "/queue/messages", savedMessage);
+            messagingTemplate.convertAndSendToUser(message.getSenderId().toString(), "/queue/messages", savedMessage);
+            return true;
+        } catch (UserNotFoundException | AttachmentNotFoundException | IllegalArgumentException | NullPointerException e) {
+            // Will not succeed on retry: a missing user or attachment, or a malformed message
+            // (missing ids, an invalid clientMessageId)
+            return drop(message, e);
+        } catch (IdempotencyConflictException e) {
+            // Usually the claim of a send that was cut off by a crash; it times out
+            if (++conflictRetries <= maxConflictRetries) {
+                return false;
+            }
+            return drop(message, e);
+        } catch (DataAccessException | TransactionException e) {
+            // Includes commit failures during a failover (TransactionSystemException, JpaSystemException,
+            // UnexpectedRollbackException): the journal exists for exactly these
+            log.warn("Database unavailable, journaled messages are waiting: {}", e.getMessage());
+            return false;
+        } catch (RuntimeException e) {
+            if (causedBy(e, JacksonException.class)) {
+                // The message or its stored response cannot be (de)serialized
+                return drop(message, e);
+            }
+            // Unknown failure: retry a few times before giving up, so later messages are not held up for good
+            if (++failureRetries <= maxFailureRetries) {
+                log.error("Could not store journaled message {} from user {}, retrying",
+                        message.getClientMessageId(), message.getSenderId(), e);
+                return false;
+            }
+            return drop(message, e);
+        }
+    }
+
+    private boolean drop(MessageDTO message, RuntimeException e) {
+        log.error("Dropping journaled message {} from user {}: {}",
+                message.getClientMessageId(), message.getSenderId(), String.valueOf(e));
+        resetRetries();
+        return true;
+    }
+
+    private void resetRetries() {
+        conflictRetries = 0;
+        failureRetries = 0;
+    }
+
+    private static boolean causedBy(Throwable e, Class<? extends Throwable> type) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (type.isInstance(cause)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    }
+}
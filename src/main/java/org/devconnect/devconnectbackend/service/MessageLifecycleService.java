@@ -0,0 +1,116 @@
+package org.devconnect.devconnectbackend.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.devconnect.devconnectbackend.repository.MessageRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Background lifecycle job for the messages table:
+ * hard-deletes soft-deleted messages and moves cold conversations to the archive.
+ *
+ * Work is done in small batches with a pause in between so the job never holds
+ * long transactions or competes with chat traffic for the database.
+ * Off while messages are sharded: it only works on the main database's messages table.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MessageLifecycleService {
+
+    private final MessageRepository messageRepository;
+    private final MessageArchiveService archiveService;
+
+    @Value("${messages.lifecycle.enabled:false}")
+    private boolean enabled;
+
+    @Value("${messages.sharding.enabled:false}")
+    private boolean sharded;
+
+    // Conversations without a message for this long are archived
+    @Value("${messages.lifecycle.cold-after-days:365}")
+    private int coldAfterDays;
+
+    @Value("${messages.lifecycle.batch-size:500}")
+    private int batchSize;
+
+    @Value("${messages.lifecycle.batch-pause-ms:200}")
+    private long batchPauseMs;
+
+    // Upper bounds per run, so a large backlog is worked off over several nights
+    @Value("${messages.lifecycle.max-batches-per-run:200}")
+    private int maxBatchesPerRun;
+
+    @Value("${messages.lifecycle.max-conversations-per-run:100}")
+    private int maxConversationsPerRun;
+
+    @Scheduled(cron = "${messages.lifecycle.cron:0 0 4 * * *}")
+    public void run() {
+        if (!enabled) {
+            return;
+        }
+        if (sharded) {
+            log.warn("Message lifecycle is disabled while messages.sharding.enabled=true; skipping");
+            return;
+        }
+
+        try {
+            int purged = purgeSoftDeleted();
+            int archived = archiveColdConversations();
+            log.info("Message lifecycle run finished: {} soft-deleted messages purged, {} messages archived", purged, archived);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Message lifecycle run interrupted");
+        } catch (Exception e) {
+            log.error("Message lifecycle run failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Hard-delete soft-deleted messages in small batches
+     */
+    int purgeSoftDeleted() throws InterruptedException {
+        int purged = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            List<Integer> ids = messageRepository.findSoftDeletedIds(PageRequest.of(0, batchSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+
+            messageRepository.deleteAllByIdInBatch(ids);
+            purged += ids.size();
+            Thread.sleep(batchPauseMs);
+        }
+        return purged;
+    }
+
+    /**
+     * Move messages of conversations with no recent activity to the archive
+     */
+    int archiveColdConversations() throws InterruptedException {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(coldAfterDays);
+        List<Integer> conversationIds = messageRepository.findColdConversationIds(
+                cutoff, PageRequest.of(0, maxConversationsPerRun));
+
+        int archived = 0;
+        int batches = 0;
+        for (Integer conversationId : conversationIds) {
+            int moved;
+            do {
+                if (batches++ >= maxBatchesPerRun) {
+                    return archived;
+                }
+                moved = archiveService.archiveOldestMessages(conversationId, cutoff, batchSize);
+                archived += moved;
+                Thread.sleep(batchPauseMs);
+            } while (moved == batchSize);
+        }
+        return archived;
+    }
+}
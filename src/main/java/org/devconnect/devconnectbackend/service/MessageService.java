@@ -1,19 +1,31 @@
 package org.devconnect.devconnectbackend.service;
 
+import org.devconnect.devconnectbackend.dto.ArchivedMessageDTO;
+import org.devconnect.devconnectbackend.dto.BroadcastResponseDTO;
+import org.devconnect.devconnectbackend.dto.BroadcastResultDTO;
 import org.devconnect.devconnectbackend.dto.MessageDTO;
+import org.devconnect.devconnectbackend.exception.AttachmentNotFoundException;
+import org.devconnect.devconnectbackend.exception.UserNotFoundException;
+import org.devconnect.devconnectbackend.listener.MessagesSentEvent;
 import org.devconnect.devconnectbackend.model.Conversation;
 import org.devconnect.devconnectbackend.model.Message;
 import org.devconnect.devconnectbackend.model.User;
 import org.devconnect.devconnectbackend.repository.MessageRepository;
+import org.devconnect.devconnectbackend.repository.ShardedMessageStore;
 import org.devconnect.devconnectbackend.repository.UserRepository;
+import org.devconnect.devconnectbackend.utills.MessageContentCodec;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class MessageService {
@@ -30,16 +42,48 @@ public class MessageService {
     @Autowired
     private SimpMessagingTemplate messagingTemplate;
 
+    @Autowired
+    private AttachmentService attachmentService;
+
+    @Autowired
+    private MessageContentCodec contentCodec;
+
+    @Autowired
+    private MessageArchiveService archiveService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ResourceVersionService resourceVersions;
+
+    // Only present when messages.sharding.enabled=true; messages then live on the shards
+    @Autowired(required = false)
+    private ShardedMessageStore shardedStore;
+
     /**
      * Send a message from one user to another
      */
     @Transactional
     public MessageDTO sendMessage(Integer senderId, Integer receiverId, String content) {
+        return sendMessage(senderId, receiverId, content, null);
+    }
+
+    /**
+     * Send a message that references an uploaded attachment.
+     * Only the attachment id is stored with the message; the file is downloaded separately.
+     */
+    @Transactional
+    public MessageDTO sendMessage(Integer senderId, Integer receiverId, String content, Integer attachmentId) {
+        if (attachmentId != null && !attachmentService.exists(attachmentId)) {
+            throw new AttachmentNotFoundException("Attachment not found");
+        }
+
         // Validate users exist
         User sender = userRepository.findById(senderId)
-                .orElseThrow(() -> new RuntimeException("Sender not found"));
+                .orElseThrow(() -> new UserNotFoundException("Sender not found"));
         User receiver = userRepository.findById(receiverId)
-                .orElseThrow(() -> new RuntimeException("Receiver not found"));
+                .orElseThrow(() -> new UserNotFoundException("Receiver not found"));
 
         // Get or create conversation
         Conversation conversation = conversationService.getOrCreateConversation(senderId, receiverId);
@@ -48,11 +92,13 @@ public class MessageService {
         Message message = new Message();
         message.setConversation(conversation);
         message.setSender(sender);
-        message.setContent(content);
+        contentCodec.encode(message, content != null ? content : "");
+        message.setAttachmentId(attachmentId);
         message.setStatus(Message.MessageStatus.SENT);
         message.setCreatedAt(LocalDateTime.now());
 
-        message = messageRepository.save(message);
+        message = shardedStore != null ? shardedStore.saveMessage(message) : messageRepository.save(message);
+        resourceVersions.bump(ResourceVersionService.inbox(senderId), ResourceVersionService.inbox(receiverId));
 
         // Convert to DTO
         MessageDTO messageDTO = convertToDTO(message, receiverId);
@@ -67,19 +113,116 @@ public class MessageService {
         return messageDTO;
     }
 
+    /**
+     * Send the same message from one user to many receivers in a single transaction.
+     * Receivers and conversations are resolved with set-based queries, the messages are
+     * inserted as JDBC batches, and WebSocket pushes happen asynchronously after commit.
+     */
+    @Transactional
+    public BroadcastResponseDTO broadcastMessage(Integer senderId, List<Integer> receiverIds, String content, Integer attachmentId) {
+        if (attachmentId != null && !attachmentService.exists(attachmentId)) {
+            throw new AttachmentNotFoundException("Attachment not found");
+        }
+
+        User sender = userRepository.findById(senderId)
+                .orElseThrow(() -> new UserNotFoundException("Sender not found"));
+
+        Map<Integer, User> users = new HashMap<>();
+        for (User user : userRepository.findAllById(receiverIds)) {
+            users.put(user.getUserId(), user);
+        }
+
+        // One result per distinct receiver, in request order
+        Map<Integer, BroadcastResultDTO> results = new LinkedHashMap<>();
+        List<User> receivers = new ArrayList<>();
+        for (Integer receiverId : receiverIds) {
+            if (results.containsKey(receiverId)) {
+                continue;
+            }
+
+            BroadcastResultDTO result = new BroadcastResultDTO(receiverId.longValue(), false, null, null, null);
+            results.put(receiverId, result);
+            if (receiverId.equals(senderId)) {
+                result.setError("Cannot send a message to yourself");
+            } else if (!users.containsKey(receiverId)) {
+                result.setError("Receiver not found");
+            } else {
+                receivers.add(users.get(receiverId));
+            }
+        }
+
+        Map<Integer, Conversation> conversations = conversationService.getOrCreateConversations(sender, receivers);
+
+        // Encode (and compress) the body once; every copy shares it
+        Message body = new Message();
+        contentCodec.encode(body, content != null ? content : "");
+        LocalDateTime now = LocalDateTime.now();
+
+        List<Message> messages = new ArrayList<>();
+        for (User receiver : receivers) {
+            Message message = new Message();
+            message.setConversation(conversations.get(receiver.getUserId()));
+            message.setSender(sender);
+            message.setContent(body.getContent());
+            message.setContentCompressed(body.getContentCompressed());
+            message.setAttachmentId(attachmentId);
+            message.setStatus(Message.MessageStatus.SENT);
+            message.setCreatedAt(now);
+            messages.add(message);
+        }
+
+        List<Message> saved = shardedStore != null
+                ? messages.stream().map(shardedStore::saveMessage).toList()
+                : messageRepository.saveAll(messages);
+
+        List<MessageDTO> messageDTOs = new ArrayList<>();
+        for (int i = 0; i < saved.size(); i++) {
+            Message message = saved.get(i);
+            Integer receiverId = receivers.get(i).getUserId();
+            messageDTOs.add(convertToDTO(message, receiverId));
+
+            BroadcastResultDTO result = results.get(receiverId);
+            result.setSuccess(true);
+            result.setMessageId(message.getMessageId().longValue());
+            result.setConversationId(message.getConversation().getConversationId().longValue());
+        }
+
+        // Pushed by MessagePushListener once the transaction has committed
+        eventPublisher.publishEvent(new MessagesSentEvent(messageDTOs));
+
+        List<String> changedInboxes = new ArrayList<>();
+        changedInboxes.add(ResourceVersionService.inbox(senderId));
+        messageDTOs.forEach(messageDTO -> changedInboxes.add(ResourceVersionService.inbox(messageDTO.getReceiverId().intValue())));
+        resourceVersions.bump(changedInboxes);
+
+        return new BroadcastResponseDTO(messageDTOs.size(), results.size() - messageDTOs.size(), new ArrayList<>(results.values()));
+    }
+
     /**
      * Get all messages in a conversation
      */
+    @Transactional(readOnly = true)
     public List<MessageDTO> getMessagesInConversation(Integer conversationId, Integer requestingUserId) {
         // Verify user is a participant
         Conversation conversation = conversationService.getConversation(conversationId, requestingUserId);
 
-        List<Message> messages = messageRepository.findByConversationConversationIdOrderByCreatedAtAsc(conversationId);
+        List<Message> messages = shardedStore != null
+                ? shardedStore.findMessages(conversation)
+                : messageRepository.findByConversationConversationIdAndCreatedAtGreaterThanEqualOrderByCreatedAtAsc(
+                        conversationId, MessageRepository.partitionLowerBound(conversation));
         List<MessageDTO> messageDTOs = new ArrayList<>();
 
         // Determine the other user in the conversation
         Integer otherUserId = getOtherUserId(conversation, requestingUserId);
 
+        // Archived messages are always older than the ones still in the messages table
+        for (ArchivedMessageDTO archived : archiveService.getArchivedMessages(conversationId)) {
+            Integer receiverId = archived.getSenderId().equals(requestingUserId)
+                                  ? otherUserId
+                                  : requestingUserId;
+            messageDTOs.add(convertToDTO(archived, receiverId));
+        }
+
         for (Message message : messages) {
             // Determine receiverId for DTO (opposite of sender)
             Integer receiverId = message.getSender().getUserId().equals(requestingUserId)
@@ -104,12 +247,18 @@ public class MessageService {
      */
     @Transactional
     public void markMessagesAsRead(Integer conversationId, Integer readerId) {
-        List<Message> unreadMessages = messageRepository.findUnreadMessages(conversationId, readerId);
+        // Verify the reader is a participant; the conversation also bounds the partition scan
+        Conversation conversation = conversationService.getConversation(conversationId, readerId);
+
+        List<Message> unreadMessages = shardedStore != null
+                ? shardedStore.findUnreadMessages(conversation, readerId)
+                : messageRepository.findUnreadMessages(
+                        conversationId, readerId, MessageRepository.partitionLowerBound(conversation));
 
         for (Message message : unreadMessages) {
             message.setStatus(Message.MessageStatus.READ);
             message.setReadAt(LocalDateTime.now());
-            messageRepository.save(message);
+            saveStatus(message);
 
             // Notify sender about read receipt
             Integer senderId = message.getSender().getUserId();
@@ -120,6 +269,10 @@ public class MessageService {
                     messageDTO
             );
         }
+
+        if (!unreadMessages.isEmpty()) {
+            resourceVersions.bump(ResourceVersionService.inbox(readerId));
+        }
     }
 
     /**
@@ -127,13 +280,13 @@ public class MessageService {
      */
     @Transactional
     public void markMessageAsDelivered(Integer messageId) {
-        Message message = messageRepository.findById(messageId)
+        Message message = (shardedStore != null ? shardedStore.findMessage(messageId) : messageRepository.findById(messageId))
                 .orElseThrow(() -> new RuntimeException("Message not found"));
 
         if (message.getStatus() == Message.MessageStatus.SENT) {
             message.setStatus(Message.MessageStatus.DELIVERED);
             message.setDeliveredAt(LocalDateTime.now());
-            messageRepository.save(message);
+            saveStatus(message);
 
             // Get conversation to determine receiver
             Conversation conversation = message.getConversation();
@@ -150,6 +303,17 @@ public class MessageService {
         }
     }
 
+    /**
+     * Helper: Persist a status change of an existing message
+     */
+    private void saveStatus(Message message) {
+        if (shardedStore != null) {
+            shardedStore.updateMessage(message);
+        } else {
+            messageRepository.save(message);
+        }
+    }
+
     /**
      * Helper: Get the other user in a conversation
      */
@@ -166,14 +330,38 @@ public class MessageService {
      * Convert Message entity to DTO
      */
     private MessageDTO convertToDTO(Message message, Integer receiverId) {
-        return new MessageDTO(
+        MessageDTO messageDTO = new MessageDTO(
                 message.getMessageId().longValue(),
                 message.getSender().getUserId().longValue(),
                 receiverId.longValue(),
                 message.getContent(),
                 message.getStatus().name().toLowerCase(),
                 message.getCreatedAt(),
-                null // No projectId in current model
+                null, // No projectId in current model
+                message.getAttachmentId()
+        );
+
+        // Large bodies are decompressed lazily, when the DTO is serialized
+        byte[] compressed = message.getContentCompressed();
+        if (compressed != null) {
+            messageDTO.setTextSupplier(() -> contentCodec.decompress(compressed));
+        }
+        return messageDTO;
+    }
+
+    /**
+     * Convert an archived message to DTO
+     */
+    private MessageDTO convertToDTO(ArchivedMessageDTO message, Integer receiverId) {
+        return new MessageDTO(
+                message.getMessageId().longValue(),
+                message.getSenderId().longValue(),
+                receiverId.longValue(),
+                message.getContent(),
+                message.getStatus().toLowerCase(),
+                message.getCreatedAt(),
+                null,
+                message.getAttachmentId()
         );
     }
 }
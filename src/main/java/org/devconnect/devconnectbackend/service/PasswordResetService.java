@@ -5,6 +5,7 @@ import org.devconnect.devconnectbackend.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.Random;
@@ -22,6 +23,7 @@ public class PasswordResetService {
     private PasswordEncoder passwordEncoder;
 
      // Step 1: Request reset code - sends 6-digit code to user's email
+    @Transactional
     public void requestResetCode(String email) {
         // Find user
         User user = userRepository.findByEmail(email)
@@ -71,6 +73,7 @@ public class PasswordResetService {
     }
 
      // Step 3: Reset password - verifies code again and updates password
+    @Transactional
     public void resetPassword(String email, String newPassword, String confirmNewPassword) {
 
         if (!newPassword.equals(confirmNewPassword)) {
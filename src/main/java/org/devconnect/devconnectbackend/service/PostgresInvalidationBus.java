@@ -0,0 +1,133 @@
+package org.devconnect.devconnectbackend.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Invalidation bus over PostgreSQL LISTEN/NOTIFY on the main database.
+ *
+ * Publishing is a pg_notify on a pooled connection. Listening uses its own connection outside
+ * the pool, on a background thread. Notifications sent while that connection is down are lost,
+ * so subscribers are told about the gap after every reconnect.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "invalidation.bus", havingValue = "postgres")
+public class PostgresInvalidationBus implements InvalidationBus {
+
+    static final String CHANNEL = "cache_invalidation";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+
+    @Value("${invalidation.reconnect-delay-ms:1000}")
+    private long reconnectDelayMs;
+
+    private final List<Consumer<String>> receivers = new CopyOnWriteArrayList<>();
+    private final List<Runnable> gapHandlers = new CopyOnWriteArrayList<>();
+
+    private volatile boolean running;
+    private Thread thread;
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        thread = Thread.ofPlatform().name("cache-invalidation-listener").daemon().start(this::listen);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        thread.interrupt();
+        thread.join(5_000);
+    }
+
+    @Override
+    public void publish(String payload) {
+        jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", CHANNEL, payload);
+    }
+
+    @Override
+    public void subscribe(Consumer<String> receiver, Runnable onGap) {
+        receivers.add(receiver);
+        gapHandlers.add(onGap);
+    }
+
+    private void listen() {
+        boolean reconnect = false;
+        while (running) {
+            try (Connection connection = connect()) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                if (reconnect) {
+                    log.info("Cache invalidation listener reconnected");
+                    gapHandlers.forEach(this::runSafely);
+                }
+                reconnect = true;
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(1000);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        for (Consumer<String> receiver : receivers) {
+                            runSafely(() -> receiver.accept(notification.getParameter()));
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Cache invalidation listener disconnected: {}", e.getMessage());
+                try {
+                    Thread.sleep(reconnectDelayMs);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private Connection connect() throws SQLException {
+        Properties properties = new Properties();
+        if (dataSourceProperties.determineUsername() != null) {
+            properties.setProperty("user", dataSourceProperties.determineUsername());
+        }
+        if (dataSourceProperties.determinePassword() != null) {
+            properties.setProperty("password", dataSourceProperties.determinePassword());
+        }
+        return DriverManager.getConnection(dataSourceProperties.determineUrl(), properties);
+    }
+
+    private void runSafely(Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            log.error("Cache invalidation handler failed", e);
+        }
+    }
+}
@@ -2,18 +2,31 @@ package org.devconnect.devconnectbackend.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.devconnect.devconnectbackend.config.ReplicaRoutingDataSource;
+import org.devconnect.devconnectbackend.dto.BatchResultDTO;
+import org.devconnect.devconnectbackend.dto.PageDTO;
 import org.devconnect.devconnectbackend.dto.ProjectRequestDTO;
 import org.devconnect.devconnectbackend.dto.ProjectResponseDTO;
 import org.devconnect.devconnectbackend.exception.ProjectAlreadyClaimedException;
 import org.devconnect.devconnectbackend.exception.ProjectNotFoundException;
 import org.devconnect.devconnectbackend.model.Project;
+import org.devconnect.devconnectbackend.repository.ClientRepository;
+import org.devconnect.devconnectbackend.repository.DeveloperRepository;
 import org.devconnect.devconnectbackend.repository.ProjectRepository;
+import org.devconnect.devconnectbackend.repository.SparseFieldsetRepository;
+import org.devconnect.devconnectbackend.utills.BatchLookup;
+import org.devconnect.devconnectbackend.utills.KeysetPagination;
 import org.devconnect.devconnectbackend.utills.ProjectMapper;
+import org.devconnect.devconnectbackend.utills.SparseFieldset;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
@@ -22,13 +35,18 @@ import java.util.stream.Collectors;
 public class ProjectService {
 
     private final ProjectRepository projectRepository;
+    private final DeveloperRepository developerRepository;
+    private final ClientRepository clientRepository;
     private final ProjectMapper projectMapper;
+    private final SparseFieldsetRepository sparseFieldsetRepository;
+    private final ResourceVersionService resourceVersions;
 
     // Add a new project
     @Transactional
     public ProjectResponseDTO addProject(ProjectRequestDTO requestDTO) {
         Project project = projectMapper.toEntity(requestDTO);
         Project savedProject = projectRepository.save(project);
+        resourceVersions.bump(ResourceVersionService.AVAILABLE_PROJECTS);
         return projectMapper.toResponseDTO(savedProject);
     }
 
@@ -40,6 +58,7 @@ public class ProjectService {
 
         projectMapper.updateEntityFromDTO(requestDTO, project);
         Project updatedProject = projectRepository.save(project);
+        resourceVersions.bump(ResourceVersionService.AVAILABLE_PROJECTS, ResourceVersionService.project(projectId));
         return projectMapper.toResponseDTO(updatedProject);
     }
 
@@ -50,6 +69,7 @@ public class ProjectService {
             throw new RuntimeException("Project not found with id: " + projectId);
         }
         projectRepository.deleteById(projectId);
+        resourceVersions.bump(ResourceVersionService.AVAILABLE_PROJECTS, ResourceVersionService.project(projectId));
     }
 
     // Mark project as completed
@@ -60,6 +80,7 @@ public class ProjectService {
 
         project.setStatus(Project.ProjectStatus.COMPLETED);
         Project updatedProject = projectRepository.save(project);
+        resourceVersions.bump(ResourceVersionService.AVAILABLE_PROJECTS, ResourceVersionService.project(projectId));
         return projectMapper.toResponseDTO(updatedProject);
     }
 
@@ -71,54 +92,120 @@ public class ProjectService {
 
         project.setStatus(status);
         Project updatedProject = projectRepository.save(project);
+        resourceVersions.bump(ResourceVersionService.AVAILABLE_PROJECTS, ResourceVersionService.project(projectId));
         return projectMapper.toResponseDTO(updatedProject);
     }
 
-    // Get project by ID
+    // Get project by ID, from the primary so the second-level cache is never filled from a replica
+    @Transactional(readOnly = true)
     public ProjectResponseDTO getProjectById(Long projectId) {
-        Project project = projectRepository.findById(projectId)
+        Project project = ReplicaRoutingDataSource.onPrimary(() -> projectRepository.findById(projectId))
                 .orElseThrow(() -> new RuntimeException("Project not found with id: " + projectId));
         return projectMapper.toResponseDTO(project);
     }
 
+    // Get project by ID with only the selected fields
+    @Transactional(readOnly = true)
+    public Map<String, Object> getProjectFields(Long projectId, String fields) {
+        List<Map<String, Object>> rows = sparseFieldsetRepository.findProjects(
+                SparseFieldset.parse(fields, SparseFieldset.PROJECT_FIELDS), projectId, null, null, 0, PageRequest.of(0, 1));
+        if (rows.isEmpty()) {
+            throw new RuntimeException("Project not found with id: " + projectId);
+        }
+        return rows.get(0);
+    }
+
+    // Get several projects in one query, in request order
+    @Transactional(readOnly = true)
+    public BatchResultDTO<ProjectResponseDTO, Long> getProjectsByIds(List<Long> projectIds) {
+        return BatchLookup.resolve(projectIds, ids -> projectRepository.findDTOsByIds(ids).stream()
+                .collect(Collectors.toMap(ProjectResponseDTO::getProjectId, project -> project)));
+    }
+
     // Get all projects
+    @Transactional(readOnly = true)
     public List<ProjectResponseDTO> getAllProjects() {
-        return projectRepository.findAll().stream()
-                .map(projectMapper::toResponseDTO)
-                .collect(Collectors.toList());
+        return projectRepository.findAllDTOs();
     }
 
     // Get projects by developer ID
+    @Transactional(readOnly = true)
     public List<ProjectResponseDTO> getProjectsByDevId(Long devId) {
-        return projectRepository.findByDevId(devId).stream()
-                .map(projectMapper::toResponseDTO)
-                .collect(Collectors.toList());
+        return projectRepository.findDTOsByDevId(devId);
     }
 
     // Get projects by developer ID
+    @Transactional(readOnly = true)
     public List<ProjectResponseDTO> getProjectsByClientId(Long clientId) {
-        return projectRepository.findByClientId(clientId).stream()
-                .map(projectMapper::toResponseDTO)
-                .collect(Collectors.toList());
+        return projectRepository.findDTOsByClientId(clientId);
+    }
+
+    /**
+     * One page of projects in id order, optionally only those of one developer or one client
+     */
+    @Transactional(readOnly = true)
+    public PageDTO<ProjectResponseDTO> getProjectsPage(Long devId, Long clientId, String cursor, int limit) {
+        List<ProjectResponseDTO> rows = findProjectsAfter(devId, clientId, KeysetPagination.afterId(cursor), KeysetPagination.firstRows(limit));
+        return KeysetPagination.toPage(rows, limit, ProjectResponseDTO::getProjectId, project -> project);
+    }
+
+    // Pending and in-progress projects the user is the developer or client of.
+    // Projects reference developer and client ids, so the user's profiles are looked up first
+    @Transactional(readOnly = true)
+    public List<ProjectResponseDTO> getActiveProjectsForUser(Long userId) {
+        Long devId = developerRepository.findDeveloperIdByUserId(userId.intValue()).map(Integer::longValue).orElse(null);
+        Long clientId = clientRepository.findClientIdByUserId(userId.intValue()).map(Integer::longValue).orElse(null);
+        if (devId == null && clientId == null) {
+            return List.of();
+        }
+        return projectRepository.findDTOsByParticipantAndStatusIn(
+                devId, clientId, List.of(Project.ProjectStatus.PENDING, Project.ProjectStatus.IN_PROGRESS));
+    }
+
+    /**
+     * Same as getProjectsPage, but only the selected fields are read and returned
+     */
+    @Transactional(readOnly = true)
+    public PageDTO<Map<String, Object>> getProjectFieldsPage(String fields, Long devId, Long clientId, String cursor, int limit) {
+        List<Map<String, Object>> rows = sparseFieldsetRepository.findProjects(
+                SparseFieldset.parse(fields, SparseFieldset.PROJECT_FIELDS), null, devId, clientId,
+                KeysetPagination.afterId(cursor), KeysetPagination.firstRows(limit));
+        return KeysetPagination.toPage(rows, limit, SparseFieldset::rowId, row -> row);
+    }
+
+    /**
+     * Visit all projects (optionally of one developer or one client) in id order, one batch at a time
+     */
+    public void forEachProject(Long devId, Long clientId, Consumer<ProjectResponseDTO> action) {
+        KeysetPagination.forEach(
+                afterId -> findProjectsAfter(devId, clientId, afterId, KeysetPagination.streamBatch()),
+                ProjectResponseDTO::getProjectId,
+                action);
+    }
+
+    private List<ProjectResponseDTO> findProjectsAfter(Long devId, Long clientId, long afterId, Pageable pageable) {
+        if (devId != null) {
+            return projectRepository.findDTOPageByDevId(devId, afterId, pageable);
+        }
+        if (clientId != null) {
+            return projectRepository.findDTOPageByClientId(clientId, afterId, pageable);
+        }
+        return projectRepository.findDTOPage(afterId, pageable);
     }
 
     // Get projects by status
+    @Transactional(readOnly = true)
     public List<ProjectResponseDTO> getProjectsByStatus(Project.ProjectStatus status) {
-        return projectRepository.findByStatus(status).stream()
-                .map(projectMapper::toResponseDTO)
-                .collect(Collectors.toList());
+        return projectRepository.findDTOsByStatus(status);
     }
 
     /**
      * Get available projects (unclaimed projects with PENDING status)
      * These are projects that developers can claim
      */
+    @Transactional(readOnly = true)
     public List<ProjectResponseDTO> getAvailableProjects() {
-        return projectRepository.findAll().stream()
-                .filter(project -> project.getDevId() == null && 
-                                   project.getStatus() == Project.ProjectStatus.PENDING)
-                .map(projectMapper::toResponseDTO)
-                .collect(Collectors.toList());
+        return projectRepository.findUnclaimedDTOsByStatus(Project.ProjectStatus.PENDING);
     }
 
     /**
@@ -135,8 +222,9 @@ public class ProjectService {
     public ProjectResponseDTO claimProject(Long projectId, Long devId) {
         log.info("Attempting to claim project {} for developer {}", projectId, devId);
         
-        // Fetch the project with pessimistic write lock to prevent concurrent claims
-        Project project = projectRepository.findById(projectId)
+        // Fetch the project with pessimistic write lock to prevent concurrent claims.
+        // findById may be answered from the second-level cache, which can miss a claim just made on another instance
+        Project project = projectRepository.findByIdForUpdate(projectId)
                 .orElseThrow(() -> new ProjectNotFoundException("Project not found with id: " + projectId));
         
         // Verify project is available for claiming
@@ -159,6 +247,7 @@ public class ProjectService {
         project.setStatus(Project.ProjectStatus.IN_PROGRESS);
         
         Project claimedProject = projectRepository.save(project);
+        resourceVersions.bump(ResourceVersionService.AVAILABLE_PROJECTS, ResourceVersionService.project(projectId));
         log.info("Successfully claimed project {} for developer {}", projectId, devId);
         
         return projectMapper.toResponseDTO(claimedProject);
@@ -0,0 +1,123 @@
+package org.devconnect.devconnectbackend.service;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Version counters for responses that clients poll, exposed as strong ETags so an unchanged
+ * answer can be confirmed with a 304 without running its queries.
+ *
+ * Writers bump the counters of everything they change. Inside a transaction the bump happens
+ * after commit, so a reader can never tag data from before the write with the new version.
+ * Readers must take the ETag before loading the data; readers on a replica also leave the tag
+ * off while changedWithin says the replica may not have the change yet. Counters live in memory
+ * and restart from zero; the ETag carries an epoch, new for every start of this instance and
+ * every resync, so tags from before a restart or from before missed changes never match.
+ * Bumps are passed on to listeners (CacheInvalidationService sends them to other instances).
+ *
+ * Because counters and ETags are per instance, a conditional request only matches on the
+ * instance that issued the tag: with several instances, 304s need sticky sessions at the load
+ * balancer (see MESSAGING_API_REFERENCE.md).
+ */
+@Service
+public class ResourceVersionService {
+
+    public static final String AVAILABLE_PROJECTS = "projects:available";
+
+    private final String instanceId = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong epoch = new AtomicLong();
+    private final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+    // Time of each key's last change, and of the last epoch change (which changes every key)
+    private final Map<String, Long> changedAt = new ConcurrentHashMap<>();
+    private volatile long epochStartedAt = System.currentTimeMillis();
+    private final List<Consumer<Collection<String>>> listeners = new CopyOnWriteArrayList<>();
+
+    // Chat list of one user
+    public static String inbox(Integer userId) {
+        return "inbox:" + userId;
+    }
+
+    public static String project(Long projectId) {
+        return "project:" + projectId;
+    }
+
+    // Developer profile, keyed by the developer's user id
+    public static String developer(Integer userId) {
+        return "developer:" + userId;
+    }
+
+    public String etag(String key) {
+        AtomicLong version = versions.get(key);
+        return "\"" + instanceId + "." + epoch.get() + "-" + (version != null ? version.get() : 0) + "\"";
+    }
+
+    /**
+     * Whether the key's ETag changed within the last millis
+     */
+    public boolean changedWithin(String key, long millis) {
+        long since = System.currentTimeMillis() - millis;
+        Long changed = changedAt.get(key);
+        return epochStartedAt > since || (changed != null && changed > since);
+    }
+
+    public void bump(String... keys) {
+        bump(List.of(keys));
+    }
+
+    public void bump(Collection<String> keys) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    increment(keys);
+                }
+            });
+        } else {
+            increment(keys);
+        }
+    }
+
+    /**
+     * Called with the keys of every local bump, after it took effect
+     */
+    public void addListener(Consumer<Collection<String>> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Bump keys changed on another instance; not passed on to listeners
+     */
+    public void refresh(Collection<String> keys) {
+        long now = System.currentTimeMillis();
+        for (String key : keys) {
+            // Before the version, so whoever sees the new version also sees the change time
+            changedAt.put(key, now);
+            versions.computeIfAbsent(key, k -> new AtomicLong()).incrementAndGet();
+        }
+    }
+
+    /**
+     * Invalidate every ETag, for when changes on other instances may have been missed.
+     * Starts a new epoch, so this also covers keys this instance has never bumped.
+     */
+    public void refreshAll() {
+        epochStartedAt = System.currentTimeMillis();
+        epoch.incrementAndGet();
+    }
+
+    private void increment(Collection<String> keys) {
+        refresh(keys);
+        for (Consumer<Collection<String>> listener : listeners) {
+            listener.accept(keys);
+        }
+    }
+}
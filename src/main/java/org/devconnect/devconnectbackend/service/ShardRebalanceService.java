@@ -0,0 +1,76 @@
+package org.devconnect.devconnectbackend.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.devconnect.devconnectbackend.repository.ShardedMessageStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+
+/**
+ * Moves conversations between shards.
+ *
+ * After adding a shard URL, run with messages.sharding.rebalance-on-startup=true (on one node)
+ * to move every conversation to the shard its hash now points to. Only conversations that
+ * hash to the new shard are moved.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "messages.sharding.enabled", havingValue = "true")
+public class ShardRebalanceService {
+
+    private final ShardedMessageStore store;
+
+    @Value("${messages.sharding.rebalance-on-startup:false}")
+    private boolean rebalanceOnStartup;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        if (rebalanceOnStartup) {
+            rebalance();
+        }
+    }
+
+    /**
+     * Move every conversation that is not on its hashed shard
+     *
+     * @return number of conversations moved
+     */
+    public int rebalance() {
+        int shardCount = store.getShardCount();
+        int moved = 0;
+        int failed = 0;
+
+        for (Map.Entry<Integer, Integer> assignment : store.findShardAssignments().entrySet()) {
+            int target = ShardedMessageStore.jumpHash(assignment.getKey(), shardCount);
+            if (target == assignment.getValue()) {
+                continue;
+            }
+
+            try {
+                store.moveConversation(assignment.getKey(), target);
+                moved++;
+            } catch (Exception e) {
+                // Leave it where it is; the next run picks it up again
+                failed++;
+                log.error("Could not move conversation {} to shard {}: {}", assignment.getKey(), target, e.getMessage(), e);
+            }
+        }
+
+        log.info("Shard rebalance finished: {} conversations moved, {} failed, {} shards", moved, failed, shardCount);
+        return moved;
+    }
+
+    /**
+     * Move a single conversation, e.g. to take load off a busy shard.
+     * Note that a later rebalance moves it back to its hashed shard.
+     */
+    public void moveConversation(Integer conversationId, int targetShard) {
+        store.moveConversation(conversationId, targetShard);
+    }
+}
@@ -6,21 +6,33 @@ import org.devconnect.devconnectbackend.model.Developer;
 import org.devconnect.devconnectbackend.model.User;
 import org.devconnect.devconnectbackend.repository.ClientRepository;
 import org.devconnect.devconnectbackend.repository.DeveloperRepository;
+import org.devconnect.devconnectbackend.repository.SparseFieldsetRepository;
 import org.devconnect.devconnectbackend.repository.UserRepository;
+import org.devconnect.devconnectbackend.utills.BatchLookup;
+import org.devconnect.devconnectbackend.utills.KeysetPagination;
+import org.devconnect.devconnectbackend.utills.SparseFieldset;
 import org.devconnect.devconnectbackend.utills.UserMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
 public class UserService {
+
+    public static final int MAX_SEARCH_LIMIT = 100;
     
     @Autowired
     private UserRepository userRepository;
@@ -34,6 +46,15 @@ public class UserService {
     @Autowired
     private UserMapper userMapper;
 
+    @Autowired
+    private SparseFieldsetRepository sparseFieldsetRepository;
+
+    @Autowired
+    private ConversationService conversationService;
+
+    @Autowired
+    private ResourceVersionService resourceVersions;
+
     @Autowired
     private PasswordEncoder passwordEncoder;
 
@@ -46,6 +67,7 @@ public class UserService {
     @Autowired
     private SimpMessagingTemplate messagingTemplate;
 
+    @Transactional
     public UserResponseDTO registerUser(UserRegistrationDTO userRegistrationDTO) {
         // Check if email already exists
         if (userRepository.existsByEmail(userRegistrationDTO.getEmail())) {
@@ -83,6 +105,7 @@ public class UserService {
             developer.setUserId(savedUser.getUserId());
 
             Developer savedDeveloper = developerRepository.save(developer);
+            resourceVersions.bump(ResourceVersionService.developer(savedUser.getUserId()));
         }
 
         // Convert saved Entity to responseDTO
@@ -96,29 +119,34 @@ public class UserService {
         return userMapper.toUserResponseDTO(user);
     }
 
+    // Several users in one query, in request order (see BatchLookup)
+    public BatchResultDTO<UserResponseDTO, Integer> getUsersByIds(List<Integer> userIds) {
+        return BatchLookup.resolve(userIds, ids -> userRepository.findDTOsByIds(ids).stream()
+                .collect(Collectors.toMap(UserResponseDTO::getUserId, user -> user)));
+    }
+
     public UserResponseDTO getUserByEmail(String email) {
         User user = userRepository.findByEmail(email).orElseThrow(() -> new RuntimeException("User not found"));
         return userMapper.toUserResponseDTO(user);
     }
 
     public List<UserResponseDTO> getAllUsers() {
-        List<User> users = userRepository.findAll();
-
-        return users.stream()
-                .map(user -> userMapper.toUserResponseDTO(user))
-                .collect(Collectors.toList());
+        return userRepository.findAllDTOs();
     }
 
+    @Transactional
     public UserResponseDTO updateUser(Integer userId, UserUpdateDTO userUpdateDTO) {
         User user = userRepository.findById(userId).orElseThrow(() -> new RuntimeException("User not found"));
 
         userMapper.updateUserFromDTO(userUpdateDTO, user);
 
         User updatedUser = userRepository.save(user);
+        profileChanged(userId);
 
         return userMapper.toUserResponseDTO(updatedUser);
     }
 
+    @Transactional
     public void deleteUser(Integer userId) {
         User user = userRepository.findById(userId).orElseThrow(() -> new RuntimeException("User not found"));
 
@@ -144,6 +172,7 @@ public class UserService {
         return new LoginResponseDTO(accessToken, refreshToken, userResponseDTO, "Bearer");
     }
 
+    @Transactional
     public void changePassword(Integer userId, PasswordChangeDTO passwordChangeDTO) {
         User user = userRepository.findById(userId).orElseThrow(() -> new RuntimeException("User not found"));
 
@@ -159,21 +188,34 @@ public class UserService {
         }
     }
 
+    @Transactional
     public void updateUserStatus(Integer userId, User.UserStatus status) {
         User user = userRepository.findById(userId).orElseThrow(() -> new RuntimeException("User not found"));
 
         user.setUserStatus(status);
 
         userRepository.save(user);
+        profileChanged(userId);
 
         // TODO: Broadcast status change to all users via WebSocket
     }
 
+    // Names and status are shown in the user's developer profile and in the chat lists of their contacts
+    private void profileChanged(Integer userId) {
+        List<String> changed = new ArrayList<>();
+        changed.add(ResourceVersionService.developer(userId));
+        for (Integer contactId : conversationService.getContactIds(userId)) {
+            changed.add(ResourceVersionService.inbox(contactId));
+        }
+        resourceVersions.bump(changed);
+    }
+
     public String getUserStatus(Integer userId) {
         User user = userRepository.findById(userId).orElseThrow(() -> new RuntimeException("User not found"));
         return user.getUserStatus().name().toLowerCase();
     }
 
+    @Transactional
     public void updateLastSeen(Integer userId) {
         User user = userRepository.findById(userId).orElseThrow(() -> new RuntimeException("User not found"));
 
@@ -186,6 +228,7 @@ public class UserService {
         return userRepository.existsByEmail(email);
     }
 
+    @Transactional
     public void deactivateUserAccount(Integer userId) {
         User user = userRepository.findById(userId).orElseThrow(() -> new RuntimeException("User not found"));
 
@@ -194,6 +237,7 @@ public class UserService {
         userRepository.save(user);
     }
 
+    @Transactional
     public void activateUserAccount(Integer userId) {
         User user = userRepository.findById(userId).orElseThrow(() -> new RuntimeException("User not found"));
 
@@ -203,50 +247,107 @@ public class UserService {
     }
 
     public List<UserResponseDTO> getUsersByRole(User.UserRole role) {
-        List<User> users = userRepository.findByUserRole(role);
+        return userRepository.findDTOsByUserRole(role);
+    }
 
-        return users.stream()
-                .map(user -> userMapper.toUserResponseDTO(user))
-                .collect(Collectors.toList());
+    /**
+     * One page of users in id order, optionally of one role
+     */
+    public PageDTO<UserResponseDTO> getUsersPage(User.UserRole role, String cursor, int limit) {
+        int afterId = (int) KeysetPagination.afterId(cursor);
+        List<UserResponseDTO> rows = role != null
+                ? userRepository.findDTOPageByUserRole(role, afterId, KeysetPagination.firstRows(limit))
+                : userRepository.findDTOPage(afterId, KeysetPagination.firstRows(limit));
+        return KeysetPagination.toPage(rows, limit, UserResponseDTO::getUserId, user -> user);
+    }
+
+    /**
+     * Same as getUsersPage, but only the selected fields are read and returned
+     */
+    public PageDTO<Map<String, Object>> getUserFieldsPage(String fields, User.UserRole role, String cursor, int limit) {
+        List<Map<String, Object>> rows = sparseFieldsetRepository.findUsers(
+                SparseFieldset.parse(fields, SparseFieldset.USER_FIELDS), null, role,
+                KeysetPagination.afterId(cursor), KeysetPagination.firstRows(limit));
+        return KeysetPagination.toPage(rows, limit, SparseFieldset::rowId, row -> row);
+    }
+
+    public Map<String, Object> getUserFields(Integer userId, String fields) {
+        List<Map<String, Object>> rows = sparseFieldsetRepository.findUsers(
+                SparseFieldset.parse(fields, SparseFieldset.USER_FIELDS), userId, null, 0, PageRequest.of(0, 1));
+        if (rows.isEmpty()) {
+            throw new RuntimeException("User not found");
+        }
+        return rows.get(0);
+    }
+
+    /**
+     * Visit all users (optionally of one role) in id order, one batch at a time
+     */
+    public void forEachUser(User.UserRole role, Consumer<UserResponseDTO> action) {
+        KeysetPagination.forEach(
+                afterId -> role != null
+                        ? userRepository.findDTOPageByUserRole(role, (int) afterId, KeysetPagination.streamBatch())
+                        : userRepository.findDTOPage((int) afterId, KeysetPagination.streamBatch()),
+                UserResponseDTO::getUserId,
+                action);
     }
 
     /**
      * Search users by name or email
      * Supports filtering by role
-     * 
+     *
+     * Runs in the database, best matches first (exact username/email, then prefix, then substring),
+     * and returns at most limit users per page.
+     *
      * @param query Search term (searches in firstName, lastName, username, email)
      * @param role Optional role filter (CLIENT or DEVELOPER)
-     * @return List of matching users
+     * @param limit Page size (1 to MAX_SEARCH_LIMIT)
+     * @param cursor nextCursor of the previous page, or null for the first page
+     * @return Matching users and the cursor of the next page
      */
-    public List<UserResponseDTO> searchUsers(String query, User.UserRole role) {
-        List<User> allUsers;
-        
-        // Get users by role if specified, otherwise get all
-        if (role != null) {
-            allUsers = userRepository.findByUserRole(role);
-        } else {
-            allUsers = userRepository.findAll();
+    public UserSearchResultDTO searchUsers(String query, User.UserRole role, int limit, String cursor) {
+        String term = query.toLowerCase().trim();
+        String escaped = term.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+        int pageSize = Math.max(1, Math.min(limit, MAX_SEARCH_LIMIT));
+
+        int afterRank = -1;
+        int afterId = 0;
+        if (cursor != null && !cursor.isEmpty()) {
+            int[] position = decodeSearchCursor(cursor);
+            afterRank = position[0];
+            afterId = position[1];
         }
-        
-        // Filter by search query
-        String searchTerm = query.toLowerCase().trim();
-        
-        return allUsers.stream()
-                .filter(user -> {
-                    // Search in firstName, lastName, username, and email
-                    boolean matchesFirstName = user.getFirstName() != null && 
-                                               user.getFirstName().toLowerCase().contains(searchTerm);
-                    boolean matchesLastName = user.getLastName() != null && 
-                                             user.getLastName().toLowerCase().contains(searchTerm);
-                    boolean matchesUsername = user.getUsername() != null && 
-                                             user.getUsername().toLowerCase().contains(searchTerm);
-                    boolean matchesEmail = user.getEmail() != null && 
-                                          user.getEmail().toLowerCase().contains(searchTerm);
-                    
-                    return matchesFirstName || matchesLastName || matchesUsername || matchesEmail;
-                })
-                .map(user -> userMapper.toUserResponseDTO(user))
+
+        // One extra row tells whether there is a next page
+        List<Object[]> rows = userRepository.search(term, escaped + "%", "%" + escaped + "%", role,
+                afterRank, afterId, PageRequest.of(0, pageSize + 1));
+
+        boolean hasMore = rows.size() > pageSize;
+        List<Object[]> page = hasMore ? rows.subList(0, pageSize) : rows;
+        List<UserResponseDTO> users = page.stream()
+                .map(row -> (UserResponseDTO) row[0])
                 .collect(Collectors.toList());
+
+        String nextCursor = null;
+        if (hasMore) {
+            Object[] last = page.get(page.size() - 1);
+            nextCursor = encodeSearchCursor(((Number) last[1]).intValue(), ((UserResponseDTO) last[0]).getUserId());
+        }
+        return new UserSearchResultDTO(users, nextCursor);
+    }
+
+    private String encodeSearchCursor(int rank, int userId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((rank + ":" + userId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private int[] decodeSearchCursor(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+            return new int[]{Integer.parseInt(parts[0]), Integer.parseInt(parts[1])};
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid search cursor");
+        }
     }
 
     public LoginResponseDTO refreshToken(String refreshToken) {
@@ -0,0 +1,54 @@
+package org.devconnect.devconnectbackend.utills;
+
+import org.devconnect.devconnectbackend.dto.BatchResultDTO;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Multi-get by id for the batch endpoints: all ids are loaded with one IN query per entity type,
+ * and the result is put back in request order with the ids that were not found listed separately.
+ */
+public final class BatchLookup {
+
+    public static final int MAX_IDS = 500;
+
+    private BatchLookup() {
+    }
+
+    /**
+     * @param ids    requested ids; duplicates are returned once
+     * @param loader loads the given ids in one query, keyed by id
+     * @throws IllegalArgumentException if there are no ids, more than MAX_IDS or a null id
+     */
+    public static <ID, T> BatchResultDTO<T, ID> resolve(List<ID> ids, Function<Set<ID>, Map<ID, T>> loader) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("ids must not be empty");
+        }
+        if (ids.contains(null)) {
+            throw new IllegalArgumentException("ids must not contain null");
+        }
+
+        Set<ID> unique = new LinkedHashSet<>(ids);
+        if (unique.size() > MAX_IDS) {
+            throw new IllegalArgumentException("At most " + MAX_IDS + " ids can be requested at once");
+        }
+
+        Map<ID, T> found = loader.apply(unique);
+        List<T> items = new ArrayList<>(found.size());
+        List<ID> missingIds = new ArrayList<>();
+        for (ID id : unique) {
+            T item = found.get(id);
+            if (item != null) {
+                items.add(item);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        return new BatchResultDTO<>(items, missingIds);
+    }
+}
@@ -0,0 +1,62 @@
+package org.devconnect.devconnectbackend.utills;
+
+import org.devconnect.devconnectbackend.listener.InvalidationEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Text format of invalidation batches on the bus: a header line "origin sentAtMillis", then one
+ * line "code id version" per event, e.g. "P 42 17". Ids and origins are ASCII without spaces.
+ */
+public final class InvalidationCodec {
+
+    public record Batch(String origin, long sentAtMillis, List<InvalidationEvent> events) {
+    }
+
+    private InvalidationCodec() {
+    }
+
+    /**
+     * Encode events as one or more payloads of at most maxBytes each, keeping their order
+     */
+    public static List<String> encode(String origin, long sentAtMillis, List<InvalidationEvent> events, int maxBytes) {
+        String header = origin + " " + sentAtMillis;
+        List<String> payloads = new ArrayList<>();
+        StringBuilder payload = new StringBuilder(header);
+        for (InvalidationEvent event : events) {
+            String line = "\n" + event.type().code() + " " + event.id() + " " + event.version();
+            if (payload.length() > header.length() && payload.length() + line.length() > maxBytes) {
+                payloads.add(payload.toString());
+                payload = new StringBuilder(header);
+            }
+            payload.append(line);
+        }
+        if (payload.length() > header.length()) {
+            payloads.add(payload.toString());
+        }
+        return payloads;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the payload is malformed
+     */
+    public static Batch decode(String payload) {
+        String[] lines = payload.split("\n");
+        String[] header = lines[0].split(" ");
+        if (header.length != 2) {
+            throw new IllegalArgumentException("Malformed invalidation header: " + lines[0]);
+        }
+
+        List<InvalidationEvent> events = new ArrayList<>(lines.length - 1);
+        for (int i = 1; i < lines.length; i++) {
+            String[] parts = lines[i].split(" ");
+            if (parts.length != 3 || parts[0].length() != 1) {
+                throw new IllegalArgumentException("Malformed invalidation event: " + lines[i]);
+            }
+            events.add(new InvalidationEvent(
+                    InvalidationEvent.Type.fromCode(parts[0].charAt(0)), parts[1], Long.parseLong(parts[2])));
+        }
+        return new Batch(header[0], Long.parseLong(header[1]), events);
+    }
+}
@@ -0,0 +1,123 @@
+package org.devconnect.devconnectbackend.utills;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.devconnect.devconnectbackend.config.ReplicaRoutingDataSource;
+import org.devconnect.devconnectbackend.service.ResourceVersionService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Serialized JSON of hot, rarely written responses, keyed by resource (see ResourceVersionService).
+ *
+ * Each entry remembers the resource version it was built from. Writes bump the version, so the
+ * next read misses and rebuilds the entry; nothing stale is ever served. A hit skips loading,
+ * mapping and serialization: the bytes are written to the response as they are. Concurrent
+ * misses for the same version are coalesced (see SingleFlight), so a burst of readers right after
+ * a write builds the entry once. The cache is bounded by the total size of the stored JSON and
+ * drops the least recently used entries first.
+ */
+@Component
+public class JsonResponseCache {
+
+    private record Entry(String version, byte[] json) {
+    }
+
+    // Rough per-entry overhead of key, record and map node, counted against the limit
+    private static final int ENTRY_OVERHEAD = 128;
+
+    private final ResourceVersionService resourceVersions;
+    private final ObjectMapper objectMapper;
+    private final SingleFlight singleFlight;
+    private final long maxBytes;
+
+    // Guarded by this
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+
+    public JsonResponseCache(
+            ResourceVersionService resourceVersions,
+            ObjectMapper objectMapper,
+            SingleFlight singleFlight,
+            @Value("${response-cache.max-bytes:33554432}") long maxBytes) {
+        this.resourceVersions = resourceVersions;
+        this.objectMapper = objectMapper;
+        this.singleFlight = singleFlight;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * 200 with the resource as JSON and its ETag, or 304 if If-None-Match still matches
+     *
+     * @param load builds the response body on a cache miss
+     */
+    public ResponseEntity<byte[]> respond(String key, WebRequest webRequest, Supplier<?> load) {
+        // Taken before loading, so the cached bytes are never older than their version
+        String version = resourceVersions.etag(key);
+        if (webRequest.checkNotModified(version)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(version).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(version)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(get(key, version, load));
+    }
+
+    /**
+     * JSON of the resource at this version, serialized with load on a miss
+     */
+    public byte[] get(String key, String version, Supplier<?> load) {
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.version().equals(version)) {
+                return entry.json();
+            }
+        }
+
+        return singleFlight.execute(key + "@" + version, () -> {
+            byte[] json;
+            try {
+                // Read from the primary, so a lagging replica cannot store old data under this version
+                json = objectMapper.writeValueAsBytes(ReplicaRoutingDataSource.onPrimary(load));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Could not serialize " + key, e);
+            }
+            put(key, new Entry(version, json));
+            return json;
+        });
+    }
+
+    public synchronized long totalBytes() {
+        return totalBytes;
+    }
+
+    private synchronized void put(String key, Entry entry) {
+        // A single entry may take at most a quarter of the cache
+        if (size(entry) > maxBytes / 4) {
+            return;
+        }
+
+        Entry previous = entries.put(key, entry);
+        totalBytes += size(entry) - (previous != null ? size(previous) : 0);
+
+        Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<String, Entry> evicted = eldest.next();
+            eldest.remove();
+            totalBytes -= size(evicted.getValue());
+        }
+    }
+
+    private static long size(Entry entry) {
+        return entry.json().length + ENTRY_OVERHEAD;
+    }
+}
@@ -0,0 +1,143 @@
+package org.devconnect.devconnectbackend.utills;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.devconnect.devconnectbackend.dto.PageDTO;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Keyset (cursor) pagination for list endpoints, sorted by entity id.
+ *
+ * A page is fetched with "id > last id of the previous page ORDER BY id LIMIT n+1"; the extra
+ * row only tells whether a next page exists. The cursor handed to clients is the opaque
+ * encoding of that last id. The NDJSON mode walks the same pages, so a full scan never holds
+ * more than one page in memory.
+ */
+public final class KeysetPagination {
+
+    public static final int DEFAULT_LIMIT = 100;
+    public static final int MAX_LIMIT = 500;
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private static final int STREAM_BATCH_SIZE = 500;
+
+    private KeysetPagination() {
+    }
+
+    /**
+     * Id after which the page starts (0 for the first page)
+     *
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public static long afterId(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return 0;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith("id:")) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return Long.parseLong(decoded.substring(3));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    /**
+     * Page request for limit rows plus one
+     *
+     * @throws IllegalArgumentException if limit is not between 1 and MAX_LIMIT
+     */
+    public static Pageable firstRows(int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        return PageRequest.of(0, limit + 1);
+    }
+
+    /**
+     * Turn rows fetched with firstRows(limit) into a page
+     */
+    public static <E, D> PageDTO<D> toPage(List<E> rows, int limit, ToLongFunction<E> id, Function<E, D> mapper) {
+        boolean hasMore = rows.size() > limit;
+        List<E> page = hasMore ? rows.subList(0, limit) : rows;
+        String nextCursor = hasMore ? encode(id.applyAsLong(page.get(page.size() - 1))) : null;
+        return new PageDTO<>(page.stream().map(mapper).toList(), nextCursor);
+    }
+
+    /**
+     * Visit every row, one page at a time
+     *
+     * @param fetchAfter rows with an id greater than the argument, in id order, at most one batch
+     */
+    public static <E> void forEach(LongFunction<List<E>> fetchAfter, ToLongFunction<E> id, Consumer<E> action) {
+        long afterId = 0;
+        while (true) {
+            List<E> rows = fetchAfter.apply(afterId);
+            rows.forEach(action);
+            if (rows.size() < STREAM_BATCH_SIZE) {
+                return;
+            }
+            afterId = id.applyAsLong(rows.get(rows.size() - 1));
+        }
+    }
+
+    public static Pageable streamBatch() {
+        return PageRequest.of(0, STREAM_BATCH_SIZE);
+    }
+
+    /**
+     * 200 response with the page's items as body and the next cursor as header
+     */
+    public static <T> ResponseEntity<List<T>> response(PageDTO<T> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
+    }
+
+    /**
+     * NDJSON response (one JSON object per line) written while the producer runs
+     */
+    public static ResponseEntity<StreamingResponseBody> ndjson(ObjectMapper objectMapper, Consumer<Consumer<Object>> producer) {
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = (OutputStream out) -> {
+            try {
+                producer.accept(item -> {
+                    try {
+                        out.write(writer.writeValueAsBytes(item));
+                        out.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+
+    private static String encode(long id) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(("id:" + id).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,105 @@
+package org.devconnect.devconnectbackend.utills;
+
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4SafeDecompressor;
+import org.devconnect.devconnectbackend.model.Message;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Stores large message bodies compressed.
+ *
+ * Compressed bodies are laid out as: 1 byte format marker, 4 byte original length, payload.
+ * Bodies below the threshold, or that do not shrink enough, are stored as plain text.
+ */
+@Component
+public class MessageContentCodec {
+
+    public static final byte FORMAT_LZ4 = 1;
+
+    private static final int HEADER_SIZE = 5;
+    private static final int PREVIEW_LENGTH = 200;
+    // Only keep the compressed form if it saves at least 10%
+    private static final double MIN_SAVING_RATIO = 0.9;
+
+    private final LZ4Compressor compressor = LZ4Factory.fastestInstance().fastCompressor();
+    private final LZ4SafeDecompressor decompressor = LZ4Factory.fastestInstance().safeDecompressor();
+
+    private final int thresholdBytes;
+
+    public MessageContentCodec(@Value("${messages.compression.threshold-bytes:4096}") int thresholdBytes) {
+        this.thresholdBytes = thresholdBytes;
+    }
+
+    /**
+     * Set the content of a message, compressing it if it is above the threshold
+     */
+    public void encode(Message message, String content) {
+        byte[] compressed = content != null ? compress(content) : null;
+        if (compressed == null) {
+            message.setContent(content);
+            message.setContentCompressed(null);
+        } else {
+            message.setContent(preview(content));
+            message.setContentCompressed(compressed);
+        }
+    }
+
+    /**
+     * Get the full text of a message, decompressing it if needed
+     */
+    public String decode(Message message) {
+        return message.getContentCompressed() != null
+                ? decompress(message.getContentCompressed())
+                : message.getContent();
+    }
+
+    /**
+     * Compress a body, or return null if it should be stored as plain text
+     */
+    public byte[] compress(String content) {
+        byte[] raw = content.getBytes(StandardCharsets.UTF_8);
+        if (raw.length < thresholdBytes) {
+            return null;
+        }
+
+        int maxLength = compressor.maxCompressedLength(raw.length);
+        byte[] out = new byte[HEADER_SIZE + maxLength];
+        out[0] = FORMAT_LZ4;
+        ByteBuffer.wrap(out, 1, 4).putInt(raw.length);
+        int compressedLength = compressor.compress(raw, 0, raw.length, out, HEADER_SIZE, maxLength);
+
+        if (HEADER_SIZE + compressedLength > raw.length * MIN_SAVING_RATIO) {
+            return null;
+        }
+        return Arrays.copyOf(out, HEADER_SIZE + compressedLength);
+    }
+
+    public String decompress(byte[] stored) {
+        if (stored.length < HEADER_SIZE || stored[0] != FORMAT_LZ4) {
+            throw new IllegalStateException("Unknown message body format");
+        }
+
+        int originalLength = ByteBuffer.wrap(stored, 1, 4).getInt();
+        byte[] raw = new byte[originalLength];
+        decompressor.decompress(stored, HEADER_SIZE, stored.length - HEADER_SIZE, raw, 0, originalLength);
+        return new String(raw, StandardCharsets.UTF_8);
+    }
+
+    private String preview(String content) {
+        if (content.length() <= PREVIEW_LENGTH) {
+            return content;
+        }
+        int end = PREVIEW_LENGTH;
+        // Do not cut a surrogate pair in half
+        if (Character.isHighSurrogate(content.charAt(end - 1))) {
+            end--;
+        }
+        return content.substring(0, end);
+    }
+}
@@ -0,0 +1,77 @@
+package org.devconnect.devconnectbackend.utills;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces identical concurrent reads: the first caller for a key (the leader) runs the
+ * computation and every caller arriving while it runs (a follower) gets the same result.
+ *
+ * Only for idempotent reads, and the key must identify the data exactly (include a version
+ * where there is one), since followers get the leader's result. A follower waits at most
+ * single-flight.follower-timeout-ms and then computes on its own, so a stuck leader does not
+ * hold everyone else. Metrics: single_flight.calls (role=leader|follower), which gives the
+ * coalescing ratio, and single_flight.follower_timeouts.
+ */
+@Component
+public class SingleFlight {
+
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final long followerTimeoutMs;
+    private final Counter leaders;
+    private final Counter followers;
+    private final Counter followerTimeouts;
+
+    public SingleFlight(
+            MeterRegistry meterRegistry,
+            @Value("${single-flight.follower-timeout-ms:2000}") long followerTimeoutMs) {
+        this.followerTimeoutMs = followerTimeoutMs;
+        this.leaders = meterRegistry.counter("single_flight.calls", "role", "leader");
+        this.followers = meterRegistry.counter("single_flight.calls", "role", "follower");
+        this.followerTimeouts = meterRegistry.counter("single_flight.follower_timeouts");
+        meterRegistry.gaugeMapSize("single_flight.in_flight", Tags.empty(), inFlight);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, Supplier<T> computation) {
+        CompletableFuture<Object> call = new CompletableFuture<>();
+        CompletableFuture<Object> leader = inFlight.putIfAbsent(key, call);
+        if (leader == null) {
+            leaders.increment();
+            try {
+                T result = computation.get();
+                call.complete(result);
+                return result;
+            } catch (RuntimeException | Error e) {
+                call.completeExceptionally(e);
+                throw e;
+            } finally {
+                inFlight.remove(key, call);
+            }
+        }
+
+        followers.increment();
+        try {
+            return (T) leader.get(followerTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            followerTimeouts.increment();
+            return computation.get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for " + key, e);
+        }
+    }
+}
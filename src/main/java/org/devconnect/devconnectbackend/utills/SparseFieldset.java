@@ -0,0 +1,59 @@
+package org.devconnect.devconnectbackend.utills;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Field selection (fields=a,b,c) for the user, developer and project endpoints.
+ *
+ * Field names are the JSON names of the full DTOs; the first field of each list is the id,
+ * which is always returned so list pages can still be paged by it.
+ */
+public final class SparseFieldset {
+
+    public static final List<String> USER_FIELDS = List.of(
+            "userId", "firstName", "lastName", "email", "telephone", "userRole", "userStatus",
+            "createdAt", "lastSeen", "active");
+
+    public static final List<String> DEVELOPER_FIELDS = List.of(
+            "developerId", "userId", "username", "email", "firstName", "lastName", "bio", "skills",
+            "hourlyRate", "githubUrl", "linkedinUrl", "portfolioUrl", "averageRating",
+            "totalProjectsCompleted", "userStatus");
+
+    public static final List<String> PROJECT_FIELDS = List.of(
+            "projectId", "projectName", "devId", "clientId", "description", "status", "projectBudget",
+            "timeline", "createdAt", "updatedAt");
+
+    private SparseFieldset() {
+    }
+
+    /**
+     * Selected fields, id first, then in request order
+     *
+     * @throws IllegalArgumentException if a field is not one of allowed
+     */
+    public static Set<String> parse(String fields, List<String> allowed) {
+        Set<String> selected = new LinkedHashSet<>();
+        selected.add(allowed.get(0));
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!allowed.contains(name)) {
+                throw new IllegalArgumentException("Unknown field: " + name);
+            }
+            selected.add(name);
+        }
+        return selected;
+    }
+
+    /**
+     * Id of a row read with a parsed field set (its first value)
+     */
+    public static long rowId(Map<String, Object> row) {
+        return ((Number) row.values().iterator().next()).longValue();
+    }
+}
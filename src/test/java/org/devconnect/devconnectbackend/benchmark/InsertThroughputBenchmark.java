@@ -0,0 +1,180 @@
+package org.devconnect.devconnectbackend.benchmark;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Compares insert throughput with the old id allocation (one nextval per row, one statement
+ * per insert) against pooled-lo allocation with JDBC batching, issuing the same statements
+ * Hibernate does for registrations, single message sends and broadcasts.
+ *
+ * Needs a scratch PostgreSQL database; it creates and drops its own schema:
+ *   BENCHMARK_DATABASE_URL=jdbc:postgresql://localhost:5432/bench?user=postgres&password=postgres ./gradlew test --tests '*InsertThroughputBenchmark'
+ */
+@EnabledIfEnvironmentVariable(named = "BENCHMARK_DATABASE_URL", matches = ".+")
+@DisplayName("Insert Throughput Benchmark")
+class InsertThroughputBenchmark {
+
+    private static final int ALLOCATION_SIZE = 50;
+    private static final int ROWS = 20_000;
+    private static final int BROADCAST_RECEIVERS = 100;
+
+    private static final String INSERT_USER = "INSERT INTO users (user_id, first_name, last_name, email, password_hash, "
+            + "user_role, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_MESSAGE = "INSERT INTO messages (message_id, conversation_id, sender_id, content, "
+            + "status, created_at) VALUES (?, ?, ?, ?, ?, ?)";
+
+    @Test
+    @DisplayName("Rows per second, per-row nextval vs pooled-lo with batching")
+    void benchmarkInsertThroughput() throws Exception {
+        try (Connection connection = DriverManager.getConnection(System.getenv("BENCHMARK_DATABASE_URL"))) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("DROP SCHEMA IF EXISTS insert_bench CASCADE");
+                statement.execute("CREATE SCHEMA insert_bench");
+                statement.execute("SET search_path TO insert_bench");
+            }
+            connection.setAutoCommit(false);
+
+            System.out.printf("%-16s %16s %16s%n", "workload", "before(rows/s)", "after(rows/s)");
+            for (String workload : new String[]{"registrations", "sends", "broadcasts"}) {
+                double[] throughput = new double[2];
+                for (int mode = 0; mode < 2; mode++) {
+                    boolean pooled = mode == 1;
+                    createTables(connection, pooled ? ALLOCATION_SIZE : 1);
+                    long start = System.nanoTime();
+                    switch (workload) {
+                        case "registrations" -> insertUsers(connection, pooled);
+                        case "sends" -> insertMessages(connection, pooled, 1);
+                        default -> insertMessages(connection, pooled, BROADCAST_RECEIVERS);
+                    }
+                    throughput[mode] = ROWS / ((System.nanoTime() - start) / 1e9);
+                }
+                System.out.printf("%-16s %16.0f %16.0f%n", workload, throughput[0], throughput[1]);
+            }
+
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("DROP SCHEMA insert_bench CASCADE");
+            }
+            connection.commit();
+        }
+    }
+
+    private void createTables(Connection connection, int increment) throws Exception {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS users, messages");
+            statement.execute("DROP SEQUENCE IF EXISTS user_seq, message_seq");
+            statement.execute("CREATE SEQUENCE user_seq INCREMENT BY " + increment);
+            statement.execute("CREATE SEQUENCE message_seq INCREMENT BY " + increment);
+            statement.execute("""
+                    CREATE TABLE users (
+                        user_id integer PRIMARY KEY,
+                        first_name varchar(127) NOT NULL,
+                        last_name varchar(127) NOT NULL,
+                        email varchar(255) NOT NULL UNIQUE,
+                        password_hash varchar(255) NOT NULL,
+                        user_role varchar(10) NOT NULL,
+                        created_at timestamp NOT NULL
+                    )
+                    """);
+            statement.execute("""
+                    CREATE TABLE messages (
+                        message_id integer PRIMARY KEY,
+                        conversation_id integer NOT NULL,
+                        sender_id integer NOT NULL,
+                        content text NOT NULL,
+                        status varchar(16) NOT NULL,
+                        created_at timestamp NOT NULL
+                    )
+                    """);
+            statement.execute("CREATE INDEX ON messages (conversation_id, created_at)");
+        }
+        connection.commit();
+    }
+
+    // One registration per transaction: batching cannot help, only the saved nextval calls do
+    private void insertUsers(Connection connection, boolean pooled) throws Exception {
+        IdSource ids = new IdSource(connection, "user_seq", pooled ? ALLOCATION_SIZE : 1);
+        try (PreparedStatement insert = connection.prepareStatement(INSERT_USER)) {
+            for (int i = 0; i < ROWS; i++) {
+                insert.setInt(1, ids.next());
+                insert.setString(2, "First" + i);
+                insert.setString(3, "Last" + i);
+                insert.setString(4, "user" + i + "@bench.test");
+                insert.setString(5, "$2a$10$abcdefghijklmnopqrstuv");
+                insert.setString(6, i % 2 == 0 ? "CLIENT" : "DEVELOPER");
+                insert.setTimestamp(7, Timestamp.valueOf(LocalDateTime.now()));
+                insert.executeUpdate();
+                connection.commit();
+            }
+        }
+    }
+
+    // perTransaction messages in each transaction, batched when pooled (as with hibernate.jdbc.batch_size)
+    private void insertMessages(Connection connection, boolean pooled, int perTransaction) throws Exception {
+        IdSource ids = new IdSource(connection, "message_seq", pooled ? ALLOCATION_SIZE : 1);
+        try (PreparedStatement insert = connection.prepareStatement(INSERT_MESSAGE)) {
+            int pending = 0;
+            for (int i = 0; i < ROWS; i++) {
+                insert.setInt(1, ids.next());
+                insert.setInt(2, i % 5_000);
+                insert.setInt(3, 1);
+                insert.setString(4, "message " + i);
+                insert.setString(5, "SENT");
+                insert.setTimestamp(6, Timestamp.valueOf(LocalDateTime.now()));
+                if (pooled) {
+                    insert.addBatch();
+                    if (++pending == ALLOCATION_SIZE) {
+                        insert.executeBatch();
+                        pending = 0;
+                    }
+                } else {
+                    insert.executeUpdate();
+                }
+
+                if ((i + 1) % perTransaction == 0 || i == ROWS - 1) {
+                    if (pending > 0) {
+                        insert.executeBatch();
+                        pending = 0;
+                    }
+                    connection.commit();
+                }
+            }
+        }
+    }
+
+    /**
+     * nextval per id when blockSize is 1, otherwise one nextval per block (pooled-lo)
+     */
+    private static final class IdSource {
+
+        private final PreparedStatement nextval;
+        private final int blockSize;
+        private long next;
+        private long end;
+
+        IdSource(Connection connection, String sequence, int blockSize) throws Exception {
+            this.nextval = connection.prepareStatement("SELECT nextval('" + sequence + "')");
+            this.blockSize = blockSize;
+        }
+
+        int next() throws Exception {
+            if (next >= end) {
+                try (ResultSet resultSet = nextval.executeQuery()) {
+                    resultSet.next();
+                    next = resultSet.getLong(1);
+                }
+                end = next + blockSize;
+            }
+            return (int) next++;
+        }
+    }
+}
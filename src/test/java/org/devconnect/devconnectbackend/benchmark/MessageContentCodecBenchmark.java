@@ -0,0 +1,121 @@
+package org.devconnect.devconnectbackend.benchmark;
+
+import org.devconnect.devconnectbackend.model.Message;
+import org.devconnect.devconnectbackend.utills.MessageContentCodec;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Measures storage and encode/decode speed of MessageContentCodec on a synthetic corpus of
+ * pasted logs and stack traces mixed with normal chat messages.
+ *
+ * Needs no database; runs only when asked for:
+ *   RUN_BENCHMARKS=true ./gradlew test --tests '*MessageContentCodecBenchmark'
+ */
+@EnabledIfEnvironmentVariable(named = "RUN_BENCHMARKS", matches = "true")
+@DisplayName("Message Content Codec Benchmark")
+class MessageContentCodecBenchmark {
+
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int ROUNDS = 50;
+
+    private final MessageContentCodec codec = new MessageContentCodec(4096);
+
+    @Test
+    @DisplayName("Storage and throughput on a synthetic corpus of pasted logs")
+    void benchmarkSyntheticCorpus() {
+        List<String> corpus = corpus(new Random(42));
+
+        long rawBytes = 0;
+        long storedBytes = 0;
+        for (String body : corpus) {
+            rawBytes += body.getBytes(StandardCharsets.UTF_8).length;
+            Message message = new Message();
+            codec.encode(message, body);
+            storedBytes += message.getContent().getBytes(StandardCharsets.UTF_8).length;
+            if (message.getContentCompressed() != null) {
+                storedBytes += message.getContentCompressed().length;
+            }
+        }
+
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            run(corpus);
+        }
+        long encodeNanos = 0;
+        long decodeNanos = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long[] nanos = run(corpus);
+            encodeNanos += nanos[0];
+            decodeNanos += nanos[1];
+        }
+
+        double megabytes = rawBytes * (double) ROUNDS / (1024 * 1024);
+        System.out.printf("Synthetic corpus: %d messages, raw=%d bytes, stored=%d bytes (%.1f%%)%n",
+                corpus.size(), rawBytes, storedBytes, 100.0 * storedBytes / rawBytes);
+        System.out.printf("encode=%.1f MB/s, decode=%.1f MB/s%n",
+                megabytes / (encodeNanos / 1e9), megabytes / (decodeNanos / 1e9));
+    }
+
+    // Encode and decode the whole corpus once, returning {encodeNanos, decodeNanos}
+    private long[] run(List<String> corpus) {
+        long encodeNanos = 0;
+        long decodeNanos = 0;
+        for (String body : corpus) {
+            Message message = new Message();
+            long start = System.nanoTime();
+            codec.encode(message, body);
+            encodeNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            String decoded = codec.decode(message);
+            decodeNanos += System.nanoTime() - start;
+            if (decoded.length() != body.length()) {
+                throw new IllegalStateException("Round trip changed the message");
+            }
+        }
+        return new long[]{encodeNanos, decodeNanos};
+    }
+
+    private static List<String> corpus(Random random) {
+        List<String> corpus = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            corpus.add("Sounds good, I will push the fix for ticket #" + random.nextInt(1000) + " tonight.");
+        }
+        for (int i = 0; i < 40; i++) {
+            corpus.add(i % 2 == 0 ? stackTrace(random, 200 + random.nextInt(800)) : logLines(random, 500 + random.nextInt(2000)));
+        }
+        return corpus;
+    }
+
+    private static String stackTrace(Random random, int frames) {
+        StringBuilder sb = new StringBuilder("java.lang.IllegalStateException: Connection pool exhausted\n");
+        String[] packages = {"org.springframework.web.servlet", "org.hibernate.engine.jdbc", "com.zaxxer.hikari.pool", "org.devconnect.devconnectbackend.service"};
+        for (int i = 0; i < frames; i++) {
+            String pkg = packages[random.nextInt(packages.length)];
+            sb.append("\tat ").append(pkg).append(".Handler").append(random.nextInt(20))
+                    .append(".invoke(Handler").append(random.nextInt(20)).append(".java:")
+                    .append(random.nextInt(900) + 10).append(")\n");
+        }
+        return sb.toString();
+    }
+
+    private static String logLines(Random random, int lines) {
+        StringBuilder sb = new StringBuilder();
+        String[] levels = {"INFO", "DEBUG", "WARN", "ERROR"};
+        for (int i = 0; i < lines; i++) {
+            sb.append("2025-11-17T10:").append(10 + random.nextInt(50)).append(":").append(10 + random.nextInt(50))
+                    .append(".").append(100 + random.nextInt(900)).append(" ")
+                    .append(levels[random.nextInt(levels.length)])
+                    .append(" [http-nio-8081-exec-").append(random.nextInt(10)).append("] ")
+                    .append("o.d.d.service.MessageService : Processed request id=").append(random.nextInt(100000))
+                    .append(" in ").append(random.nextInt(500)).append(" ms\n");
+        }
+        return sb.toString();
+    }
+}
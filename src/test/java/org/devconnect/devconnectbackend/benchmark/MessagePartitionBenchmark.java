@@ -0,0 +1,149 @@
+package org.devconnect.devconnectbackend.benchmark;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+/**
+ * Compares query latency of the history, unread and last-message queries on a plain
+ * heap table versus a monthly partitioned table as the table grows.
+ *
+ * Needs a scratch PostgreSQL database; it creates and drops its own schema:
+ *   BENCHMARK_DATABASE_URL=jdbc:postgresql://localhost:5432/bench?user=postgres&password=postgres ./gradlew test --tests '*MessagePartitionBenchmark'
+ */
+@EnabledIfEnvironmentVariable(named = "BENCHMARK_DATABASE_URL", matches = ".+")
+@DisplayName("Message Partition Benchmark")
+class MessagePartitionBenchmark {
+
+    private static final int MONTHS = 24;
+    private static final int CONVERSATIONS = 5_000;
+    private static final int[] TABLE_SIZES = {250_000, 1_000_000, 4_000_000};
+    private static final int ITERATIONS = 200;
+
+    @Test
+    @DisplayName("Query latency against table size, heap vs partitioned")
+    void benchmarkQueryLatency() throws Exception {
+        try (Connection connection = DriverManager.getConnection(System.getenv("BENCHMARK_DATABASE_URL"))) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("DROP SCHEMA IF EXISTS message_bench CASCADE");
+                statement.execute("CREATE SCHEMA message_bench");
+                statement.execute("SET search_path TO message_bench");
+            }
+
+            System.out.printf("%-12s %-12s %14s %14s %14s%n", "rows", "layout", "history(ms)", "unread(ms)", "last(ms)");
+            for (int rows : TABLE_SIZES) {
+                for (boolean partitioned : new boolean[]{false, true}) {
+                    createTable(connection, partitioned);
+                    load(connection, rows);
+                    double[] timings = measure(connection);
+                    System.out.printf("%-12d %-12s %14.3f %14.3f %14.3f%n",
+                            rows, partitioned ? "partitioned" : "heap", timings[0], timings[1], timings[2]);
+                }
+            }
+
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("DROP SCHEMA message_bench CASCADE");
+            }
+        }
+    }
+
+    private void createTable(Connection connection, boolean partitioned) throws Exception {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS messages CASCADE");
+            String columns = """
+                    message_id bigint NOT NULL,
+                    conversation_id integer NOT NULL,
+                    sender_id integer NOT NULL,
+                    content text NOT NULL,
+                    status varchar(16) NOT NULL,
+                    created_at timestamp NOT NULL
+                    """;
+            if (!partitioned) {
+                statement.execute("CREATE TABLE messages (" + columns + ", PRIMARY KEY (message_id))");
+            } else {
+                statement.execute("CREATE TABLE messages (" + columns + ", PRIMARY KEY (message_id, created_at)) PARTITION BY RANGE (created_at)");
+                YearMonth start = YearMonth.now().minusMonths(MONTHS - 1);
+                for (int i = 0; i < MONTHS; i++) {
+                    YearMonth month = start.plusMonths(i);
+                    statement.execute("CREATE TABLE messages_p" + i + " PARTITION OF messages FOR VALUES FROM ('"
+                            + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')");
+                }
+            }
+            statement.execute("CREATE INDEX ON messages (conversation_id, created_at)");
+        }
+    }
+
+    /**
+     * Spread rows over two years. Each conversation is active for roughly a month,
+     * which matches how chats are used and is what makes pruning effective.
+     */
+    private void load(Connection connection, int rows) throws Exception {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("""
+                    INSERT INTO messages (message_id, conversation_id, sender_id, content, status, created_at)
+                    SELECT g,
+                           g %% %d,
+                           g %% 2,
+                           'message ' || g,
+                           CASE WHEN g %% 7 = 0 THEN 'SENT' ELSE 'READ' END,
+                           date_trunc('month', now()) - interval '%d months'
+                               + ((g %% %d)::double precision / %d) * interval '%d months'
+                               + (random() * interval '20 days')
+                    FROM generate_series(1, %d) g
+                    """.formatted(CONVERSATIONS, MONTHS - 1, CONVERSATIONS, CONVERSATIONS, MONTHS - 1, rows));
+            statement.execute("ANALYZE messages");
+        }
+    }
+
+    private double[] measure(Connection connection) throws Exception {
+        String history = "SELECT * FROM messages WHERE conversation_id = ? AND created_at >= ? ORDER BY created_at";
+        String unread = "SELECT * FROM messages WHERE conversation_id = ? AND created_at >= ? AND sender_id <> ? AND status <> 'READ'";
+        String last = "SELECT * FROM messages WHERE conversation_id = ? AND created_at >= ? ORDER BY created_at DESC LIMIT 1";
+
+        double[] totals = new double[3];
+        String[] queries = {history, unread, last};
+        for (int q = 0; q < queries.length; q++) {
+            try (PreparedStatement statement = connection.prepareStatement(queries[q])) {
+                for (int i = 0; i < ITERATIONS; i++) {
+                    int conversationId = (i * 37) % CONVERSATIONS;
+                    statement.setInt(1, conversationId);
+                    statement.setTimestamp(2, Timestamp.valueOf(conversationStart(conversationId)));
+                    if (q == 1) {
+                        statement.setInt(3, 0);
+                    }
+
+                    long start = System.nanoTime();
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        while (resultSet.next()) {
+                            resultSet.getLong(1);
+                        }
+                    }
+                    totals[q] += (System.nanoTime() - start) / 1e6;
+                }
+            }
+        }
+
+        for (int q = 0; q < totals.length; q++) {
+            totals[q] /= ITERATIONS;
+        }
+        return totals;
+    }
+
+    // Same lower bound the application derives from Conversation.createdAt
+    private LocalDateTime conversationStart(int conversationId) {
+        double fraction = (double) conversationId / CONVERSATIONS;
+        LocalDateTime start = YearMonth.now().minusMonths(MONTHS - 1).atDay(1).atStartOfDay();
+        long spanSeconds = Duration.between(start, start.plusMonths(MONTHS - 1)).getSeconds();
+        return start.plusSeconds((long) (fraction * spanSeconds)).minusDays(1);
+    }
+}
@@ -0,0 +1,77 @@
+package org.devconnect.devconnectbackend.config;
+
+import org.devconnect.devconnectbackend.exception.ConnectionRejectedException;
+import org.devconnect.devconnectbackend.repository.UserRepository;
+import org.devconnect.devconnectbackend.service.ConnectionAdmissionService;
+import org.devconnect.devconnectbackend.service.JWTService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Connection Admission Interceptor Tests")
+class ConnectionAdmissionInterceptorTest {
+
+    @Mock
+    private JWTService jwtService;
+
+    @Mock
+    private UserRepository userRepository;
+
+    private ConnectionAdmissionService admissionService;
+    private ConnectionAdmissionInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        admissionService = new ConnectionAdmissionService(10, 10, 0, 60000, 60);
+        interceptor = new ConnectionAdmissionInterceptor(admissionService, jwtService, userRepository);
+    }
+
+    @Test
+    @DisplayName("Should record the admission under the user id from the token")
+    void testAdmissionKeyedByTokenUserId() {
+        when(jwtService.isTokenValid("token")).thenReturn(true);
+        when(jwtService.extractUserId("token")).thenReturn(42);
+
+        interceptor.preSend(connect("Authorization", "Bearer token"), null);
+
+        assertTrue(admissionService.isRecentlyAdmitted(42));
+    }
+
+    @Test
+    @DisplayName("Should ignore a client-supplied userId header")
+    void testUserIdHeaderIgnored() {
+        interceptor.preSend(connect("userId", "42"), null);
+
+        assertFalse(admissionService.isRecentlyAdmitted(42));
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    @DisplayName("Should reject a CONNECT before reading its token")
+    void testRejectedBeforeTokenCheck() {
+        interceptor = new ConnectionAdmissionInterceptor(new ConnectionAdmissionService(1, 0, 0, 60000, 60),
+                jwtService, userRepository);
+
+        assertThrows(ConnectionRejectedException.class,
+                () -> interceptor.preSend(connect("Authorization", "Bearer token"), null));
+
+        verifyNoInteractions(jwtService, userRepository);
+    }
+
+    private static Message<byte[]> connect(String header, String value) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.CONNECT);
+        accessor.setNativeHeader(header, value);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
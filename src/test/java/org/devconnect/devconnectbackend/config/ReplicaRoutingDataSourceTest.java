@@ -0,0 +1,115 @@
+package org.devconnect.devconnectbackend.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Replica Routing Data Source Tests")
+class ReplicaRoutingDataSourceTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactions;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    // Two H2 databases, each knowing its own name
+    private void setUp(long stickyWindowMs) {
+        DataSource primary = database("primary");
+        DataSource replica = database("replica");
+        DataSource dataSource = new LazyConnectionDataSourceProxy(
+                new ReplicaRoutingDataSource(primary, List.of(replica), stickyWindowMs, "test.service."));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactions = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    private static DataSource database(String name) {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:routing-" + name + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(20))");
+        jdbc.execute("DELETE FROM node");
+        jdbc.update("INSERT INTO node (name) VALUES (?)", name);
+        return dataSource;
+    }
+
+    private String node(boolean readOnly) {
+        return node(readOnly, "test.service.Reader.read");
+    }
+
+    private String node(boolean readOnly, String transactionName) {
+        transactions.setReadOnly(readOnly);
+        transactions.setName(transactionName);
+        return transactions.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM node", String.class));
+    }
+
+    private static void login(String email) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(email, null, List.of()));
+    }
+
+    @Test
+    @DisplayName("Should send read-only transactions to the replica and the rest to the primary")
+    void testRouting() {
+        setUp(2000);
+
+        assertEquals("replica", node(true));
+        assertEquals("primary", node(false));
+        assertEquals("primary", jdbcTemplate.queryForObject("SELECT name FROM node", String.class));
+    }
+
+    @Test
+    @DisplayName("Should keep read-only transactions that did not opt in on the primary")
+    void testRepositoryTransactionsStayOnPrimary() {
+        setUp(2000);
+
+        assertEquals("primary", node(true, "org.springframework.data.jpa.repository.support.SimpleJpaRepository.findById"));
+        assertEquals("primary", node(true, null));
+    }
+
+    @Test
+    @DisplayName("Should keep a user's reads on the primary right after their write")
+    void testReadYourWrites() {
+        setUp(60_000);
+
+        login("alice@test.com");
+        assertEquals("replica", node(true));
+        node(false);
+        assertEquals("primary", node(true));
+
+        login("bob@test.com");
+        assertEquals("replica", node(true));
+    }
+
+    @Test
+    @DisplayName("Should go back to the replica after the window")
+    void testStickyWindowExpires() {
+        setUp(0);
+
+        login("alice@test.com");
+        node(false);
+        assertEquals("replica", node(true));
+    }
+
+    @Test
+    @DisplayName("Should read from the primary when asked to")
+    void testOnPrimary() {
+        setUp(2000);
+
+        assertEquals("primary", ReplicaRoutingDataSource.onPrimary(() -> node(true)));
+        assertEquals("replica", node(true));
+    }
+}
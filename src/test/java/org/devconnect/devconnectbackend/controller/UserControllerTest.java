@@ -127,15 +127,16 @@ public class UserControllerTest {
         user2.setUserRole(User.UserRole.CLIENT);
 
         List<UserResponseDTO> users = Arrays.asList(testUserResponse, user2);
-        when(userService.getAllUsers()).thenReturn(users);
+        when(userService.getUsersPage(null, null, 100)).thenReturn(new PageDTO<>(users, "next"));
 
-        ResponseEntity<List<UserResponseDTO>> response = userController.getUsers();
+        ResponseEntity<List<UserResponseDTO>> response = userController.getUsers(null, 100);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
         assertEquals(2, response.getBody().size());
+        assertEquals("next", response.getHeaders().getFirst("X-Next-Cursor"));
         
-        verify(userService).getAllUsers();
+        verify(userService).getUsersPage(null, null, 100);
     }
 
     @Test
@@ -161,4 +162,42 @@ public class UserControllerTest {
         
         verify(userService).deleteUser(1);
     }
+
+    @Test
+    @DisplayName("Should return a page of search results with the next cursor")
+    void testSearchUsers() {
+        when(userService.searchUsers("test", User.UserRole.DEVELOPER, 20, null))
+                .thenReturn(new UserSearchResultDTO(List.of(testUserResponse), "next"));
+
+        ResponseEntity<List<UserResponseDTO>> response = userController.searchUsers("test", User.UserRole.DEVELOPER, 20, null);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of(testUserResponse), response.getBody());
+        assertEquals("next", response.getHeaders().getFirst("X-Next-Cursor"));
+    }
+
+    @Test
+    @DisplayName("Should reject an invalid search cursor")
+    void testSearchUsersInvalidCursor() {
+        when(userService.searchUsers("test", null, 20, "bad"))
+                .thenThrow(new IllegalArgumentException("Invalid search cursor"));
+
+        ResponseEntity<List<UserResponseDTO>> response = userController.searchUsers("test", null, 20, "bad");
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    @DisplayName("Should get several users at once")
+    void testGetUsersByIds() {
+        when(userService.getUsersByIds(List.of(1, 42)))
+                .thenReturn(new BatchResultDTO<>(List.of(testUserResponse), List.of(42)));
+
+        ResponseEntity<BatchResultDTO<UserResponseDTO, Integer>> response = userController.getUsersByIds(List.of(1, 42));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals(List.of(testUserResponse), response.getBody().getItems());
+        assertEquals(List.of(42), response.getBody().getMissingIds());
+    }
 }
@@ -0,0 +1,87 @@
+package org.devconnect.devconnectbackend.repository;
+
+import org.devconnect.devconnectbackend.dto.DeveloperResponseDTO;
+import org.devconnect.devconnectbackend.model.Developer;
+import org.devconnect.devconnectbackend.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@DisplayName("Developer Projection Tests")
+class DeveloperRepositoryTest {
+
+    @Autowired
+    private DeveloperRepository developerRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+    private Developer developer;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setFirstName("Projection");
+        user.setLastName("Test");
+        user.setEmail("projection@test.com");
+        user.setPasswordHash("password123");
+        user.setUserRole(User.UserRole.DEVELOPER);
+        user = userRepository.save(user);
+
+        developer = new Developer();
+        developer.setUserId(user.getUserId());
+        developer.setUsername("projection_dev");
+        developer.setSkills("Java, 100%_Kotlin");
+        developer.setHourlyRate(new BigDecimal("42.00"));
+        developer = developerRepository.save(developer);
+    }
+
+    @AfterEach
+    void tearDown() {
+        developerRepository.deleteById(developer.getDeveloperId());
+        userRepository.deleteById(user.getUserId());
+    }
+
+    @Test
+    @DisplayName("Should read developer and user columns in one projection")
+    void testFindDTOsByIds() {
+        List<DeveloperResponseDTO> developers = developerRepository.findDTOsByIds(Set.of(developer.getDeveloperId()));
+
+        assertEquals(1, developers.size());
+        DeveloperResponseDTO dto = developers.get(0);
+        assertEquals(developer.getDeveloperId(), dto.getDeveloperId());
+        assertEquals("projection_dev", dto.getUsername());
+        assertEquals("projection@test.com", dto.getEmail());
+        assertEquals("Projection", dto.getFirstName());
+        assertEquals(User.UserStatus.OFFLINE, dto.getUserStatus());
+        assertEquals(0, new BigDecimal("42.00").compareTo(dto.getHourlyRate()));
+    }
+
+    @Test
+    @DisplayName("Should treat wildcards in the skill pattern literally")
+    void testFindDTOsBySkillsLike() {
+        assertTrue(developerRepository.findDTOsBySkillsLike("%100!%!_kotlin%").stream()
+                .anyMatch(dto -> dto.getDeveloperId().equals(developer.getDeveloperId())));
+        assertTrue(developerRepository.findDTOsBySkillsLike("%100!%!_!_kotlin%").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should filter by hourly rate range")
+    void testFindDTOsByHourlyRateBetween() {
+        assertTrue(developerRepository.findDTOsByHourlyRateBetween(new BigDecimal("40"), new BigDecimal("45")).stream()
+                .anyMatch(dto -> dto.getDeveloperId().equals(developer.getDeveloperId())));
+        assertTrue(developerRepository.findDTOsByHourlyRateBetween(new BigDecimal("43"), new BigDecimal("45")).stream()
+                .noneMatch(dto -> dto.getDeveloperId().equals(developer.getDeveloperId())));
+    }
+}
@@ -0,0 +1,131 @@
+package org.devconnect.devconnectbackend.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.devconnect.devconnectbackend.dto.MessageDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Message Journal Tests")
+class MessageJournalTest {
+
+    private static final int SEGMENT_SIZE = 4096;
+
+    @TempDir
+    Path directory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private MessageJournal journal;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        journal = open();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        journal.close();
+    }
+
+    @Test
+    @DisplayName("Should read appended messages in order until checkpointed")
+    void testAppendAndCheckpoint() {
+        journal.append(message("m1", "First"));
+        journal.append(message("m2", "Second"));
+
+        List<MessageJournal.Entry> entries = journal.read(10);
+        assertEquals(List.of("m1", "m2"), entries.stream().map(e -> e.message().getClientMessageId()).toList());
+        assertEquals("First", entries.get(0).message().getText());
+
+        journal.checkpoint(entries.get(0));
+
+        assertEquals(List.of("m2"), journal.read(10).stream().map(e -> e.message().getClientMessageId()).toList());
+        journal.checkpoint(entries.get(1));
+        assertFalse(journal.hasEntries());
+    }
+
+    @Test
+    @DisplayName("Should resume from the checkpoint after a restart")
+    void testRecoverAfterRestart() throws Exception {
+        journal.append(message("m1", "First"));
+        journal.append(message("m2", "Second"));
+        journal.checkpoint(journal.read(1).get(0));
+        journal.close();
+
+        journal = open();
+        journal.append(message("m3", "Third"));
+
+        assertEquals(List.of("m2", "m3"), journal.read(10).stream().map(e -> e.message().getClientMessageId()).toList());
+    }
+
+    @Test
+    @DisplayName("Should roll over to new segments and delete replayed ones")
+    void testSegmentRollover() throws Exception {
+        String text = "x".repeat(1000);
+        for (int i = 0; i < 10; i++) {
+            journal.append(message("m" + i, text));
+        }
+
+        List<MessageJournal.Entry> entries = journal.read(100);
+        assertEquals(10, entries.size());
+        assertTrue(segmentCount() > 1);
+
+        journal.checkpoint(entries.get(9));
+        assertEquals(1, segmentCount());
+        assertTrue(journal.read(100).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should cut off a torn record at the tail on restart")
+    void testTornWrite() throws Exception {
+        journal.append(message("m1", "First"));
+        int end = journal.read(1).get(0).nextOffset();
+        journal.close();
+
+        // A length and half a payload, as left by a crash in the middle of an append
+        try (RandomAccessFile file = new RandomAccessFile(directory.resolve("segment-%020d.log".formatted(0)).toFile(), "rw")) {
+            file.seek(end);
+            file.writeInt(100);
+            file.writeInt(12345);
+            file.write("{\"clientMess".getBytes());
+        }
+
+        journal = open();
+        assertEquals(1, journal.read(10).size());
+
+        journal.append(message("m2", "Second"));
+        assertEquals(List.of("m1", "m2"), journal.read(10).stream().map(e -> e.message().getClientMessageId()).toList());
+    }
+
+    private MessageJournal open() throws Exception {
+        MessageJournal opened = new MessageJournal(directory, SEGMENT_SIZE, objectMapper);
+        opened.open();
+        return opened;
+    }
+
+    private long segmentCount() throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().startsWith("segment-")).count();
+        }
+    }
+
+    private MessageDTO message(String clientMessageId, String text) {
+        MessageDTO message = new MessageDTO();
+        message.setSenderId(1L);
+        message.setReceiverId(2L);
+        message.setText(text);
+        message.setClientMessageId(clientMessageId);
+        return message;
+    }
+}
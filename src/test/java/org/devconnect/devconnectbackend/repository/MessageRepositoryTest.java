@@ -0,0 +1,115 @@
+package org.devconnect.devconnectbackend.repository;
+
+import org.devconnect.devconnectbackend.dto.ConversationRowDTO;
+import org.devconnect.devconnectbackend.model.Conversation;
+import org.devconnect.devconnectbackend.model.Message;
+import org.devconnect.devconnectbackend.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@DisplayName("Message Repository Tests")
+class MessageRepositoryTest {
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private ConversationRepository conversationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user1;
+    private User user2;
+    private User user3;
+    private Conversation withMessages;
+    private Conversation empty;
+
+    @BeforeEach
+    void setUp() {
+        user1 = userRepository.save(newUser("cold1@test.com"));
+        user2 = userRepository.save(newUser("cold2@test.com"));
+        user3 = userRepository.save(newUser("cold3@test.com"));
+        withMessages = conversationRepository.save(newConversation(user1, user2));
+        empty = conversationRepository.save(newConversation(user1, user3));
+
+        Message message = new Message();
+        message.setConversation(withMessages);
+        message.setSender(user1);
+        message.setContent("Hello");
+        messageRepository.save(message);
+    }
+
+    @AfterEach
+    void tearDown() {
+        messageRepository.deleteAll(messageRepository.findByConversationConversationIdAndCreatedAtGreaterThanEqualOrderByCreatedAtAsc(
+                withMessages.getConversationId(), LocalDateTime.of(1970, 1, 1, 0, 0)));
+        conversationRepository.deleteAll(List.of(withMessages, empty));
+        userRepository.deleteAll(List.of(user1, user2, user3));
+    }
+
+    @Test
+    @DisplayName("Should find conversations whose messages are all older than the cutoff")
+    void testFindColdConversationIds() {
+        List<Integer> cold = messageRepository.findColdConversationIds(LocalDateTime.now().plusMinutes(1), PageRequest.of(0, 100));
+        List<Integer> active = messageRepository.findColdConversationIds(LocalDateTime.now().minusMinutes(1), PageRequest.of(0, 100));
+
+        assertTrue(cold.contains(withMessages.getConversationId()));
+        assertFalse(cold.contains(empty.getConversationId()), "nothing to archive in an empty conversation");
+        assertFalse(active.contains(withMessages.getConversationId()));
+    }
+
+    @Test
+    @DisplayName("Should page a user's chats by latest activity and count unread messages in the database")
+    void testInboxQueries() {
+        List<Integer> order = conversationRepository.findRowsByUserOrderByActivity(user1.getUserId(), PageRequest.of(0, 10))
+                .stream().map(ConversationRowDTO::getConversationId).toList();
+        List<ConversationRowDTO> firstPage = conversationRepository.findRowsByUserOrderByActivity(user1.getUserId(), PageRequest.of(0, 1));
+
+        // The empty conversation is newer, but the other one has a message after it
+        assertEquals(List.of(withMessages.getConversationId(), empty.getConversationId()), order);
+        assertEquals(1, firstPage.size());
+        assertEquals(user2.getUserId(), firstPage.get(0).getOtherUserId());
+
+        LocalDateTime since = LocalDateTime.of(1970, 1, 1, 0, 0);
+        List<Object[]> lastMessages = messageRepository.findLastMessages(
+                List.of(withMessages.getConversationId(), empty.getConversationId()), since);
+        assertEquals(1, lastMessages.size());
+        assertEquals("Hello", lastMessages.get(0)[1]);
+
+        Object[] unreadForReceiver = messageRepository.countUnreadTotals(user2.getUserId()).get(0);
+        Object[] unreadForSender = messageRepository.countUnreadTotals(user1.getUserId()).get(0);
+        assertEquals(1L, ((Number) unreadForReceiver[0]).longValue());
+        assertEquals(1L, ((Number) unreadForReceiver[1]).longValue());
+        assertEquals(0L, ((Number) unreadForSender[0]).longValue());
+        assertEquals(1, messageRepository.countUnreadMessages(List.of(withMessages.getConversationId()), user2.getUserId(), since).size());
+    }
+
+    private static Conversation newConversation(User first, User second) {
+        Conversation conversation = new Conversation();
+        conversation.setUser1(first);
+        conversation.setUser2(second);
+        return conversation;
+    }
+
+    private static User newUser(String email) {
+        User newUser = new User();
+        newUser.setFirstName("Cold");
+        newUser.setLastName("Test");
+        newUser.setEmail(email);
+        newUser.setPasswordHash("password123");
+        newUser.setUserRole(User.UserRole.CLIENT);
+        return newUser;
+    }
+}
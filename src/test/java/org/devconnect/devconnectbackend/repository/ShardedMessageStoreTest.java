@@ -0,0 +1,197 @@
+package org.devconnect.devconnectbackend.repository;
+
+import org.devconnect.devconnectbackend.model.Conversation;
+import org.devconnect.devconnectbackend.model.Message;
+import org.devconnect.devconnectbackend.model.User;
+import org.devconnect.devconnectbackend.service.ShardRebalanceService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Sharded Message Store Tests")
+class ShardedMessageStoreTest {
+
+    private DataSource primary;
+    private List<DataSource> shards;
+    private ShardedMessageStore store;
+
+    @BeforeEach
+    void setUp() {
+        // Fresh in-memory databases per test: one primary and three shards
+        String prefix = UUID.randomUUID().toString();
+        primary = h2(prefix + "-primary");
+        shards = new ArrayList<>(List.of(h2(prefix + "-shard0"), h2(prefix + "-shard1"), h2(prefix + "-shard2")));
+        store = newStore(shards);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        store.close();
+    }
+
+    @Test
+    @DisplayName("Should move only about 1/(n+1) of keys to the new bucket when growing")
+    void testJumpHashIsConsistent() {
+        int keys = 10_000;
+        int moved = 0;
+        for (int key = 0; key < keys; key++) {
+            int before = ShardedMessageStore.jumpHash(key, 4);
+            int after = ShardedMessageStore.jumpHash(key, 5);
+            assertTrue(before >= 0 && before < 4);
+            if (before != after) {
+                assertEquals(4, after);
+                moved++;
+            }
+        }
+
+        assertEquals(keys / 5.0, moved, keys * 0.02);
+    }
+
+    @Test
+    @DisplayName("Should place a conversation on its hashed shard and keep its messages there")
+    void testConversationAndMessagesRoundTrip() {
+        Conversation conversation = store.createConversation(1, 2);
+        int expectedShard = ShardedMessageStore.jumpHash(conversation.getConversationId(), 3);
+
+        saveMessage(conversation, 1, "Hello Jane!");
+        saveMessage(conversation, 2, "Hi John!");
+
+        assertEquals(1, countOnShard(expectedShard, "conversations"));
+        assertEquals(2, countOnShard(expectedShard, "messages"));
+        assertEquals(conversation.getConversationId(),
+                store.findConversationByUsers(2, 1).orElseThrow().getConversationId());
+
+        List<Message> messages = store.findMessages(conversation);
+        assertEquals(List.of("Hello Jane!", "Hi John!"), messages.stream().map(Message::getContent).toList());
+        assertEquals(1, store.findUnreadMessages(conversation, 1).size());
+
+        Message read = messages.get(1);
+        read.setStatus(Message.MessageStatus.READ);
+        read.setReadAt(LocalDateTime.now());
+        store.updateMessage(read);
+
+        assertTrue(store.findUnreadMessages(conversation, 1).isEmpty());
+        assertEquals(Message.MessageStatus.READ, store.findMessage(read.getMessageId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    @DisplayName("Should list a user's conversations across all shards")
+    void testChatSummariesAcrossShards() {
+        for (int other = 2; other <= 21; other++) {
+            Conversation conversation = store.createConversation(1, other);
+            saveMessage(conversation, other, "First from " + other);
+            saveMessage(conversation, other, "Last from " + other);
+        }
+        store.createConversation(30, 31);
+
+        List<ShardedMessageStore.ChatSummary> summaries = store.findChatSummaries(1);
+
+        assertEquals(20, summaries.size());
+        for (ShardedMessageStore.ChatSummary summary : summaries) {
+            Integer other = summary.conversation().getUser2().getUserId();
+            assertEquals("Last from " + other, summary.lastMessage().getContent());
+            assertEquals(2, summary.unreadCount());
+        }
+        for (int shard = 0; shard < 3; shard++) {
+            assertTrue(countOnShard(shard, "conversations") > 0, "Expected conversations on shard " + shard);
+        }
+    }
+
+    @Test
+    @DisplayName("Should move conversations to a newly added shard when rebalancing")
+    void testRebalanceAfterAddingShard() throws Exception {
+        List<Integer> conversationIds = new ArrayList<>();
+        for (int other = 2; other <= 41; other++) {
+            Conversation conversation = store.createConversation(1, other);
+            saveMessage(conversation, 1, "Hello " + other);
+            conversationIds.add(conversation.getConversationId());
+        }
+
+        store.close();
+        shards.add(h2(UUID.randomUUID() + "-shard3"));
+        store = newStore(shards);
+
+        int moved = new ShardRebalanceService(store).rebalance();
+
+        assertTrue(moved > 0);
+        assertEquals(moved, countOnShard(3, "conversations"));
+        for (Integer conversationId : conversationIds) {
+            assertEquals(ShardedMessageStore.jumpHash(conversationId, 4),
+                    store.findShardAssignments().get(conversationId));
+            Conversation conversation = store.findConversation(conversationId).orElseThrow();
+            assertEquals(1, store.findMessages(conversation).size());
+        }
+        int total = 0;
+        for (int shard = 0; shard < 4; shard++) {
+            total += countOnShard(shard, "messages");
+        }
+        assertEquals(conversationIds.size(), total);
+    }
+
+    @Test
+    @DisplayName("Should copy conversations written before sharding to their shards")
+    void testBackfillFromPrimary() {
+        // The tables JPA writes to on the main database when sharding is off
+        JdbcTemplate jdbc = new JdbcTemplate(primary);
+        jdbc.execute("CREATE TABLE conversations (conversation_id INTEGER PRIMARY KEY, user1_id INTEGER NOT NULL, "
+                + "user2_id INTEGER NOT NULL, created_at TIMESTAMP NOT NULL)");
+        jdbc.execute("CREATE TABLE messages (message_id INTEGER PRIMARY KEY, conversation_id INTEGER NOT NULL, "
+                + "sender_id INTEGER NOT NULL, content TEXT NOT NULL, content_compressed BYTEA, attachment_id INTEGER, "
+                + "created_at TIMESTAMP NOT NULL, edited_at TIMESTAMP, is_deleted BOOLEAN NOT NULL, "
+                + "status VARCHAR(16) NOT NULL, delivered_at TIMESTAMP, read_at TIMESTAMP)");
+        jdbc.update("INSERT INTO conversations VALUES (7, 1, 2, CURRENT_TIMESTAMP)");
+        jdbc.update("INSERT INTO messages (message_id, conversation_id, sender_id, content, created_at, is_deleted, status) "
+                + "VALUES (70, 7, 1, 'Hello Jane!', CURRENT_TIMESTAMP, FALSE, 'READ')");
+        jdbc.update("INSERT INTO messages (message_id, conversation_id, sender_id, content, created_at, is_deleted, status) "
+                + "VALUES (71, 7, 2, 'Hi John!', CURRENT_TIMESTAMP, FALSE, 'SENT')");
+
+        assertEquals(1, store.countUnshardedConversations());
+        assertEquals(1, store.backfillFromPrimary());
+
+        assertEquals(0, store.countUnshardedConversations());
+        Conversation conversation = store.findConversationByUsers(2, 1).orElseThrow();
+        assertEquals(7, conversation.getConversationId());
+        assertEquals(ShardedMessageStore.jumpHash(7, 3), store.findShardAssignments().get(7));
+        assertEquals(2, store.findMessages(conversation).size());
+        assertEquals(1, store.findUnreadMessages(conversation, 1).size());
+    }
+
+    private ShardedMessageStore newStore(List<DataSource> shardDataSources) {
+        ShardedMessageStore newStore = new ShardedMessageStore(primary, shardDataSources, new DataSourceTransactionManager(primary));
+        newStore.initialize();
+        return newStore;
+    }
+
+    private void saveMessage(Conversation conversation, Integer senderId, String content) {
+        User sender = new User();
+        sender.setUserId(senderId);
+
+        Message message = new Message();
+        message.setConversation(conversation);
+        message.setSender(sender);
+        message.setContent(content);
+        message.setStatus(Message.MessageStatus.SENT);
+        message.setCreatedAt(LocalDateTime.now());
+        store.saveMessage(message);
+    }
+
+    private int countOnShard(int shard, String table) {
+        return new JdbcTemplate(shards.get(shard)).queryForObject("SELECT COUNT(*) FROM " + table, Integer.class);
+    }
+
+    private static DataSource h2(String name) {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+    }
+}
@@ -0,0 +1,131 @@
+package org.devconnect.devconnectbackend.repository;
+
+import org.devconnect.devconnectbackend.model.Developer;
+import org.devconnect.devconnectbackend.model.User;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "org.devconnect.devconnectbackend.repository.SparseFieldsetRepositoryTest$SqlCapture")
+@Import(SparseFieldsetRepository.class)
+@DisplayName("Sparse Fieldset Repository Tests")
+class SparseFieldsetRepositoryTest {
+
+    private static final Pattern USERS_TABLE = Pattern.compile("\\busers\\b");
+
+    @Autowired
+    private SparseFieldsetRepository sparseFieldsetRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DeveloperRepository developerRepository;
+
+    private User user;
+    private Developer developer;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setFirstName("Sparse");
+        user.setLastName("Test");
+        user.setEmail("sparse@test.com");
+        user.setPasswordHash("password123");
+        user.setUserRole(User.UserRole.DEVELOPER);
+        user = userRepository.save(user);
+
+        developer = new Developer();
+        developer.setUserId(user.getUserId());
+        developer.setUsername("sparse_dev");
+        developer.setBio("A long bio that should only be read when asked for");
+        developer.setHourlyRate(new BigDecimal("42.00"));
+        developer = developerRepository.saveAndFlush(developer);
+
+        SqlCapture.statements.clear();
+    }
+
+    @Test
+    @DisplayName("Should read only the selected user columns, in selection order")
+    void testFindUsers() {
+        List<Map<String, Object>> rows = sparseFieldsetRepository.findUsers(
+                fields("email", "userId"), user.getUserId(), null, 0, PageRequest.of(0, 10));
+
+        assertEquals(1, rows.size());
+        assertEquals(List.of("email", "userId"), List.copyOf(rows.get(0).keySet()));
+        assertEquals("sparse@test.com", rows.get(0).get("email"));
+        assertEquals(user.getUserId(), rows.get(0).get("userId"));
+
+        String sql = lastSelect();
+        assertFalse(sql.contains("password_hash"), sql);
+        assertFalse(sql.contains("first_name"), sql);
+    }
+
+    @Test
+    @DisplayName("Should not join users when only developer fields are selected")
+    void testFindDevelopersWithoutUserFields() {
+        List<Map<String, Object>> rows = sparseFieldsetRepository.findDevelopers(
+                fields("developerId", "username"), developer.getDeveloperId(), 0, PageRequest.of(0, 10));
+
+        assertEquals(1, rows.size());
+        assertEquals(Set.of("developerId", "username"), rows.get(0).keySet());
+        assertEquals("sparse_dev", rows.get(0).get("username"));
+
+        String sql = lastSelect();
+        assertFalse(USERS_TABLE.matcher(sql).find(), sql);
+        assertFalse(sql.contains("bio"), sql);
+    }
+
+    @Test
+    @DisplayName("Should join users when a user field is selected")
+    void testFindDevelopersWithUserFields() {
+        List<Map<String, Object>> rows = sparseFieldsetRepository.findDevelopers(
+                fields("developerId", "email"), developer.getDeveloperId(), 0, PageRequest.of(0, 10));
+
+        assertEquals(1, rows.size());
+        assertEquals("sparse@test.com", rows.get(0).get("email"));
+        assertTrue(USERS_TABLE.matcher(lastSelect()).find());
+    }
+
+    private static Set<String> fields(String... fields) {
+        return new LinkedHashSet<>(List.of(fields));
+    }
+
+    private static String lastSelect() {
+        List<String> selects = SqlCapture.statements.stream()
+                .filter(sql -> sql.toLowerCase().startsWith("select"))
+                .toList();
+        assertFalse(selects.isEmpty(), "no query was run");
+        return selects.get(selects.size() - 1).toLowerCase();
+    }
+
+    /**
+     * Records every SQL statement Hibernate prepares
+     */
+    public static class SqlCapture implements StatementInspector {
+
+        static final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package org.devconnect.devconnectbackend.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.devconnect.devconnectbackend.model.User;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@DisplayName("User Email Lookup Tests")
+class UserEmailLookupTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User user;
+
+    @AfterEach
+    void tearDown() {
+        if (user != null) {
+            userRepository.deleteById(user.getUserId());
+        }
+    }
+
+    @Test
+    @DisplayName("Should serve repeated lookups from the second-level cache")
+    void testLookupUsesCache() {
+        user = userRepository.save(newUser("cached@test.com"));
+        userRepository.findByEmail("cached@test.com");
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long hits = statistics.getSecondLevelCacheHitCount();
+
+        assertEquals(user.getUserId(), userRepository.findByEmail("cached@test.com").orElseThrow().getUserId());
+        assertTrue(statistics.getSecondLevelCacheHitCount() > hits);
+    }
+
+    @Test
+    @DisplayName("Should find the user by the new email after it changes")
+    void testEmailChange() {
+        user = userRepository.save(newUser("old@test.com"));
+        userRepository.findByEmail("old@test.com");
+
+        User loaded = userRepository.findById(user.getUserId()).orElseThrow();
+        loaded.setEmail("new@test.com");
+        userRepository.save(loaded);
+
+        assertTrue(userRepository.findByEmail("old@test.com").isEmpty());
+        assertEquals(user.getUserId(), userRepository.findByEmail("new@test.com").orElseThrow().getUserId());
+    }
+
+    @Test
+    @DisplayName("Should return empty for unknown or null email")
+    void testUnknownEmail() {
+        assertTrue(userRepository.findByEmail("nobody@test.com").isEmpty());
+        assertTrue(userRepository.findByEmail(null).isEmpty());
+    }
+
+    private static User newUser(String email) {
+        User newUser = new User();
+        newUser.setFirstName("Cache");
+        newUser.setLastName("Test");
+        newUser.setEmail(email);
+        newUser.setPasswordHash("password123");
+        newUser.setUserRole(User.UserRole.CLIENT);
+        return newUser;
+    }
+}
@@ -0,0 +1,90 @@
+package org.devconnect.devconnectbackend.repository;
+
+import org.devconnect.devconnectbackend.dto.UserResponseDTO;
+import org.devconnect.devconnectbackend.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs UserRepository.search on H2, where the LIKE filters work without the PostgreSQL trigram indexes
+ */
+@DataJpaTest
+@DisplayName("User Search Repository Tests")
+class UserRepositorySearchTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User exact;
+    private User firstNamePrefix;
+    private User lastNamePrefix;
+    private User contains;
+
+    @BeforeEach
+    void setUp() {
+        // Saved in this order, so ids grow in this order
+        contains = userRepository.save(newUser("Joanna", "Smith", null, "joanna@test.com", User.UserRole.CLIENT));
+        firstNamePrefix = userRepository.save(newUser("Annabel", "Lee", null, "annabel@test.com", User.UserRole.CLIENT));
+        exact = userRepository.save(newUser("Anna", "Karenina", "anna", "a.k@test.com", User.UserRole.CLIENT));
+        lastNamePrefix = userRepository.save(newUser("Kofi", "Annan", null, "kofi@test.com", User.UserRole.DEVELOPER));
+        userRepository.save(newUser("Annika", "Berg", null, "annika@test.com", User.UserRole.CLIENT));
+    }
+
+    @Test
+    @DisplayName("Should order matches by rank, then by id")
+    void testRankOrder() {
+        List<Object[]> rows = search(null, -1, 0, 10);
+
+        assertEquals(List.of(exact.getUserId(), firstNamePrefix.getUserId(), lastNamePrefix.getUserId(), contains.getUserId()),
+                ids(rows));
+        assertEquals(List.of(0, 1, 1, 2), rows.stream().map(row -> ((Number) row[1]).intValue()).toList());
+    }
+
+    @Test
+    @DisplayName("Should continue after the last row's rank and id")
+    void testPageContinuation() {
+        List<Object[]> first = search(null, -1, 0, 2);
+        Object[] last = first.get(first.size() - 1);
+        List<Object[]> second = search(null, ((Number) last[1]).intValue(), ((UserResponseDTO) last[0]).getUserId(), 2);
+        Object[] secondLast = second.get(second.size() - 1);
+        List<Object[]> third = search(null, ((Number) secondLast[1]).intValue(), ((UserResponseDTO) secondLast[0]).getUserId(), 2);
+
+        assertEquals(List.of(exact.getUserId(), firstNamePrefix.getUserId()), ids(first));
+        // The second page starts inside rank 1, right after the row the first page ended on
+        assertEquals(List.of(lastNamePrefix.getUserId(), contains.getUserId()), ids(second));
+        assertTrue(third.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should filter by role")
+    void testRoleFilter() {
+        assertEquals(List.of(lastNamePrefix.getUserId()), ids(search(User.UserRole.DEVELOPER, -1, 0, 10)));
+    }
+
+    private List<Object[]> search(User.UserRole role, int afterRank, int afterId, int size) {
+        return userRepository.search("anna", "anna%", "%anna%", role, afterRank, afterId, PageRequest.of(0, size));
+    }
+
+    private static List<Integer> ids(List<Object[]> rows) {
+        return rows.stream().map(row -> ((UserResponseDTO) row[0]).getUserId()).toList();
+    }
+
+    private static User newUser(String firstName, String lastName, String username, String email, User.UserRole role) {
+        User newUser = new User();
+        newUser.setFirstName(firstName);
+        newUser.setLastName(lastName);
+        newUser.setUsername(username);
+        newUser.setEmail(email);
+        newUser.setPasswordHash("password123");
+        newUser.setUserRole(role);
+        return newUser;
+    }
+}
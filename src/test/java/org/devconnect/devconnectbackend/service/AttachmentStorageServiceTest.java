@@ -0,0 +1,132 @@
+package org.devconnect.devconnectbackend.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Attachment Storage Service Tests")
+class AttachmentStorageServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private AttachmentStorageService storageService;
+
+    @BeforeEach
+    void setUp() {
+        storageService = new AttachmentStorageService();
+        ReflectionTestUtils.setField(storageService, "storageDir", tempDir.toString());
+        storageService.init();
+    }
+
+    @Test
+    @DisplayName("Should hash chunks incrementally and store the object under its hash")
+    void testChunkedUploadIsContentAddressed() throws Exception {
+        byte[] first = "Hello, ".getBytes(StandardCharsets.UTF_8);
+        byte[] second = "attachment!".getBytes(StandardCharsets.UTF_8);
+
+        Path staging = storageService.createStagingFile("upload-1");
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        storageService.appendChunk(staging, 0, new ByteArrayInputStream(first), digest, 1024);
+        storageService.appendChunk(staging, first.length, new ByteArrayInputStream(second), digest, 1024);
+        String hash = HexFormat.of().formatHex(digest.digest());
+
+        String expected = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                .digest("Hello, attachment!".getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(expected, hash);
+        assertTrue(storageService.commit(staging, hash));
+        assertTrue(storageService.exists(hash));
+        assertFalse(Files.exists(staging));
+    }
+
+    @Test
+    @DisplayName("Should deduplicate identical uploads")
+    void testIdenticalUploadIsDeduplicated() throws Exception {
+        byte[] content = "same bytes".getBytes(StandardCharsets.UTF_8);
+
+        String firstHash = upload("a", content);
+        Path secondStaging = storageService.createStagingFile("b");
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        storageService.appendChunk(secondStaging, 0, new ByteArrayInputStream(content), digest, 1024);
+        String secondHash = HexFormat.of().formatHex(digest.digest());
+
+        assertEquals(firstHash, secondHash);
+        assertFalse(storageService.commit(secondStaging, secondHash));
+        assertFalse(Files.exists(secondStaging));
+    }
+
+    @Test
+    @DisplayName("Should transfer only the requested byte range")
+    void testRangeTransfer() throws Exception {
+        String hash = upload("range", "0123456789".getBytes(StandardCharsets.UTF_8));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        storageService.transferTo(hash, 3, 4, Channels.newChannel(out));
+
+        assertEquals("3456", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Should reject chunks beyond the size limit")
+    void testSizeLimit() throws Exception {
+        Path staging = storageService.createStagingFile("too-big");
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+
+        assertThrows(IllegalArgumentException.class, () ->
+                storageService.appendChunk(staging, 0, new ByteArrayInputStream(new byte[32]), digest, 16));
+    }
+
+    @Test
+    @DisplayName("Should cut off a chunk that fails part way, so a retry does not duplicate bytes")
+    void testFailedChunkIsRolledBack() throws Exception {
+        byte[] first = "Hello, ".getBytes(StandardCharsets.UTF_8);
+        byte[] second = "attachment!".getBytes(StandardCharsets.UTF_8);
+
+        Path staging = storageService.createStagingFile("retry");
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        storageService.appendChunk(staging, 0, new ByteArrayInputStream(first), digest, 1024);
+
+        // Delivers a few bytes of the chunk, then fails like a dropped connection
+        InputStream broken = new SequenceInputStream(new ByteArrayInputStream(second, 0, 4), new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("Connection reset");
+            }
+        });
+        MessageDigest failedCopy = (MessageDigest) digest.clone();
+        assertThrows(IOException.class, () -> storageService.appendChunk(staging, first.length, broken, failedCopy, 1024));
+        assertEquals(first.length, Files.size(staging));
+
+        storageService.appendChunk(staging, first.length, new ByteArrayInputStream(second), digest, 1024);
+        String expected = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                .digest("Hello, attachment!".getBytes(StandardCharsets.UTF_8)));
+        assertEquals(expected, HexFormat.of().formatHex(digest.digest()));
+        assertEquals("Hello, attachment!", Files.readString(staging));
+    }
+
+    private String upload(String uploadId, byte[] content) throws Exception {
+        Path staging = storageService.createStagingFile(uploadId);
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        storageService.appendChunk(staging, 0, new ByteArrayInputStream(content), digest, 1024);
+        String hash = HexFormat.of().formatHex(digest.digest());
+        storageService.commit(staging, hash);
+        return hash;
+    }
+}
@@ -0,0 +1,129 @@
+package org.devconnect.devconnectbackend.service;
+
+import org.devconnect.devconnectbackend.dto.BootstrapDTO;
+import org.devconnect.devconnectbackend.dto.ChatDTO;
+import org.devconnect.devconnectbackend.dto.UserResponseDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Bootstrap Service Tests")
+class BootstrapServiceTest {
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private ConversationService conversationService;
+
+    @Mock
+    private ProjectService projectService;
+
+    private BootstrapService bootstrapService;
+
+    @BeforeEach
+    void setUp() {
+        bootstrapService = new BootstrapService(userService, conversationService, projectService, 300, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        bootstrapService.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should return all parts with the first page of the inbox")
+    void testBootstrap() {
+        UserResponseDTO profile = new UserResponseDTO();
+        profile.setUserId(1);
+        when(userService.getUserById(1)).thenReturn(profile);
+        when(conversationService.getInbox(1, 2)).thenReturn(new ConversationService.Inbox(List.of(
+                chat(11L, LocalDateTime.of(2025, 1, 3, 10, 0), 0),
+                chat(12L, LocalDateTime.of(2025, 1, 2, 10, 0), 5)), true, 7, 2));
+        when(conversationService.getContactStatuses(1)).thenReturn(Map.of(2L, "online"));
+        when(projectService.getActiveProjectsForUser(1L)).thenReturn(List.of());
+
+        BootstrapDTO result = bootstrapService.bootstrap(1);
+
+        assertSame(profile, result.getProfile());
+        assertEquals(List.of(11L, 12L), result.getInbox().stream().map(ChatDTO::getId).toList());
+        assertTrue(result.isMoreChats());
+        assertEquals(7, result.getUnreadMessages());
+        assertEquals(2, result.getUnreadConversations());
+        assertEquals(Map.of(2L, "online"), result.getPresence());
+        assertEquals(List.of(), result.getActiveProjects());
+        assertTrue(result.getDegraded().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should leave out parts that are slow or fail")
+    void testDegradedParts() {
+        when(userService.getUserById(1)).thenReturn(new UserResponseDTO());
+        when(conversationService.getInbox(1, 2)).thenAnswer(invocation -> {
+            Thread.sleep(2000);
+            return null;
+        });
+        when(conversationService.getContactStatuses(1)).thenThrow(new RuntimeException("Database unavailable"));
+        when(projectService.getActiveProjectsForUser(1L)).thenReturn(List.of());
+
+        long start = System.nanoTime();
+        BootstrapDTO result = bootstrapService.bootstrap(1);
+
+        assertTrue(System.nanoTime() - start < 1_500_000_000L, "should not wait for the slow part");
+        assertNull(result.getInbox());
+        assertNull(result.getPresence());
+        assertNotNull(result.getActiveProjects());
+        assertEquals(List.of("inbox", "presence"), result.getDegraded());
+    }
+
+    @Test
+    @DisplayName("Should cancel parts that miss the deadline")
+    void testTimedOutPartIsCancelled() throws Exception {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        when(userService.getUserById(1)).thenReturn(new UserResponseDTO());
+        when(conversationService.getInbox(1, 2)).thenAnswer(invocation -> {
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return null;
+        });
+
+        BootstrapDTO result = bootstrapService.bootstrap(1);
+
+        assertEquals(List.of("inbox"), result.getDegraded());
+        assertTrue(interrupted.await(1, TimeUnit.SECONDS), "slow part should be interrupted");
+    }
+
+    @Test
+    @DisplayName("Should fail when the profile cannot be loaded")
+    void testMissingUser() {
+        when(userService.getUserById(1)).thenThrow(new RuntimeException("User not found"));
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> bootstrapService.bootstrap(1));
+        assertEquals("User not found", e.getMessage());
+    }
+
+    private ChatDTO chat(Long id, LocalDateTime lastMessageTime, int unreadCount) {
+        ChatDTO chat = new ChatDTO();
+        chat.setId(id);
+        chat.setLastMessageTime(lastMessageTime);
+        chat.setUnreadCount(unreadCount);
+        return chat;
+    }
+}
@@ -0,0 +1,121 @@
+package org.devconnect.devconnectbackend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.devconnect.devconnectbackend.listener.ConversationCreatedEvent;
+import org.devconnect.devconnectbackend.listener.InvalidationEvent;
+import org.devconnect.devconnectbackend.model.Project;
+import org.devconnect.devconnectbackend.model.User;
+import org.devconnect.devconnectbackend.utills.InvalidationCodec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Cache Invalidation Service Tests")
+class CacheInvalidationServiceTest {
+
+    private final LocalInvalidationBus bus = new LocalInvalidationBus();
+
+    private Node node1;
+    private Node node2;
+
+    // One application instance, all sharing the in-JVM bus
+    private record Node(CacheInvalidationService invalidation, ResourceVersionService resourceVersions,
+                        Cache cache, ContactAutocompleteService contacts, SimpleMeterRegistry meterRegistry) {
+    }
+
+    @BeforeEach
+    void setUp() {
+        node1 = node();
+        node2 = node();
+    }
+
+    private Node node() {
+        ResourceVersionService resourceVersions = new ResourceVersionService();
+        EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        Cache cache = mock(Cache.class);
+        when(entityManagerFactory.getCache()).thenReturn(cache);
+        ContactAutocompleteService contacts = mock(ContactAutocompleteService.class);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        CacheInvalidationService invalidation = new CacheInvalidationService(
+                bus, resourceVersions, entityManagerFactory, contacts, meterRegistry);
+        invalidation.start();
+        return new Node(invalidation, resourceVersions, cache, contacts, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should apply resource bumps on the other node")
+    void testResourceBump() {
+        String key = ResourceVersionService.project(5L);
+        String before1 = node1.resourceVersions().etag(key);
+        String before2 = node2.resourceVersions().etag(key);
+
+        node1.resourceVersions().bump(key);
+        node1.invalidation().flush();
+
+        assertNotEquals(before2, node2.resourceVersions().etag(key));
+        // Applying it does not send it back
+        node2.invalidation().flush();
+        assertEquals(before1.replace("-0\"", "-1\""), node1.resourceVersions().etag(key));
+    }
+
+    @Test
+    @DisplayName("Should evict changed entities and contacts on the other node only")
+    void testEntityEviction() {
+        node1.invalidation().entityChanged(Project.class, 5L);
+        node1.invalidation().entityChanged(User.class, 7);
+        node1.invalidation().onConversationCreated(new ConversationCreatedEvent(1, 7, 8));
+        node1.invalidation().flush();
+
+        verify(node2.cache()).evict(Project.class, 5L);
+        verify(node2.cache()).evict(User.class, 7);
+        verify(node2.contacts()).evict(7);
+        verify(node2.contacts()).evict(8);
+        verifyNoInteractions(node1.cache(), node1.contacts());
+    }
+
+    @Test
+    @DisplayName("Should send repeated changes in one batch once")
+    void testBatching() {
+        for (int i = 0; i < 10; i++) {
+            node1.invalidation().entityChanged(User.class, 7);
+        }
+        node1.invalidation().entityChanged(Project.class, 5L);
+        node1.invalidation().flush();
+        node1.invalidation().flush();
+
+        assertEquals(2, node1.meterRegistry().counter("cache_invalidation.events", "direction", "sent").count());
+        assertEquals(2, node2.meterRegistry().counter("cache_invalidation.events", "direction", "received").count());
+        assertEquals(1, node2.meterRegistry().timer("cache_invalidation.lag").count());
+    }
+
+    @Test
+    @DisplayName("Should drop everything after missed events")
+    void testGap() {
+        node2.invalidation().receive(InvalidationCodec.encode("peer", System.currentTimeMillis(),
+                List.of(new InvalidationEvent(InvalidationEvent.Type.USER, "1", 1)), 8000).getFirst());
+        verify(node2.cache()).evict(User.class, 1);
+
+        node2.invalidation().receive(InvalidationCodec.encode("peer", System.currentTimeMillis(),
+                List.of(new InvalidationEvent(InvalidationEvent.Type.USER, "2", 3)), 8000).getFirst());
+
+        verify(node2.cache()).evictAll();
+        verify(node2.contacts()).evictAll();
+        assertEquals(1, node2.meterRegistry().counter("cache_invalidation.resyncs").count());
+    }
+
+    @Test
+    @DisplayName("Should drop everything on an unreadable payload")
+    void testMalformedPayload() {
+        node2.invalidation().receive("garbage");
+
+        verify(node2.cache()).evictAll();
+    }
+}
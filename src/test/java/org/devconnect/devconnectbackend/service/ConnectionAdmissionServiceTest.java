@@ -0,0 +1,53 @@
+package org.devconnect.devconnectbackend.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Connection Admission Service Tests")
+class ConnectionAdmissionServiceTest {
+
+    @Test
+    @DisplayName("Should admit a burst and then ask clients to come back later")
+    void testTokenBucket() {
+        ConnectionAdmissionService admissionService = new ConnectionAdmissionService(1, 2, 0, 60000, 60);
+
+        assertEquals(0, admissionService.tryAdmit());
+        assertEquals(0, admissionService.tryAdmit());
+
+        long first = admissionService.tryAdmit();
+        long second = admissionService.tryAdmit();
+        assertTrue(first > 0 && first <= 1000, "first retry after " + first);
+        // The next rejected client gets the next slot, one interval later
+        assertTrue(second >= first + 900 && second <= 2000, "second retry after " + second);
+    }
+
+    @Test
+    @DisplayName("Should keep suggested delays within the maximum")
+    void testMaxRetryAfter() {
+        ConnectionAdmissionService admissionService = new ConnectionAdmissionService(1, 1, 500, 5000, 60);
+        admissionService.tryAdmit();
+
+        for (int i = 0; i < 50; i++) {
+            long retryAfter = admissionService.tryAdmit();
+            assertTrue(retryAfter > 0 && retryAfter <= 5000, "retry after " + retryAfter);
+        }
+    }
+
+    @Test
+    @DisplayName("Should remember admitted users for the bootstrap window")
+    void testRecentlyAdmitted() {
+        ConnectionAdmissionService admissionService = new ConnectionAdmissionService(10, 1, 0, 60000, 60);
+
+        assertEquals(0, admissionService.tryAdmit());
+        admissionService.recordAdmission(1);
+        admissionService.recordAdmission(null);
+        assertTrue(admissionService.tryAdmit() > 0, "the bucket holds one token");
+
+        assertTrue(admissionService.isRecentlyAdmitted(1));
+        assertFalse(admissionService.isRecentlyAdmitted(2));
+        assertFalse(admissionService.isRecentlyAdmitted(3));
+        assertFalse(admissionService.isRecentlyAdmitted(null));
+    }
+}
@@ -0,0 +1,118 @@
+package org.devconnect.devconnectbackend.service;
+
+import org.devconnect.devconnectbackend.dto.UserResponseDTO;
+import org.devconnect.devconnectbackend.dto.UserSearchResultDTO;
+import org.devconnect.devconnectbackend.listener.ConversationCreatedEvent;
+import org.devconnect.devconnectbackend.model.Conversation;
+import org.devconnect.devconnectbackend.model.User;
+import org.devconnect.devconnectbackend.repository.UserRepository;
+import org.devconnect.devconnectbackend.utills.UserMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Contact Autocomplete Service Tests")
+class ContactAutocompleteServiceTest {
+
+    @Mock
+    private ConversationService conversationService;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserService userService;
+
+    private ContactAutocompleteService autocompleteService;
+
+    private User me;
+    private User alice;
+    private User alan;
+    private User bob;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        autocompleteService = new ContactAutocompleteService(conversationService, userRepository, new UserMapper(), userService);
+        ReflectionTestUtils.setField(autocompleteService, "maxIndexedUsers", 100);
+        ReflectionTestUtils.setField(autocompleteService, "indexTtlMinutes", 30L);
+        autocompleteService.init();
+
+        me = user(1, "Me", "Myself", "me");
+        alice = user(2, "Alice", "Smith", "asmith");
+        alan = user(3, "Alan", "Turing", "alan");
+        bob = user(4, "Bob", "Alder", "bobby");
+
+        when(conversationService.getConversationEntitiesForUser(1))
+                .thenReturn(List.of(conversation(me, alice), conversation(alan, me)));
+        when(userRepository.findAllById(List.of(2, 3))).thenReturn(List.of(alice, alan));
+        when(userService.searchUsers(anyString(), isNull(), anyInt(), isNull()))
+                .thenReturn(new UserSearchResultDTO(List.of(), null));
+    }
+
+    @Test
+    @DisplayName("Should match contacts by name prefix, last name, full name and username")
+    void testPrefixMatch() {
+        assertEquals(List.of(3, 2), ids(autocompleteService.autocomplete(1, "al", 10, false)));
+        assertEquals(List.of(2), ids(autocompleteService.autocomplete(1, "Smi", 10, false)));
+        assertEquals(List.of(2), ids(autocompleteService.autocomplete(1, "alice  sm", 10, false)));
+        assertEquals(List.of(2), ids(autocompleteService.autocomplete(1, "asm", 10, false)));
+        assertTrue(autocompleteService.autocomplete(1, "bob", 10, false).isEmpty());
+
+        // The index is built once
+        verify(conversationService, times(1)).getConversationEntitiesForUser(1);
+        verifyNoInteractions(userService);
+    }
+
+    @Test
+    @DisplayName("Should fill up with global search results after the contacts")
+    void testFallback() {
+        UserMapper mapper = new UserMapper();
+        when(userService.searchUsers(eq("al"), isNull(), anyInt(), isNull())).thenReturn(new UserSearchResultDTO(
+                List.of(mapper.toUserResponseDTO(alice), mapper.toUserResponseDTO(bob)), null));
+
+        assertEquals(List.of(3, 2, 4), ids(autocompleteService.autocomplete(1, "al", 10, true)));
+        assertEquals(List.of(3, 2), ids(autocompleteService.autocomplete(1, "al", 2, true)));
+    }
+
+    @Test
+    @DisplayName("Should add the partner of a new conversation to a loaded index")
+    void testConversationCreated() {
+        autocompleteService.autocomplete(1, "b", 10, false);
+        when(userRepository.findAllById(List.of(1, 4))).thenReturn(List.of(me, bob));
+
+        autocompleteService.onConversationCreated(new ConversationCreatedEvent(10, 1, 4));
+
+        assertEquals(List.of(4), ids(autocompleteService.autocomplete(1, "bob", 10, false)));
+        assertEquals(List.of(3, 4, 2), ids(autocompleteService.autocomplete(1, "al", 10, false)));
+    }
+
+    private List<Integer> ids(List<UserResponseDTO> users) {
+        return users.stream().map(UserResponseDTO::getUserId).toList();
+    }
+
+    private User user(int id, String firstName, String lastName, String username) {
+        User user = new User();
+        user.setUserId(id);
+        user.setFirstName(firstName);
+        user.setLastName(lastName);
+        user.setUsername(username);
+        return user;
+    }
+
+    private Conversation conversation(User user1, User user2) {
+        Conversation conversation = new Conversation();
+        conversation.setUser1(user1);
+        conversation.setUser2(user2);
+        return conversation;
+    }
+}
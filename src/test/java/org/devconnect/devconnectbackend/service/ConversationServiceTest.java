@@ -1,10 +1,14 @@
 package org.devconnect.devconnectbackend.service;
 
 import org.devconnect.devconnectbackend.dto.ChatDTO;
+import org.devconnect.devconnectbackend.dto.ConversationRowDTO;
+import org.devconnect.devconnectbackend.dto.UserResponseDTO;
+import org.devconnect.devconnectbackend.listener.ConversationCreatedEvent;
 import org.devconnect.devconnectbackend.model.Conversation;
 import org.devconnect.devconnectbackend.model.Message;
 import org.devconnect.devconnectbackend.model.User;
 import org.devconnect.devconnectbackend.repository.ConversationRepository;
+import org.devconnect.devconnectbackend.repository.MessageArchiveSegmentRepository;
 import org.devconnect.devconnectbackend.repository.MessageRepository;
 import org.devconnect.devconnectbackend.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -13,6 +17,8 @@ import org.junit.jupiter.api.DisplayName;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
@@ -36,12 +42,22 @@ class ConversationServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private MessageArchiveSegmentRepository archiveSegmentRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ResourceVersionService resourceVersions;
+
     @InjectMocks
     private ConversationService conversationService;
 
     private User user1;
     private User user2;
     private Conversation testConversation;
+    private ConversationRowDTO testRow;
     private Message testMessage;
 
     @BeforeEach
@@ -71,6 +87,7 @@ class ConversationServiceTest {
         testConversation.setUser1(user1);
         testConversation.setUser2(user2);
         testConversation.setCreatedAt(LocalDateTime.now());
+        testRow = new ConversationRowDTO(1, 2, testConversation.getCreatedAt());
 
         // Create test message
         testMessage = new Message();
@@ -115,6 +132,7 @@ class ConversationServiceTest {
         verify(userRepository, times(1)).findById(1);
         verify(userRepository, times(1)).findById(2);
         verify(conversationRepository, times(1)).save(any(Conversation.class));
+        verify(eventPublisher, times(1)).publishEvent(any(ConversationCreatedEvent.class));
     }
 
     @Test
@@ -152,10 +170,11 @@ class ConversationServiceTest {
     @DisplayName("Should get conversations for user")
     void testGetConversationsForUser() {
         // Arrange
-        List<Conversation> conversations = Arrays.asList(testConversation);
-        when(conversationRepository.findAllByUser(1)).thenReturn(conversations);
-        when(messageRepository.findLastMessage(1)).thenReturn(testMessage);
-        when(messageRepository.findUnreadMessages(1, 1)).thenReturn(Collections.emptyList());
+        List<ConversationRowDTO> conversations = Arrays.asList(testRow);
+        when(conversationRepository.findRowsByUser(1)).thenReturn(conversations);
+        when(userRepository.findDTOsByIds(List.of(2))).thenReturn(List.of(userDTO(user2)));
+        when(messageRepository.findLastMessages(eq(List.of(1)), any(LocalDateTime.class))).thenReturn(lastMessageRows());
+        when(messageRepository.countUnreadMessages(eq(List.of(1)), eq(1), any(LocalDateTime.class))).thenReturn(Collections.emptyList());
 
         // Act
         List<ChatDTO> result = conversationService.getConversationsForUser(1);
@@ -172,19 +191,22 @@ class ConversationServiceTest {
         assertEquals("Hello!", chatDTO.getLastMessage());
         assertEquals(0, chatDTO.getUnreadCount());
 
-        verify(conversationRepository, times(1)).findAllByUser(1);
-        verify(messageRepository, times(1)).findLastMessage(1);
-        verify(messageRepository, times(1)).findUnreadMessages(1, 1);
+        verify(conversationRepository, times(1)).findRowsByUser(1);
+        verify(messageRepository, times(1)).findLastMessages(eq(List.of(1)), any(LocalDateTime.class));
+        verify(messageRepository, times(1)).countUnreadMessages(eq(List.of(1)), eq(1), any(LocalDateTime.class));
+        verify(archiveSegmentRepository, never()).findLastPreviews(any());
     }
 
     @Test
     @DisplayName("Should handle conversation with no messages")
     void testGetConversationsForUserNoMessages() {
         // Arrange
-        List<Conversation> conversations = Arrays.asList(testConversation);
-        when(conversationRepository.findAllByUser(1)).thenReturn(conversations);
-        when(messageRepository.findLastMessage(1)).thenReturn(null);
-        when(messageRepository.findUnreadMessages(1, 1)).thenReturn(Collections.emptyList());
+        List<ConversationRowDTO> conversations = Arrays.asList(testRow);
+        when(conversationRepository.findRowsByUser(1)).thenReturn(conversations);
+        when(userRepository.findDTOsByIds(List.of(2))).thenReturn(List.of(userDTO(user2)));
+        when(messageRepository.findLastMessages(eq(List.of(1)), any(LocalDateTime.class))).thenReturn(Collections.emptyList());
+        when(archiveSegmentRepository.findLastPreviews(List.of(1))).thenReturn(Collections.emptyList());
+        when(messageRepository.countUnreadMessages(eq(List.of(1)), eq(1), any(LocalDateTime.class))).thenReturn(Collections.emptyList());
 
         // Act
         List<ChatDTO> result = conversationService.getConversationsForUser(1);
@@ -259,7 +281,7 @@ class ConversationServiceTest {
     @DisplayName("Should return empty list when user has no conversations")
     void testGetConversationsForUserEmpty() {
         // Arrange
-        when(conversationRepository.findAllByUser(1)).thenReturn(Collections.emptyList());
+        when(conversationRepository.findRowsByUser(1)).thenReturn(Collections.emptyList());
 
         // Act
         List<ChatDTO> result = conversationService.getConversationsForUser(1);
@@ -267,21 +289,20 @@ class ConversationServiceTest {
         // Assert
         assertNotNull(result);
         assertTrue(result.isEmpty());
-        verify(conversationRepository, times(1)).findAllByUser(1);
+        verify(conversationRepository, times(1)).findRowsByUser(1);
+        verify(userRepository, never()).findDTOsByIds(any());
     }
 
     @Test
     @DisplayName("Should count unread messages correctly")
     void testGetConversationsForUserWithUnreadMessages() {
         // Arrange
-        Message unreadMessage1 = new Message();
-        Message unreadMessage2 = new Message();
-        List<Message> unreadMessages = Arrays.asList(unreadMessage1, unreadMessage2);
-
-        List<Conversation> conversations = Arrays.asList(testConversation);
-        when(conversationRepository.findAllByUser(1)).thenReturn(conversations);
-        when(messageRepository.findLastMessage(1)).thenReturn(testMessage);
-        when(messageRepository.findUnreadMessages(1, 1)).thenReturn(unreadMessages);
+        List<ConversationRowDTO> conversations = Arrays.asList(testRow);
+        when(conversationRepository.findRowsByUser(1)).thenReturn(conversations);
+        when(userRepository.findDTOsByIds(List.of(2))).thenReturn(List.of(userDTO(user2)));
+        when(messageRepository.findLastMessages(eq(List.of(1)), any(LocalDateTime.class))).thenReturn(lastMessageRows());
+        when(messageRepository.countUnreadMessages(eq(List.of(1)), eq(1), any(LocalDateTime.class)))
+                .thenReturn(List.<Object[]>of(new Object[]{1, 2L}));
 
         // Act
         List<ChatDTO> result = conversationService.getConversationsForUser(1);
@@ -291,5 +312,36 @@ class ConversationServiceTest {
         assertEquals(1, result.size());
         assertEquals(2, result.get(0).getUnreadCount());
     }
-}
 
+    @Test
+    @DisplayName("Should build only the first inbox page and take the unread totals from the database")
+    void testGetInbox() {
+        // Arrange
+        ConversationRowDTO olderRow = new ConversationRowDTO(2, 3, testConversation.getCreatedAt().minusDays(1));
+        when(conversationRepository.findRowsByUserOrderByActivity(1, PageRequest.of(0, 2))).thenReturn(List.of(testRow, olderRow));
+        when(userRepository.findDTOsByIds(List.of(2))).thenReturn(List.of(userDTO(user2)));
+        when(messageRepository.findLastMessages(eq(List.of(1)), any(LocalDateTime.class))).thenReturn(lastMessageRows());
+        when(messageRepository.countUnreadMessages(eq(List.of(1)), eq(1), any(LocalDateTime.class)))
+                .thenReturn(List.<Object[]>of(new Object[]{1, 2L}));
+        when(messageRepository.countUnreadTotals(1)).thenReturn(List.<Object[]>of(new Object[]{9L, 4L}));
+
+        // Act
+        ConversationService.Inbox inbox = conversationService.getInbox(1, 1);
+
+        // Assert
+        assertEquals(List.of(1L), inbox.chats().stream().map(ChatDTO::getId).toList());
+        assertEquals(2, inbox.chats().get(0).getUnreadCount());
+        assertTrue(inbox.moreChats());
+        assertEquals(9, inbox.unreadMessages());
+        assertEquals(4, inbox.unreadConversations());
+    }
+
+    private List<Object[]> lastMessageRows() {
+        return List.<Object[]>of(new Object[]{1, testMessage.getContent(), testMessage.getCreatedAt()});
+    }
+
+    private static UserResponseDTO userDTO(User user) {
+        return new UserResponseDTO(user.getUserId(), user.getFirstName(), user.getLastName(), user.getEmail(),
+                null, user.getUserRole(), user.getUserStatus(), null, null, true);
+    }
+}
@@ -0,0 +1,148 @@
+package org.devconnect.devconnectbackend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.devconnect.devconnectbackend.dto.MessageDTO;
+import org.devconnect.devconnectbackend.exception.IdempotencyConflictException;
+import org.devconnect.devconnectbackend.model.IdempotencyKey;
+import org.devconnect.devconnectbackend.repository.IdempotencyKeyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Idempotency Service Tests")
+class IdempotencyServiceTest {
+
+    @Mock
+    private IdempotencyKeyRepository repository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private IdempotencyService idempotencyService;
+
+    private MessageDTO request;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        idempotencyService = new IdempotencyService(repository, objectMapper, transactionManager);
+        ReflectionTestUtils.setField(idempotencyService, "ttlHours", 24L);
+        ReflectionTestUtils.setField(idempotencyService, "cacheSize", 100);
+        ReflectionTestUtils.setField(idempotencyService, "inProgressTimeoutSeconds", 60L);
+        idempotencyService.init();
+
+        request = new MessageDTO();
+        request.setSenderId(1L);
+        request.setReceiverId(2L);
+        request.setText("Hello");
+    }
+
+    @Test
+    @DisplayName("Should run the action once and replay the response for a retry")
+    void testReplayFromCache() {
+        AtomicInteger calls = new AtomicInteger();
+
+        IdempotencyService.Result<MessageDTO> first = idempotencyService.execute(
+                "message-send:1", "key-1", request, MessageDTO.class, () -> sent(calls.incrementAndGet()));
+        IdempotencyService.Result<MessageDTO> retry = idempotencyService.execute(
+                "message-send:1", "key-1", request, MessageDTO.class, () -> sent(calls.incrementAndGet()));
+
+        assertEquals(1, calls.get());
+        assertFalse(first.replayed());
+        assertTrue(retry.replayed());
+        assertEquals(first.response().getId(), retry.response().getId());
+        verify(repository).claim(eq("message-send:1:key-1"), anyString(), any(), any());
+        verify(repository).complete(eq("message-send:1:key-1"), eq(IdempotencyKey.Status.COMPLETED), anyString());
+    }
+
+    @Test
+    @DisplayName("Should replay a response stored by another node")
+    void testReplayFromDatabase() throws Exception {
+        // Stored by a first run whose response is not in this node's cache
+        IdempotencyService other = new IdempotencyService(repository, objectMapper, transactionManager);
+        ReflectionTestUtils.setField(other, "cacheSize", 100);
+        other.init();
+        ArgumentCaptor<String> hash = ArgumentCaptor.forClass(String.class);
+        other.execute("message-send:1", "key-1", request, MessageDTO.class, () -> sent(5));
+        verify(repository).claim(anyString(), hash.capture(), any(), any());
+
+        IdempotencyKey stored = new IdempotencyKey();
+        stored.setIdempotencyKey("message-send:1:key-1");
+        stored.setRequestHash(hash.getValue());
+        stored.setStatus(IdempotencyKey.Status.COMPLETED);
+        stored.setResponseBody(objectMapper.writeValueAsString(sent(5)));
+        stored.setExpiresAt(LocalDateTime.now().plusHours(1));
+        when(repository.claim(anyString(), anyString(), any(), any())).thenThrow(new DataIntegrityViolationException("duplicate"));
+        when(repository.findById("message-send:1:key-1")).thenReturn(Optional.of(stored));
+
+        IdempotencyService.Result<MessageDTO> result = idempotencyService.execute(
+                "message-send:1", "key-1", request, MessageDTO.class, () -> fail("Should not run again"));
+
+        assertTrue(result.replayed());
+        assertEquals(5L, result.response().getId());
+    }
+
+    @Test
+    @DisplayName("Should reject a key that is still being processed")
+    void testInProgressConflict() {
+        IdempotencyKey inProgress = new IdempotencyKey();
+        inProgress.setStatus(IdempotencyKey.Status.IN_PROGRESS);
+        when(repository.claim(anyString(), anyString(), any(), any())).thenThrow(new DataIntegrityViolationException("duplicate"));
+        when(repository.findById("message-send:1:key-1")).thenReturn(Optional.of(inProgress));
+
+        assertThrows(IdempotencyConflictException.class, () -> idempotencyService.execute(
+                "message-send:1", "key-1", request, MessageDTO.class, () -> sent(1)));
+    }
+
+    @Test
+    @DisplayName("Should reject a key reused for a different request")
+    void testDifferentRequestConflict() {
+        idempotencyService.execute("message-send:1", "key-1", request, MessageDTO.class, () -> sent(1));
+
+        MessageDTO changed = new MessageDTO();
+        changed.setSenderId(1L);
+        changed.setReceiverId(2L);
+        changed.setText("Something else");
+
+        assertThrows(IdempotencyConflictException.class, () -> idempotencyService.execute(
+                "message-send:1", "key-1", changed, MessageDTO.class, () -> sent(2)));
+    }
+
+    @Test
+    @DisplayName("Should release the key when the action fails")
+    void testReleaseOnFailure() {
+        assertThrows(IllegalStateException.class, () -> idempotencyService.execute(
+                "message-send:1", "key-1", request, MessageDTO.class, () -> {
+                    throw new IllegalStateException("Receiver not found");
+                }));
+
+        verify(repository).release("message-send:1:key-1", IdempotencyKey.Status.IN_PROGRESS);
+        verify(repository, never()).complete(anyString(), any(), anyString());
+    }
+
+    private MessageDTO sent(long id) {
+        MessageDTO message = new MessageDTO();
+        message.setId(id);
+        message.setSenderId(1L);
+        message.setReceiverId(2L);
+        message.setText("Hello");
+        message.setStatus("sent");
+        return message;
+    }
+}
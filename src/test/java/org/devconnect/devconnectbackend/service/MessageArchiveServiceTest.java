@@ -0,0 +1,106 @@
+package org.devconnect.devconnectbackend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.devconnect.devconnectbackend.dto.ArchivedMessageDTO;
+import org.devconnect.devconnectbackend.model.Conversation;
+import org.devconnect.devconnectbackend.model.Message;
+import org.devconnect.devconnectbackend.model.MessageArchiveSegment;
+import org.devconnect.devconnectbackend.model.User;
+import org.devconnect.devconnectbackend.repository.ConversationRepository;
+import org.devconnect.devconnectbackend.repository.MessageArchiveSegmentRepository;
+import org.devconnect.devconnectbackend.repository.MessageRepository;
+import org.devconnect.devconnectbackend.utills.MessageContentCodec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Message Archive Service Tests")
+class MessageArchiveServiceTest {
+
+    @Mock
+    private MessageRepository messageRepository;
+
+    @Mock
+    private ConversationRepository conversationRepository;
+
+    @Mock
+    private MessageArchiveSegmentRepository segmentRepository;
+
+    private MessageArchiveService archiveService;
+
+    private Conversation conversation;
+    private User sender;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        archiveService = new MessageArchiveService(messageRepository, conversationRepository, segmentRepository,
+                new MessageContentCodec(4096), new ObjectMapper().findAndRegisterModules());
+
+        sender = new User();
+        sender.setUserId(1);
+
+        conversation = new Conversation();
+        conversation.setConversationId(1);
+        conversation.setCreatedAt(LocalDateTime.now().minusYears(2));
+    }
+
+    @Test
+    @DisplayName("Should round-trip messages through a compressed segment")
+    void testSegmentRoundTrip() {
+        List<ArchivedMessageDTO> messages = List.of(
+                new ArchivedMessageDTO(1, 1, "Hello", null, "READ", LocalDateTime.now().minusYears(2), null, null, null),
+                new ArchivedMessageDTO(2, 2, "Multi\nline ✓", 7, "DELIVERED", LocalDateTime.now().minusYears(1), null, null, null)
+        );
+
+        List<ArchivedMessageDTO> result = archiveService.readSegment(archiveService.writeSegment(messages));
+
+        assertEquals(messages, result);
+    }
+
+    @Test
+    @DisplayName("Should archive messages and drop soft-deleted ones")
+    void testArchiveOldestMessages() {
+        Message kept = message(1, "Keep me", false);
+        Message deleted = message(2, "Deleted", true);
+
+        when(conversationRepository.findById(1)).thenReturn(Optional.of(conversation));
+        when(messageRepository.findByConversationConversationIdAndCreatedAtBetweenOrderByCreatedAtAsc(
+                eq(1), any(LocalDateTime.class), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(kept, deleted));
+
+        int moved = archiveService.archiveOldestMessages(1, LocalDateTime.now().minusYears(1), 500);
+
+        assertEquals(2, moved);
+        ArgumentCaptor<MessageArchiveSegment> segment = ArgumentCaptor.forClass(MessageArchiveSegment.class);
+        verify(segmentRepository).save(segment.capture());
+        assertEquals(1, segment.getValue().getMessageCount());
+        assertEquals("Keep me", segment.getValue().getLastMessagePreview());
+        assertEquals("Keep me", archiveService.readSegment(segment.getValue().getPayload()).get(0).getContent());
+        verify(messageRepository).deleteAllByIdInBatch(List.of(1, 2));
+    }
+
+    private Message message(int id, String content, boolean deleted) {
+        Message message = new Message();
+        message.setMessageId(id);
+        message.setConversation(conversation);
+        message.setSender(sender);
+        message.setContent(content);
+        message.setDeleted(deleted);
+        message.setStatus(Message.MessageStatus.READ);
+        message.setCreatedAt(LocalDateTime.now().minusMonths(18).plusMinutes(id));
+        return message;
+    }
+}
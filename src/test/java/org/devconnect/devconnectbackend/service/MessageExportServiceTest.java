@@ -0,0 +1,158 @@
+package org.devconnect.devconnectbackend.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.devconnect.devconnectbackend.model.Conversation;
+import org.devconnect.devconnectbackend.model.Message;
+import org.devconnect.devconnectbackend.model.User;
+import org.devconnect.devconnectbackend.repository.ConversationRepository;
+import org.devconnect.devconnectbackend.repository.MessageArchiveSegmentRepository;
+import org.devconnect.devconnectbackend.repository.MessageRepository;
+import org.devconnect.devconnectbackend.repository.UserRepository;
+import org.devconnect.devconnectbackend.utills.MessageContentCodec;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@DisplayName("Message Export Service Tests")
+class MessageExportServiceTest {
+
+    @Autowired
+    private MessageExportService exportService;
+
+    @Autowired
+    private MessageArchiveService archiveService;
+
+    @Autowired
+    private MessageContentCodec contentCodec;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private MessageArchiveSegmentRepository segmentRepository;
+
+    @Autowired
+    private ConversationRepository conversationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private User user1;
+    private User user2;
+    private Conversation conversation;
+    private String longBody;
+
+    @BeforeEach
+    void setUp() {
+        user1 = userRepository.save(newUser("export1@test.com"));
+        user2 = userRepository.save(newUser("export2@test.com"));
+        conversation = new Conversation();
+        conversation.setUser1(user1);
+        conversation.setUser2(user2);
+        conversation = conversationRepository.save(conversation);
+
+        // Moved into an archive segment before the other messages are written
+        save(user2, "Archived hello", false);
+        archiveService.archiveOldestMessages(conversation.getConversationId(), LocalDateTime.now().plusMinutes(1), 100);
+
+        // Far above the compression threshold, so it is stored compressed
+        longBody = "java.lang.IllegalStateException: Connection pool exhausted\n".repeat(200);
+        save(user1, longBody, false);
+        save(user1, "Deleted", true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        messageRepository.deleteAll(messageRepository.findByConversationConversationIdAndCreatedAtGreaterThanEqualOrderByCreatedAtAsc(
+                conversation.getConversationId(), LocalDateTime.of(1970, 1, 1, 0, 0)));
+        segmentRepository.deleteAll(segmentRepository.findByConversationIdOrderByFirstCreatedAtAsc(conversation.getConversationId()));
+        conversationRepository.delete(conversation);
+        userRepository.deleteAll(List.of(user1, user2));
+    }
+
+    @Test
+    @DisplayName("Should export archived and live messages as NDJSON, decoding compressed bodies")
+    void testExport() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(List.of(conversation), out, false);
+
+        List<JsonNode> lines = lines(out.toString(StandardCharsets.UTF_8));
+
+        assertEquals(2, lines.size(), "the soft-deleted message is left out");
+
+        JsonNode archived = lines.get(0);
+        assertEquals("Archived hello", archived.get("text").asText());
+        assertTrue(archived.get("archived").asBoolean());
+        assertEquals(user2.getUserId(), archived.get("senderId").asInt());
+        assertEquals(user1.getUserId(), archived.get("receiverId").asInt());
+
+        JsonNode live = lines.get(1);
+        assertEquals(longBody, live.get("text").asText());
+        assertFalse(live.get("archived").asBoolean());
+        assertEquals(conversation.getConversationId(), live.get("conversationId").asInt());
+        assertEquals(user2.getUserId(), live.get("receiverId").asInt());
+    }
+
+    @Test
+    @DisplayName("Should write one complete gzip stream with the same content")
+    void testGzipExport() throws IOException {
+        ByteArrayOutputStream plain = new ByteArrayOutputStream();
+        exportService.export(List.of(conversation), plain, false);
+        ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+        exportService.export(List.of(conversation), gzipped, true);
+
+        byte[] bytes = gzipped.toByteArray();
+        assertEquals((byte) 0x1f, bytes[0]);
+        assertEquals((byte) 0x8b, bytes[1]);
+        // Reading to the end fails on a stream without its trailer
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            assertArrayEquals(plain.toByteArray(), in.readAllBytes());
+        }
+    }
+
+    private List<JsonNode> lines(String ndjson) throws IOException {
+        assertTrue(ndjson.endsWith("\n"), "every line ends with a newline");
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : ndjson.split("\n")) {
+            lines.add(objectMapper.readTree(line));
+        }
+        return lines;
+    }
+
+    private void save(User sender, String content, boolean deleted) {
+        Message message = new Message();
+        message.setConversation(conversation);
+        message.setSender(sender);
+        contentCodec.encode(message, content);
+        message.setDeleted(deleted);
+        messageRepository.save(message);
+    }
+
+    private static User newUser(String email) {
+        User newUser = new User();
+        newUser.setFirstName("Export");
+        newUser.setLastName("Test");
+        newUser.setEmail(email);
+        newUser.setPasswordHash("password123");
+        newUser.setUserRole(User.UserRole.CLIENT);
+        return newUser;
+    }
+}
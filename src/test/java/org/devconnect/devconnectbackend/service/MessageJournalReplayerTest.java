@@ -0,0 +1,130 @@
+package org.devconnect.devconnectbackend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.devconnect.devconnectbackend.dto.MessageDTO;
+import org.devconnect.devconnectbackend.exception.UserNotFoundException;
+import org.devconnect.devconnectbackend.repository.MessageJournal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.orm.jpa.JpaSystemException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionSystemException;
+
+import java.nio.file.Path;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Message Journal Replayer Tests")
+class MessageJournalReplayerTest {
+
+    @TempDir
+    Path directory;
+
+    @Mock
+    private MessageService messageService;
+
+    @Mock
+    private IdempotencyService idempotencyService;
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    private MessageJournal journal;
+    private MessageJournalReplayer replayer;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        journal = new MessageJournal(directory, 4096, new ObjectMapper().findAndRegisterModules());
+        journal.open();
+        replayer = new MessageJournalReplayer(journal, messageService, idempotencyService, messagingTemplate);
+        ReflectionTestUtils.setField(replayer, "batchSize", 100);
+        ReflectionTestUtils.setField(replayer, "maxFailureRetries", 2);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        journal.close();
+    }
+
+    @Test
+    @DisplayName("Should keep the message when the commit fails during a failover")
+    void testCommitFailureIsRetried() {
+        when(idempotencyService.execute(anyString(), anyString(), any(), eq(MessageDTO.class), any()))
+                .thenThrow(new TransactionSystemException("Could not commit JPA transaction"))
+                .thenThrow(new JpaSystemException(new RuntimeException("connection closed")));
+        journal.append(message("m1"));
+
+        assertFalse(replayer.replayBatch());
+        assertFalse(replayer.replayBatch());
+        assertTrue(journal.hasEntries());
+    }
+
+    @Test
+    @DisplayName("Should retry an unknown failure a bounded number of times")
+    void testUnknownFailureIsRetried() {
+        when(idempotencyService.execute(anyString(), anyString(), any(), eq(MessageDTO.class), any()))
+                .thenThrow(new IllegalStateException("unexpected"));
+        journal.append(message("m1"));
+
+        assertFalse(replayer.replayBatch());
+        assertFalse(replayer.replayBatch());
+        assertTrue(journal.hasEntries());
+
+        assertTrue(replayer.replayBatch());
+        assertFalse(journal.hasEntries());
+    }
+
+    @Test
+    @DisplayName("Should skip a malformed message and store the one behind it")
+    void testPoisonMessageIsSkipped() {
+        MessageDTO poison = message("m1");
+        poison.setReceiverId(null);
+        journal.append(poison);
+        journal.append(message("m2"));
+
+        MessageDTO saved = new MessageDTO();
+        when(idempotencyService.execute(anyString(), anyString(), any(), eq(MessageDTO.class), any()))
+                .thenAnswer(invocation -> {
+                    Supplier<MessageDTO> send = invocation.getArgument(4);
+                    return new IdempotencyService.Result<>(send.get(), false);
+                });
+        when(messageService.sendMessage(1, 2, "Hello", null)).thenReturn(saved);
+
+        assertTrue(replayer.replayBatch());
+        assertFalse(journal.hasEntries());
+        verify(messageService, times(1)).sendMessage(anyInt(), anyInt(), any(), any());
+        verify(messagingTemplate).convertAndSendToUser("2", "/queue/messages", saved);
+    }
+
+    @Test
+    @DisplayName("Should drop a message whose receiver does not exist")
+    void testMissingUserIsDropped() {
+        when(idempotencyService.execute(anyString(), anyString(), any(), eq(MessageDTO.class), any()))
+                .thenThrow(new UserNotFoundException("Receiver not found"));
+        journal.append(message("m1"));
+
+        assertTrue(replayer.replayBatch());
+        assertFalse(journal.hasEntries());
+        verifyNoInteractions(messagingTemplate);
+    }
+
+    private static MessageDTO message(String clientMessageId) {
+        MessageDTO message = new MessageDTO();
+        message.setSenderId(1L);
+        message.setReceiverId(2L);
+        message.setText("Hello");
+        message.setClientMessageId(clientMessageId);
+        return message;
+    }
+}
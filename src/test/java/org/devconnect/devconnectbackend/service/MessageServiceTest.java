@@ -1,22 +1,30 @@
 package org.devconnect.devconnectbackend.service;
 
+import org.devconnect.devconnectbackend.dto.ArchivedMessageDTO;
+import org.devconnect.devconnectbackend.dto.BroadcastResponseDTO;
 import org.devconnect.devconnectbackend.dto.MessageDTO;
+import org.devconnect.devconnectbackend.exception.UserNotFoundException;
+import org.devconnect.devconnectbackend.listener.MessagesSentEvent;
 import org.devconnect.devconnectbackend.model.Conversation;
 import org.devconnect.devconnectbackend.model.Message;
 import org.devconnect.devconnectbackend.model.User;
 import org.devconnect.devconnectbackend.repository.MessageRepository;
 import org.devconnect.devconnectbackend.repository.UserRepository;
+import org.devconnect.devconnectbackend.utills.MessageContentCodec;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -38,6 +46,18 @@ class MessageServiceTest {
     @Mock
     private SimpMessagingTemplate messagingTemplate;
 
+    @Spy
+    private MessageContentCodec contentCodec = new MessageContentCodec(4096);
+
+    @Mock
+    private MessageArchiveService archiveService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ResourceVersionService resourceVersions;
+
     @InjectMocks
     private MessageService messageService;
 
@@ -112,6 +132,60 @@ class MessageServiceTest {
                 .convertAndSendToUser(eq("2"), eq("/queue/messages"), any(MessageDTO.class));
     }
 
+    @Test
+    @DisplayName("Should broadcast to many receivers and report each result")
+    void testBroadcastMessage() {
+        // Arrange
+        when(userRepository.findById(1)).thenReturn(Optional.of(sender));
+        when(userRepository.findAllById(anyList())).thenReturn(List.of(receiver));
+        when(conversationService.getOrCreateConversations(eq(sender), anyList()))
+                .thenReturn(Map.of(2, testConversation));
+        when(messageRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Message> messages = invocation.getArgument(0);
+            int id = 10;
+            for (Message message : messages) {
+                message.setMessageId(id++);
+            }
+            return messages;
+        });
+
+        // Act
+        BroadcastResponseDTO result = messageService.broadcastMessage(1, List.of(2, 99, 1, 2), "Interested in this project?", null);
+
+        // Assert
+        assertEquals(1, result.getSentCount());
+        assertEquals(2, result.getFailedCount());
+        assertEquals(3, result.getResults().size());
+
+        assertEquals(2L, result.getResults().get(0).getReceiverId());
+        assertTrue(result.getResults().get(0).isSuccess());
+        assertEquals(10L, result.getResults().get(0).getMessageId());
+        assertEquals(1L, result.getResults().get(0).getConversationId());
+
+        assertEquals(99L, result.getResults().get(1).getReceiverId());
+        assertEquals("Receiver not found", result.getResults().get(1).getError());
+        assertFalse(result.getResults().get(2).isSuccess());
+
+        verify(messageRepository, times(1)).saveAll(anyList());
+        verify(eventPublisher, times(1)).publishEvent(any(MessagesSentEvent.class));
+        // Pushes happen after commit, not inside the service call
+        verify(messagingTemplate, never()).convertAndSendToUser(anyString(), anyString(), any());
+    }
+
+    @Test
+    @DisplayName("Should reject a broadcast from an unknown sender")
+    void testBroadcastMessageSenderNotFound() {
+        // Arrange
+        when(userRepository.findById(1)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(UserNotFoundException.class, () -> {
+            messageService.broadcastMessage(1, List.of(2), "Hello", null);
+        });
+
+        verify(messageRepository, never()).saveAll(anyList());
+    }
+
     @Test
     @DisplayName("Should throw exception when sender not found")
     void testSendMessageSenderNotFound() {
@@ -159,7 +233,7 @@ class MessageServiceTest {
         List<Message> messages = Arrays.asList(testMessage, message2);
 
         when(conversationService.getConversation(1, 1)).thenReturn(testConversation);
-        when(messageRepository.findByConversationConversationIdOrderByCreatedAtAsc(1))
+        when(messageRepository.findByConversationConversationIdAndCreatedAtGreaterThanEqualOrderByCreatedAtAsc(eq(1), any(LocalDateTime.class)))
                 .thenReturn(messages);
 
         // Act
@@ -176,7 +250,33 @@ class MessageServiceTest {
         assertEquals(1L, result.get(1).getReceiverId());
 
         verify(conversationService, times(1)).getConversation(1, 1);
-        verify(messageRepository, times(1)).findByConversationConversationIdOrderByCreatedAtAsc(1);
+        verify(messageRepository, times(1)).findByConversationConversationIdAndCreatedAtGreaterThanEqualOrderByCreatedAtAsc(eq(1), any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("Should include archived messages before recent ones")
+    void testGetMessagesInConversationWithArchive() {
+        // Arrange
+        ArchivedMessageDTO archived = new ArchivedMessageDTO(
+                100, 2, "An old message", null, "READ",
+                LocalDateTime.now().minusYears(2), null, null, null);
+
+        when(conversationService.getConversation(1, 1)).thenReturn(testConversation);
+        when(archiveService.getArchivedMessages(1)).thenReturn(List.of(archived));
+        when(messageRepository.findByConversationConversationIdAndCreatedAtGreaterThanEqualOrderByCreatedAtAsc(eq(1), any(LocalDateTime.class)))
+                .thenReturn(List.of(testMessage));
+
+        // Act
+        List<MessageDTO> result = messageService.getMessagesInConversation(1, 1);
+
+        // Assert
+        assertEquals(2, result.size());
+        assertEquals(100L, result.get(0).getId());
+        assertEquals(2L, result.get(0).getSenderId());
+        assertEquals(1L, result.get(0).getReceiverId());
+        assertEquals("An old message", result.get(0).getText());
+        assertEquals("read", result.get(0).getStatus());
+        assertEquals(1L, result.get(1).getId());
     }
 
     @Test
@@ -187,7 +287,7 @@ class MessageServiceTest {
 
         when(conversationService.getOrCreateConversation(1, 2)).thenReturn(testConversation);
         when(conversationService.getConversation(1, 1)).thenReturn(testConversation);
-        when(messageRepository.findByConversationConversationIdOrderByCreatedAtAsc(1))
+        when(messageRepository.findByConversationConversationIdAndCreatedAtGreaterThanEqualOrderByCreatedAtAsc(eq(1), any(LocalDateTime.class)))
                 .thenReturn(messages);
 
         // Act
@@ -199,7 +299,7 @@ class MessageServiceTest {
         assertEquals(1L, result.get(0).getId());
 
         verify(conversationService, times(1)).getOrCreateConversation(1, 2);
-        verify(messageRepository, times(1)).findByConversationConversationIdOrderByCreatedAtAsc(1);
+        verify(messageRepository, times(1)).findByConversationConversationIdAndCreatedAtGreaterThanEqualOrderByCreatedAtAsc(eq(1), any(LocalDateTime.class));
     }
 
     @Test
@@ -208,14 +308,15 @@ class MessageServiceTest {
         // Arrange
         List<Message> unreadMessages = Arrays.asList(testMessage);
 
-        when(messageRepository.findUnreadMessages(1, 2)).thenReturn(unreadMessages);
+        when(conversationService.getConversation(1, 2)).thenReturn(testConversation);
+        when(messageRepository.findUnreadMessages(eq(1), eq(2), any(LocalDateTime.class))).thenReturn(unreadMessages);
         when(messageRepository.save(any(Message.class))).thenReturn(testMessage);
 
         // Act
         messageService.markMessagesAsRead(1, 2);
 
         // Assert
-        verify(messageRepository, times(1)).findUnreadMessages(1, 2);
+        verify(messageRepository, times(1)).findUnreadMessages(eq(1), eq(2), any(LocalDateTime.class));
         verify(messageRepository, times(1)).save(any(Message.class));
         verify(messagingTemplate, times(1))
                 .convertAndSendToUser(eq("1"), eq("/queue/read-receipts"), any(MessageDTO.class));
@@ -0,0 +1,73 @@
+package org.devconnect.devconnectbackend.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Resource Version Service Tests")
+class ResourceVersionServiceTest {
+
+    private final ResourceVersionService resourceVersions = new ResourceVersionService();
+
+    @Test
+    @DisplayName("Should change the ETag only for bumped keys")
+    void testBump() {
+        String inbox1 = resourceVersions.etag(ResourceVersionService.inbox(1));
+        String inbox2 = resourceVersions.etag(ResourceVersionService.inbox(2));
+        assertTrue(inbox1.startsWith("\"") && inbox1.endsWith("\""));
+
+        resourceVersions.bump(ResourceVersionService.inbox(1));
+
+        assertNotEquals(inbox1, resourceVersions.etag(ResourceVersionService.inbox(1)));
+        assertEquals(inbox2, resourceVersions.etag(ResourceVersionService.inbox(2)));
+    }
+
+    @Test
+    @DisplayName("Should bump only after the transaction commits")
+    void testBumpAfterCommit() {
+        String before = resourceVersions.etag(ResourceVersionService.AVAILABLE_PROJECTS);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            resourceVersions.bump(ResourceVersionService.AVAILABLE_PROJECTS);
+            assertEquals(before, resourceVersions.etag(ResourceVersionService.AVAILABLE_PROJECTS));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertNotEquals(before, resourceVersions.etag(ResourceVersionService.AVAILABLE_PROJECTS));
+    }
+
+    @Test
+    @DisplayName("Should change every ETag after a resync, also for keys never bumped here")
+    void testRefreshAll() {
+        String bumped = ResourceVersionService.inbox(1);
+        String neverSeen = ResourceVersionService.project(7L);
+        resourceVersions.bump(bumped);
+        String bumpedBefore = resourceVersions.etag(bumped);
+        String neverSeenBefore = resourceVersions.etag(neverSeen);
+
+        resourceVersions.refreshAll();
+
+        assertNotEquals(bumpedBefore, resourceVersions.etag(bumped));
+        assertNotEquals(neverSeenBefore, resourceVersions.etag(neverSeen));
+    }
+
+    @Test
+    @DisplayName("Should report a key as changed only within the given window")
+    void testChangedWithin() throws InterruptedException {
+        String key = ResourceVersionService.inbox(1);
+        resourceVersions.bump(key);
+
+        assertTrue(resourceVersions.changedWithin(key, 60_000));
+
+        Thread.sleep(5);
+        assertFalse(resourceVersions.changedWithin(key, 1));
+        assertFalse(resourceVersions.changedWithin(ResourceVersionService.inbox(2), 1));
+    }
+}
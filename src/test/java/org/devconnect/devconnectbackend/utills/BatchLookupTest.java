@@ -0,0 +1,46 @@
+package org.devconnect.devconnectbackend.utills;
+
+import org.devconnect.devconnectbackend.dto.BatchResultDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Batch Lookup Tests")
+class BatchLookupTest {
+
+    @Test
+    @DisplayName("Should return items in request order and list missing ids")
+    void testRequestOrderAndMissingIds() {
+        List<Set<Integer>> loads = new ArrayList<>();
+        BatchResultDTO<String, Integer> result = BatchLookup.resolve(Arrays.asList(3, 7, 1, 3, 9), ids -> {
+            loads.add(ids);
+            Map<Integer, String> found = new HashMap<>();
+            ids.stream().filter(id -> id != 7).forEach(id -> found.put(id, "item-" + id));
+            return found;
+        });
+
+        assertEquals(List.of("item-3", "item-1", "item-9"), result.getItems());
+        assertEquals(List.of(7), result.getMissingIds());
+        assertEquals(1, loads.size());
+        assertEquals(Set.of(1, 3, 7, 9), loads.get(0));
+    }
+
+    @Test
+    @DisplayName("Should reject empty, null and oversized id lists")
+    void testRejectsInvalidIds() {
+        assertThrows(IllegalArgumentException.class, () -> BatchLookup.resolve(List.of(), ids -> Map.of()));
+        assertThrows(IllegalArgumentException.class, () -> BatchLookup.resolve(Arrays.asList(1, null), ids -> Map.of()));
+
+        List<Integer> tooMany = IntStream.rangeClosed(1, BatchLookup.MAX_IDS + 1).boxed().toList();
+        assertThrows(IllegalArgumentException.class, () -> BatchLookup.resolve(tooMany, ids -> Map.of()));
+    }
+}
@@ -0,0 +1,57 @@
+package org.devconnect.devconnectbackend.utills;
+
+import org.devconnect.devconnectbackend.listener.InvalidationEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Invalidation Codec Tests")
+class InvalidationCodecTest {
+
+    @Test
+    @DisplayName("Should decode what it encodes")
+    void testRoundTrip() {
+        List<InvalidationEvent> events = List.of(
+                new InvalidationEvent(InvalidationEvent.Type.PROJECT, "42", 1),
+                new InvalidationEvent(InvalidationEvent.Type.RESOURCE, "inbox:7", 2));
+
+        List<String> payloads = InvalidationCodec.encode("node-1", 1234L, events, 8000);
+
+        assertEquals(1, payloads.size());
+        InvalidationCodec.Batch batch = InvalidationCodec.decode(payloads.getFirst());
+        assertEquals("node-1", batch.origin());
+        assertEquals(1234L, batch.sentAtMillis());
+        assertEquals(events, batch.events());
+    }
+
+    @Test
+    @DisplayName("Should split large batches in order")
+    void testSplit() {
+        List<InvalidationEvent> events = new ArrayList<>();
+        for (int i = 1; i <= 1000; i++) {
+            events.add(new InvalidationEvent(InvalidationEvent.Type.USER, String.valueOf(i), i));
+        }
+
+        List<String> payloads = InvalidationCodec.encode("node-1", 1234L, events, 500);
+
+        assertTrue(payloads.size() > 1);
+        List<InvalidationEvent> decoded = new ArrayList<>();
+        for (String payload : payloads) {
+            assertTrue(payload.length() <= 500);
+            decoded.addAll(InvalidationCodec.decode(payload).events());
+        }
+        assertEquals(events, decoded);
+    }
+
+    @Test
+    @DisplayName("Should reject malformed payloads")
+    void testMalformed() {
+        assertThrows(IllegalArgumentException.class, () -> InvalidationCodec.decode("garbage"));
+        assertThrows(IllegalArgumentException.class, () -> InvalidationCodec.decode("node-1 1234\nX 1 1"));
+        assertThrows(IllegalArgumentException.class, () -> InvalidationCodec.decode("node-1 1234\nU 1"));
+    }
+}
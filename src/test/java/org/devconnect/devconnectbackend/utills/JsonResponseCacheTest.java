@@ -0,0 +1,74 @@
+package org.devconnect.devconnectbackend.utills;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.devconnect.devconnectbackend.service.ResourceVersionService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("JSON Response Cache Tests")
+class JsonResponseCacheTest {
+
+    private final ResourceVersionService resourceVersions = new ResourceVersionService();
+    private final JsonResponseCache cache = new JsonResponseCache(
+            resourceVersions, new ObjectMapper(), new SingleFlight(new SimpleMeterRegistry(), 1000), 4096);
+
+    @Test
+    @DisplayName("Should serialize once per version")
+    void testCachesUntilVersionChanges() {
+        AtomicInteger loads = new AtomicInteger();
+        String key = ResourceVersionService.project(1L);
+
+        byte[] first = cache.get(key, resourceVersions.etag(key), () -> Map.of("projectId", loads.incrementAndGet()));
+        byte[] second = cache.get(key, resourceVersions.etag(key), () -> Map.of("projectId", loads.incrementAndGet()));
+        assertSame(first, second);
+        assertEquals("{\"projectId\":1}", new String(first, StandardCharsets.UTF_8));
+
+        resourceVersions.bump(key);
+        byte[] third = cache.get(key, resourceVersions.etag(key), () -> Map.of("projectId", loads.incrementAndGet()));
+        assertEquals("{\"projectId\":2}", new String(third, StandardCharsets.UTF_8));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("Should stay within the byte limit")
+    void testEvictsByBytes() {
+        String body = "x".repeat(700);
+        for (long id = 0; id < 20; id++) {
+            String key = ResourceVersionService.project(id);
+            cache.get(key, resourceVersions.etag(key), () -> List.of(body));
+        }
+        assertTrue(cache.totalBytes() <= 4096, "cached " + cache.totalBytes() + " bytes");
+
+        // Larger than a quarter of the cache: served, not stored
+        String key = ResourceVersionService.project(100L);
+        cache.get(key, resourceVersions.etag(key), () -> List.of("y".repeat(2000)));
+        assertTrue(cache.totalBytes() <= 4096);
+    }
+
+    @Test
+    @DisplayName("Should answer 304 without loading when the ETag matches")
+    void testNotModified() {
+        String key = ResourceVersionService.AVAILABLE_PROJECTS;
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/projects/available");
+        request.addHeader("If-None-Match", resourceVersions.etag(key));
+
+        ResponseEntity<byte[]> response = cache.respond(key, new ServletWebRequest(request, new MockHttpServletResponse()),
+                () -> fail("should not load"));
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertNull(response.getBody());
+    }
+}
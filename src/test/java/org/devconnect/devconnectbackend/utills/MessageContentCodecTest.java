@@ -0,0 +1,126 @@
+package org.devconnect.devconnectbackend.utills;
+
+import org.devconnect.devconnectbackend.model.Message;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Message Content Codec Tests")
+class MessageContentCodecTest {
+
+    private final MessageContentCodec codec = new MessageContentCodec(4096);
+
+    @Test
+    @DisplayName("Should keep short messages as plain text")
+    void testShortMessageIsNotCompressed() {
+        Message message = new Message();
+        codec.encode(message, "Hello Jane!");
+
+        assertEquals("Hello Jane!", message.getContent());
+        assertNull(message.getContentCompressed());
+        assertEquals("Hello Jane!", codec.decode(message));
+    }
+
+    @Test
+    @DisplayName("Should compress large messages and keep a preview")
+    void testLargeMessageRoundTrip() {
+        String body = stackTrace(new Random(1), 400);
+        Message message = new Message();
+        codec.encode(message, body);
+
+        assertNotNull(message.getContentCompressed());
+        assertEquals(MessageContentCodec.FORMAT_LZ4, message.getContentCompressed()[0]);
+        assertTrue(body.startsWith(message.getContent()));
+        assertTrue(message.getContent().length() < body.length());
+        assertEquals(body, codec.decode(message));
+    }
+
+    @Test
+    @DisplayName("Should store incompressible bodies as plain text")
+    void testIncompressibleBodyIsNotCompressed() {
+        Random random = new Random(2);
+        StringBuilder body = new StringBuilder();
+        while (body.length() < 8192) {
+            body.append((char) ('!' + random.nextInt(90)));
+        }
+
+        assertNull(codec.compress(body.toString()));
+    }
+
+    @Test
+    @DisplayName("Should round-trip multi-byte text")
+    void testUnicodeRoundTrip() {
+        String body = "Ünïcødé ✓ 日本語 😀 ".repeat(500);
+        Message message = new Message();
+        codec.encode(message, body);
+
+        assertNotNull(message.getContentCompressed());
+        assertEquals(body, codec.decode(message));
+    }
+
+    /**
+     * Storage saving on a synthetic corpus of pasted logs and stack traces mixed with normal
+     * chat messages. Encode and decode speed are measured by MessageContentCodecBenchmark.
+     */
+    @Test
+    @DisplayName("Should reduce storage on a synthetic corpus of pasted logs")
+    void testSyntheticCorpusSavings() {
+        Random random = new Random(42);
+        List<String> corpus = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            corpus.add("Sounds good, I will push the fix for ticket #" + random.nextInt(1000) + " tonight.");
+        }
+        for (int i = 0; i < 40; i++) {
+            corpus.add(i % 2 == 0 ? stackTrace(random, 200 + random.nextInt(800)) : logLines(random, 500 + random.nextInt(2000)));
+        }
+
+        long rawBytes = 0;
+        long storedBytes = 0;
+        for (String body : corpus) {
+            rawBytes += body.getBytes(StandardCharsets.UTF_8).length;
+
+            Message message = new Message();
+            codec.encode(message, body);
+            storedBytes += message.getContent().getBytes(StandardCharsets.UTF_8).length;
+            if (message.getContentCompressed() != null) {
+                storedBytes += message.getContentCompressed().length;
+            }
+            assertEquals(body, codec.decode(message));
+        }
+
+        double ratio = (double) storedBytes / rawBytes;
+        assertTrue(ratio < 0.5, "Expected at least 50% storage saving, got " + ratio);
+    }
+
+    private static String stackTrace(Random random, int frames) {
+        StringBuilder sb = new StringBuilder("java.lang.IllegalStateException: Connection pool exhausted\n");
+        String[] packages = {"org.springframework.web.servlet", "org.hibernate.engine.jdbc", "com.zaxxer.hikari.pool", "org.devconnect.devconnectbackend.service"};
+        for (int i = 0; i < frames; i++) {
+            String pkg = packages[random.nextInt(packages.length)];
+            sb.append("\tat ").append(pkg).append(".Handler").append(random.nextInt(20))
+                    .append(".invoke(Handler").append(random.nextInt(20)).append(".java:")
+                    .append(random.nextInt(900) + 10).append(")\n");
+        }
+        return sb.toString();
+    }
+
+    private static String logLines(Random random, int lines) {
+        StringBuilder sb = new StringBuilder();
+        String[] levels = {"INFO", "DEBUG", "WARN", "ERROR"};
+        for (int i = 0; i < lines; i++) {
+            sb.append("2025-11-17T10:").append(10 + random.nextInt(50)).append(":").append(10 + random.nextInt(50))
+                    .append(".").append(100 + random.nextInt(900)).append(" ")
+                    .append(levels[random.nextInt(levels.length)])
+                    .append(" [http-nio-8081-exec-").append(random.nextInt(10)).append("] ")
+                    .append("o.d.d.service.MessageService : Processed request id=").append(random.nextInt(100000))
+                    .append(" in ").append(random.nextInt(500)).append(" ms\n");
+        }
+        return sb.toString();
+    }
+}
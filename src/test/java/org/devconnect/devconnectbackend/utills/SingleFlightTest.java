@@ -0,0 +1,99 @@
+package org.devconnect.devconnectbackend.utills;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Single Flight Tests")
+class SingleFlightTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("Should run concurrent identical calls once")
+    void testCoalescesConcurrentCalls() throws Exception {
+        SingleFlight singleFlight = new SingleFlight(meterRegistry, 5000);
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Integer> leader = executor.submit(() -> singleFlight.execute("projects", () -> {
+                leaderStarted.countDown();
+                await(release);
+                return runs.incrementAndGet();
+            }));
+            assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+
+            List<Future<Integer>> followers = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                followers.add(executor.submit(() -> singleFlight.execute("projects", runs::incrementAndGet)));
+            }
+            // Let the followers reach the wait before the leader finishes
+            while (meterRegistry.counter("single_flight.calls", "role", "follower").count() < 10) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            assertEquals(1, leader.get());
+            for (Future<Integer> follower : followers) {
+                assertEquals(1, follower.get());
+            }
+        }
+        assertEquals(1, runs.get());
+        assertEquals(1, meterRegistry.counter("single_flight.calls", "role", "leader").count());
+    }
+
+    @Test
+    @DisplayName("Should stop waiting for a slow leader")
+    void testFollowerTimeout() throws Exception {
+        SingleFlight singleFlight = new SingleFlight(meterRegistry, 50);
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<String> leader = executor.submit(() -> singleFlight.execute("slow", () -> {
+                leaderStarted.countDown();
+                await(release);
+                return "leader";
+            }));
+            assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+
+            assertEquals("follower", singleFlight.execute("slow", () -> "follower"));
+            assertEquals(1, meterRegistry.counter("single_flight.follower_timeouts").count());
+
+            release.countDown();
+            assertEquals("leader", leader.get());
+        }
+    }
+
+    @Test
+    @DisplayName("Should not keep failed calls")
+    void testFailureIsNotCached() {
+        SingleFlight singleFlight = new SingleFlight(meterRegistry, 1000);
+
+        assertThrows(IllegalStateException.class, () -> singleFlight.execute("broken", () -> {
+            throw new IllegalStateException("Database unavailable");
+        }));
+        assertEquals("ok", singleFlight.execute("broken", () -> "ok"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package org.devconnect.devconnectbackend.utills;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Sparse Fieldset Tests")
+class SparseFieldsetTest {
+
+    @Test
+    @DisplayName("Should put the id first and keep the requested order")
+    void testParseKeepsIdFirst() {
+        assertEquals(List.of("developerId", "lastName", "averageRating"),
+                List.copyOf(SparseFieldset.parse("lastName, averageRating,,lastName", SparseFieldset.DEVELOPER_FIELDS)));
+        assertEquals(List.of("projectId"), List.copyOf(SparseFieldset.parse("projectId", SparseFieldset.PROJECT_FIELDS)));
+    }
+
+    @Test
+    @DisplayName("Should reject unknown fields")
+    void testParseRejectsUnknownFields() {
+        assertThrows(IllegalArgumentException.class,
+                () -> SparseFieldset.parse("firstName,passwordHash", SparseFieldset.USER_FIELDS));
+    }
+
+    @Test
+    @DisplayName("Should read the row id from the first field")
+    void testRowId() {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("projectId", 42L);
+        row.put("projectName", "Website");
+
+        assertEquals(42L, SparseFieldset.rowId(row));
+    }
+}